@@ -0,0 +1,92 @@
+package com.example.query.benchmarks;
+
+import com.example.query.configuration.ApiKeyAuthFilter;
+import com.example.query.entity.UserEntity;
+import com.example.query.repository.UserRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the API key filter. {@code noFilter} measures the mock request and response
+ * allocation alone; {@code cachedKey} is the steady state and {@code uncachedKey} disables the cache so
+ * every request goes to the (in-memory) repository.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ApiKeyAuthFilterBenchmark {
+
+    private static final String API_KEY = "EQmdzY5Cvvg1QZuwyR1t9AVVuqZj5YD5d7pv8nrh";
+    private static final FilterChain CHAIN = (request, response) -> SecurityContextHolder.clearContext();
+
+    private ApiKeyAuthFilter cachingFilter;
+    private ApiKeyAuthFilter nonCachingFilter;
+
+    @Setup
+    public void setUp() {
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+        user.setApiKey(API_KEY);
+        user.setActive(true);
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByApiKeyAndActive")) {
+                        return API_KEY.equals(args[0]) ? Optional.of(user) : Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        cachingFilter = new ApiKeyAuthFilter(repository, Duration.ofSeconds(30), Duration.ofSeconds(5), 10_000, 1_000);
+        nonCachingFilter = new ApiKeyAuthFilter(repository, Duration.ZERO, Duration.ZERO, 10_000, 1_000);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse noFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CHAIN.doFilter(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse cachedKey() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cachingFilter.doFilter(request(), response, CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse uncachedKey() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        nonCachingFilter.doFilter(request(), response, CHAIN);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/trade/symbol/BTCUSDT/latest");
+        request.addHeader("X-API-KEY", API_KEY);
+        return request;
+    }
+}
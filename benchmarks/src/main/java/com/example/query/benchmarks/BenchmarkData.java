@@ -0,0 +1,108 @@
+package com.example.query.benchmarks;
+
+import com.example.query.entity.EventTypeEntity;
+import com.example.query.entity.SymbolEntity;
+import com.example.query.entity.TickerEntity;
+import com.example.query.entity.TradeEntity;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Representative payloads shared by the benchmarks, shaped like a Binance trade and 24h ticker event.
+ */
+final class BenchmarkData {
+
+    static final String SYMBOL = "BTCUSDT";
+    static final String TRADE_EVENT = "trade";
+    static final String TICKER_EVENT = "24hrTicker";
+
+    private BenchmarkData() {
+    }
+
+    static TradeEntity tradeEntity() {
+        TradeEntity trade = new TradeEntity();
+        trade.setId(1L);
+        trade.setEventType(eventType(1, TRADE_EVENT));
+        trade.setEventTimestamp(1_700_000_000_123L);
+        trade.setSymbol(symbol());
+        trade.setTradeId(3_456_789_012L);
+        trade.setPrice(new BigDecimal("43251.12000000"));
+        trade.setQuantity(new BigDecimal("0.00512000"));
+        trade.setTradeTime(1_700_000_000_120L);
+        trade.setIsBuyerMarketMaker(true);
+        trade.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return trade;
+    }
+
+    /**
+     * A trade not yet persisted, with a unique trade id.
+     */
+    static TradeEntity newTradeEntity(long tradeId) {
+        TradeEntity trade = tradeEntity();
+        trade.setId(null);
+        trade.setTradeId(tradeId);
+        trade.setTradeTime(1_700_000_000_000L + tradeId);
+        trade.setCreatedAt(LocalDateTime.now());
+        return trade;
+    }
+
+    static TickerEntity tickerEntity() {
+        TickerEntity ticker = new TickerEntity();
+        ticker.setId(1L);
+        ticker.setEventType(eventType(2, TICKER_EVENT));
+        ticker.setEventTimestamp(1_700_000_000_123L);
+        ticker.setSymbol(symbol());
+        ticker.setPriceChange(new BigDecimal("-94.99999800"));
+        ticker.setPriceChangePercent(new BigDecimal("-95.96000000"));
+        ticker.setWeightedAveragePrice(new BigDecimal("0.29628482"));
+        ticker.setFirstTradeBeforeWindow(new BigDecimal("0.10002000"));
+        ticker.setLastPrice(new BigDecimal("43251.12000000"));
+        ticker.setLastQuantity(new BigDecimal("200.00000000"));
+        ticker.setBestBidPrice(new BigDecimal("43251.11000000"));
+        ticker.setBestBidQuantity(new BigDecimal("1.20000000"));
+        ticker.setBestAskPrice(new BigDecimal("43251.13000000"));
+        ticker.setBestAskQuantity(new BigDecimal("3.40000000"));
+        ticker.setOpenPrice(new BigDecimal("42100.00000000"));
+        ticker.setHighPrice(new BigDecimal("43500.00000000"));
+        ticker.setLowPrice(new BigDecimal("41900.00000000"));
+        ticker.setTotalTradedBaseAssetVolume(new BigDecimal("8913.30000000"));
+        ticker.setTotalTradedQuoteAssetVolume(new BigDecimal("762311.44000000"));
+        ticker.setStatisticsOpenTime(1_699_913_600_000L);
+        ticker.setStatisticsCloseTime(1_700_000_000_000L);
+        ticker.setFirstTradeId(3_456_000_000L);
+        ticker.setLastTradeId(3_456_789_012L);
+        ticker.setTotalTradeCount(789_012L);
+        ticker.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return ticker;
+    }
+
+    static TradeDto tradeDto(long tradeId) {
+        TradeDto dto = new TradeDto();
+        dto.setEventType(TRADE_EVENT);
+        dto.setEventTimestamp(1_700_000_000_123L);
+        dto.setSymbol(SYMBOL);
+        dto.setTradeId(tradeId);
+        dto.setPrice(new BigDecimal("43251.12000000"));
+        dto.setQuantity(new BigDecimal("0.00512000"));
+        dto.setTradeTime(System.currentTimeMillis());
+        dto.setIsBuyerMarketMaker(true);
+        return dto;
+    }
+
+    private static SymbolEntity symbol() {
+        SymbolEntity symbol = new SymbolEntity();
+        symbol.setId(1);
+        symbol.setName(SYMBOL);
+        return symbol;
+    }
+
+    private static EventTypeEntity eventType(int id, String type) {
+        EventTypeEntity eventType = new EventTypeEntity();
+        eventType.setId(id);
+        eventType.setType(type);
+        return eventType;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.query.benchmarks;
+
+import com.example.query.QueryApplication;
+import com.example.query.entity.TradeEntity;
+import com.example.query.repository.TradeBatchRepository;
+import com.example.query.repository.TradeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows per second for saving {@value #ROWS} new trades at once, through JPA {@code saveAll} with Hibernate
+ * insert batching off ({@code batchSize=1}) and on, and through the JDBC multi-row insert used by ingestion.
+ * Running the same benchmark on a build with IDENTITY ids shows the cost of the per-row statement and
+ * generated-key fetch that identity generation forces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkSaveBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"1", "500"})
+    public int batchSize;
+
+    private final AtomicLong tradeIds = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private TradeRepository tradeRepository;
+    private TradeBatchRepository tradeBatchRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(QueryApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so application.properties cannot override them
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--query.cache.latest.warm-on-startup=false",
+                        "--query.candles.flush-ms=3600000",
+                        "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO event_type (type) VALUES (?)", BenchmarkData.TRADE_EVENT);
+        jdbcTemplate.update("INSERT INTO symbol (name) VALUES (?)", BenchmarkData.SYMBOL);
+        tradeRepository = context.getBean(TradeRepository.class);
+        tradeBatchRepository = context.getBean(TradeBatchRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<TradeEntity> jpaSaveAll() {
+        List<TradeEntity> trades = newTrades();
+        return transactionTemplate.execute(status -> tradeRepository.saveAll(trades));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<TradeEntity> jdbcInsertAll() {
+        List<TradeEntity> trades = newTrades();
+        transactionTemplate.executeWithoutResult(status -> tradeBatchRepository.insertAll(trades));
+        return trades;
+    }
+
+    private List<TradeEntity> newTrades() {
+        List<TradeEntity> trades = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            trades.add(BenchmarkData.newTradeEntity(tradeIds.incrementAndGet()));
+        }
+        return trades;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.query.benchmarks;
+
+import com.example.query.configuration.BinaryFormatConfig;
+import com.example.query.configuration.MarketDataProtobufConverter;
+import com.example.query.mapper.PayloadMapper;
+import com.example.query.mapper.PayloadMapperImpl;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding cost of a 100-row trade page and ticker page per response format and content encoding,
+ * with the mappers configured as in {@link BinaryFormatConfig}. Payload sizes do not vary between
+ * iterations, so they are printed once per trial instead of being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    private static final int ROWS = 100;
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    public String format;
+
+    @Param({"identity", "gzip", "zstd"})
+    public String encoding;
+
+    private ObjectMapper objectMapper;
+    private MarketDataProtobufConverter protobuf;
+    private Page<TradeDto> trades;
+    private Page<TickerDto> tickers;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToEnable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+                    .build();
+            case "smile" -> BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.smile());
+            case "cbor" -> BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.cbor());
+            default -> null;
+        };
+        protobuf = new MarketDataProtobufConverter();
+
+        PayloadMapper mapper = new PayloadMapperImpl();
+        List<TradeDto> tradeRows = new ArrayList<>();
+        List<TickerDto> tickerRows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            TradeDto trade = mapper.toTradeDto(BenchmarkData.tradeEntity());
+            trade.setTradeId(trade.getTradeId() + i);
+            trade.setTradeTime(trade.getTradeTime() + i * 37L);
+            trade.setPrice(trade.getPrice().add(BigDecimal.valueOf(i % 7, 2)));
+            tradeRows.add(trade);
+            TickerDto ticker = mapper.toTickerDto(BenchmarkData.tickerEntity());
+            ticker.setTickerId((long) i);
+            ticker.setEventTimestamp(ticker.getEventTimestamp() + i * 1000L);
+            ticker.setLastPrice(ticker.getLastPrice().add(BigDecimal.valueOf(i % 11, 2)));
+            tickerRows.add(ticker);
+        }
+        trades = new PageImpl<>(tradeRows, PageRequest.of(0, ROWS), 10_000);
+        tickers = new PageImpl<>(tickerRows, PageRequest.of(0, ROWS), 10_000);
+
+        System.out.printf("%n%s/%s: trade page %d bytes, ticker page %d bytes%n",
+                format, encoding, tradePage().length, tickerPage().length);
+    }
+
+    @Benchmark
+    public byte[] tradePage() throws IOException {
+        return encode(trades);
+    }
+
+    @Benchmark
+    public byte[] tickerPage() throws IOException {
+        return encode(tickers);
+    }
+
+    private byte[] encode(Page<?> page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try (OutputStream out = compress(bytes)) {
+            if (objectMapper != null) {
+                out.write(objectMapper.writeValueAsBytes(page));
+            } else {
+                protobuf.encode(page, out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private OutputStream compress(OutputStream out) throws IOException {
+        return switch (encoding) {
+            case "gzip" -> new GZIPOutputStream(out);
+            case "zstd" -> new ZstdOutputStream(out, 3);
+            default -> out;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.query.benchmarks;
+
+import com.example.query.entity.TickerEntity;
+import com.example.query.entity.TradeEntity;
+import com.example.query.mapper.PayloadMapper;
+import com.example.query.mapper.PayloadMapperImpl;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+
+    private final PayloadMapper mapper = new PayloadMapperImpl();
+    private final TradeEntity trade = BenchmarkData.tradeEntity();
+    private final TickerEntity ticker = BenchmarkData.tickerEntity();
+
+    @Benchmark
+    public TradeDto toTradeDto() {
+        return mapper.toTradeDto(trade);
+    }
+
+    @Benchmark
+    public TickerDto toTickerDto() {
+        return mapper.toTickerDto(ticker);
+    }
+}
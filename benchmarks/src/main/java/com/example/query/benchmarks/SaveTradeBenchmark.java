@@ -0,0 +1,70 @@
+package com.example.query.benchmarks;
+
+import com.example.query.QueryApplication;
+import com.example.query.model.TradeDto;
+import com.example.query.service.TradeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end {@link TradeService#saveTrade(TradeDto)} through the real Spring context, JPA and an
+ * in-memory H2 database in MySQL mode. Absolute numbers are lower than against MySQL; the point is
+ * to catch regressions in mapping, lookups and persistence overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveTradeBenchmark {
+
+    private final AtomicLong tradeIds = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private TradeService tradeService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(QueryApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so application.properties cannot override them
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--query.cache.latest.warm-on-startup=false",
+                        "--query.candles.flush-ms=3600000",
+                        "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO event_type (type) VALUES (?)", BenchmarkData.TRADE_EVENT);
+        jdbcTemplate.update("INSERT INTO symbol (name) VALUES (?)", BenchmarkData.SYMBOL);
+        tradeService = context.getBean(TradeService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TradeDto saveTrade() {
+        return tradeService.saveTrade(BenchmarkData.tradeDto(tradeIds.incrementAndGet()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.query.benchmarks;
+
+import com.example.query.mapper.PayloadMapper;
+import com.example.query.mapper.PayloadMapperImpl;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes responses with an ObjectMapper configured the way the application configures it
+ * (Spring defaults plus plain BigDecimal output).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TradeDto trade;
+    private TickerDto ticker;
+    private Page<TradeDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+                .build();
+        PayloadMapper mapper = new PayloadMapperImpl();
+        trade = mapper.toTradeDto(BenchmarkData.tradeEntity());
+        ticker = mapper.toTickerDto(BenchmarkData.tickerEntity());
+        List<TradeDto> content = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            content.add(mapper.toTradeDto(BenchmarkData.tradeEntity()));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, 20), 10_000);
+    }
+
+    @Benchmark
+    public byte[] tradeDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(trade);
+    }
+
+    @Benchmark
+    public byte[] tickerDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ticker);
+    }
+
+    @Benchmark
+    public byte[] tradePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -6,21 +6,45 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
-@AllArgsConstructor
 public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
     private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    // Unknown keys live in their own map, so a flood of random keys can only evict other unknown keys
+    private final BoundedCache known;
+    private final BoundedCache unknown;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder denials = new LongAdder();
+
+    public ApiKeyAuthFilter(UserRepository userRepository,
+                            @Value("${query.auth.cache.ttl:PT30S}") Duration ttl,
+                            @Value("${query.auth.cache.negative-ttl:PT5S}") Duration negativeTtl,
+                            @Value("${query.auth.cache.max-entries:10000}") int maxEntries,
+                            @Value("${query.auth.cache.negative-max-entries:1000}") int negativeMaxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.known = new BoundedCache(maxEntries);
+        this.unknown = new BoundedCache(negativeMaxEntries);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,13 +56,15 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
             String requestApiKey = request.getHeader("X-API-KEY");
 
             if (requestApiKey == null){
+                denials.increment();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Missing API Key");
                 return;
             }
 
-            Optional<UserEntity> user = userRepository.findByApiKeyAndActive(requestApiKey, true);
+            Optional<UserEntity> user = resolve(requestApiKey);
             if (!user.isPresent()) {
+                denials.increment();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Invalid or Archived API Key");
                 return;
@@ -46,7 +72,7 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
-                            user,
+                            user.get(),
                             null,
                             Collections.emptyList());
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -54,5 +80,133 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    /**
+     * Drops the cached principal for a key, so a deactivated user is rejected on the next request
+     * instead of when the entry expires.
+     */
+    public void revoke(String apiKey) {
+        known.remove(apiKey);
+        unknown.remove(apiKey);
+    }
+
+    public void revokeAll() {
+        known.clear();
+        unknown.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getDenialCount() {
+        return denials.sum();
+    }
+
+    public int getCacheSize() {
+        return known.size() + unknown.size();
+    }
+
+    private Optional<UserEntity> resolve(String apiKey) {
+        long now = System.nanoTime();
+        CachedKey cached = known.get(apiKey, now);
+        if (cached == null) {
+            cached = unknown.get(apiKey, now);
+        }
+        if (cached != null && now - cached.expiresAt < 0) {
+            hits.increment();
+            return cached.user;
+        }
+        misses.increment();
+
+        Optional<UserEntity> user = userRepository.findByApiKeyAndActive(apiKey, true);
+        if (user.isPresent()) {
+            unknown.remove(apiKey);
+            if (ttlNanos > 0) {
+                known.put(apiKey, new CachedKey(user, now + ttlNanos, now));
+            }
+        } else {
+            known.remove(apiKey);
+            if (negativeTtlNanos > 0) {
+                unknown.put(apiKey, new CachedKey(user, now + negativeTtlNanos, now));
+            }
+        }
+        return user;
+    }
+
+    private static final class CachedKey {
+        private final Optional<UserEntity> user;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        CachedKey(Optional<UserEntity> user, long expiresAt, long lastAccess) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Concurrent map holding about {@code maxEntries} keys. Reads take no lock; once a put goes over the
+     * bound, the least recently used of a small sample of entries is dropped, preferring expired ones.
+     */
+    private static class BoundedCache {
+        private static final int EVICTION_SAMPLE = 16;
+
+        private final Map<String, CachedKey> entries = new ConcurrentHashMap<>();
+        private final int maxEntries;
+
+        BoundedCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        CachedKey get(String apiKey, long now) {
+            CachedKey entry = entries.get(apiKey);
+            if (entry != null) {
+                entry.lastAccess = now;
+            }
+            return entry;
+        }
+
+        void put(String apiKey, CachedKey entry) {
+            entries.put(apiKey, entry);
+            while (entries.size() > maxEntries) {
+                evictOne(entry.lastAccess);
+            }
+        }
+
+        void remove(String apiKey) {
+            entries.remove(apiKey);
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        private void evictOne(long now) {
+            Map.Entry<String, CachedKey> victim = null;
+            Iterator<Map.Entry<String, CachedKey>> sample = entries.entrySet().iterator();
+            for (int i = 0; i < EVICTION_SAMPLE && sample.hasNext(); i++) {
+                Map.Entry<String, CachedKey> candidate = sample.next();
+                if (now - candidate.getValue().expiresAt >= 0) {
+                    victim = candidate;
+                    break;
+                }
+                if (victim == null || candidate.getValue().lastAccess - victim.getValue().lastAccess < 0) {
+                    victim = candidate;
+                }
+            }
+            if (victim != null) {
+                entries.remove(victim.getKey(), victim.getValue());
+            }
+        }
+    }
+}
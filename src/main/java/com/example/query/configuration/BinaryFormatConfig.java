@@ -0,0 +1,54 @@
+package com.example.query.configuration;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Binary response formats chosen by {@code Accept}: CBOR ({@code application/cbor}), Smile
+ * ({@code application/x-jackson-smile}) and protobuf ({@code application/x-protobuf}). They are appended
+ * after JSON, so clients that accept anything keep getting JSON. The DTOs write decimals as strings for
+ * JSON clients; the binary mappers drop that and use the native decimal encodings of CBOR and Smile.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryMapper(Jackson2ObjectMapperBuilder.cbor())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryMapper(Jackson2ObjectMapperBuilder.smile())));
+        converters.add(new MarketDataProtobufConverter());
+    }
+
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.annotationIntrospector(new NativeDecimalIntrospector()).build();
+    }
+
+    /**
+     * Ignores {@code @JsonFormat(shape = STRING)} on decimal properties.
+     */
+    private static class NativeDecimalIntrospector extends JacksonAnnotationIntrospector {
+        @Override
+        public JsonFormat.Value findFormat(Annotated annotated) {
+            JsonFormat.Value format = super.findFormat(annotated);
+            if (format != null && annotated.getRawType() == BigDecimal.class) {
+                return format.withShape(JsonFormat.Shape.ANY);
+            }
+            return format;
+        }
+    }
+}
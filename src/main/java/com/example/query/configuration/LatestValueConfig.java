@@ -0,0 +1,34 @@
+package com.example.query.configuration;
+
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.example.query.service.LatestValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Latest trade and ticker snapshots of {@code TradeService} and {@code TickerService}, which share one
+ * staleness bound.
+ */
+@Configuration
+public class LatestValueConfig {
+
+    private final Duration maxAge;
+
+    public LatestValueConfig(@Value("${query.cache.latest.max-age:PT5S}") Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    @Bean
+    public LatestValueStore<TradeDto> latestTrades() {
+        return new LatestValueStore<>(maxAge);
+    }
+
+    @Bean
+    public LatestValueStore<TickerDto> latestTickers() {
+        return new LatestValueStore<>(maxAge);
+    }
+}
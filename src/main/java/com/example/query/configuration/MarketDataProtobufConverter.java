@@ -0,0 +1,206 @@
+package com.example.query.configuration;
+
+import com.example.query.model.CursorPage;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.example.query.proto.Decimal;
+import com.example.query.proto.Ticker;
+import com.example.query.proto.TickerPage;
+import com.example.query.proto.Trade;
+import com.example.query.proto.TradePage;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes trades and tickers, single or as offset or cursor pages, as the messages of
+ * {@code src/main/proto/market_data.proto}. The DTOs are mapped into the classes protobuf-maven-plugin
+ * generates from that file, so the wire format cannot drift from the published schema. Write-only; other
+ * response types are left to the remaining converters.
+ */
+public class MarketDataProtobufConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.valueOf(PROTOBUF_VALUE);
+
+    public MarketDataProtobufConverter() {
+        super(PROTOBUF);
+    }
+
+    /**
+     * Encodes a trade, a ticker, or a page or cursor page of either.
+     */
+    public void encode(Object value, OutputStream body) throws IOException {
+        toMessage(value).writeTo(body);
+    }
+
+    /**
+     * The message a trade, a ticker, or a page or cursor page of either is written as.
+     */
+    private static Message toMessage(Object value) {
+        if (value instanceof TradeDto trade) {
+            return toTrade(trade);
+        }
+        if (value instanceof TickerDto ticker) {
+            return toTicker(ticker);
+        }
+        if (value instanceof Page<?> page) {
+            return toPage(page.getContent(), page.getTotalElements(), page.getNumber(), page.getSize(), page.hasNext(), null);
+        }
+        if (value instanceof CursorPage<?> page) {
+            return toPage(page.getContent(), 0, 0, page.getSize(), page.isHasNext(), page.getNextCursor());
+        }
+        throw new IllegalArgumentException("Unsupported protobuf response: " + value.getClass().getName());
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return isMessage(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        Class<?> raw = resolved.toClass();
+        if (Page.class.isAssignableFrom(raw)) {
+            return isMessage(resolved.as(Page.class).getGeneric(0).toClass());
+        }
+        if (CursorPage.class.isAssignableFrom(raw)) {
+            return isMessage(resolved.as(CursorPage.class).getGeneric(0).toClass());
+        }
+        return isMessage(raw);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        encode(value, outputMessage.getBody());
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    private static boolean isMessage(Class<?> clazz) {
+        return TradeDto.class.isAssignableFrom(clazz) || TickerDto.class.isAssignableFrom(clazz);
+    }
+
+    // An empty page has no element to tell trades from tickers; both page messages encode it alike
+    private static Message toPage(List<?> content, long totalElements, int number, int size, boolean hasNext,
+                                  String nextCursor) {
+        if (!content.isEmpty() && content.get(0) instanceof TickerDto) {
+            TickerPage.Builder page = TickerPage.newBuilder()
+                    .setTotalElements(totalElements).setNumber(number).setSize(size).setHasNext(hasNext);
+            content.forEach(element -> page.addContent(toTicker(element(element, TickerDto.class))));
+            setIfPresent(nextCursor, page::setNextCursor);
+            return page.build();
+        }
+        TradePage.Builder page = TradePage.newBuilder()
+                .setTotalElements(totalElements).setNumber(number).setSize(size).setHasNext(hasNext);
+        content.forEach(element -> page.addContent(toTrade(element(element, TradeDto.class))));
+        setIfPresent(nextCursor, page::setNextCursor);
+        return page.build();
+    }
+
+    private static Trade toTrade(TradeDto dto) {
+        Trade.Builder trade = Trade.newBuilder();
+        setIfPresent(dto.getTradeId(), trade::setTradeId);
+        setIfPresent(dto.getEventType(), trade::setEventType);
+        setIfPresent(dto.getEventTimestamp(), trade::setEventTimestamp);
+        setIfPresent(dto.getSymbol(), trade::setSymbol);
+        setDecimal(dto.getPrice(), trade::setPrice);
+        setDecimal(dto.getQuantity(), trade::setQuantity);
+        setIfPresent(dto.getTradeTime(), trade::setTradeTime);
+        setIfPresent(dto.getIsBuyerMarketMaker(), trade::setIsBuyerMarketMaker);
+        return trade.build();
+    }
+
+    private static Ticker toTicker(TickerDto dto) {
+        Ticker.Builder ticker = Ticker.newBuilder();
+        setIfPresent(dto.getTickerId(), ticker::setTickerId);
+        setIfPresent(dto.getEventType(), ticker::setEventType);
+        setIfPresent(dto.getEventTimestamp(), ticker::setEventTimestamp);
+        setIfPresent(dto.getSymbol(), ticker::setSymbol);
+        setDecimal(dto.getPriceChange(), ticker::setPriceChange);
+        setDecimal(dto.getPriceChangePercent(), ticker::setPriceChangePercent);
+        setDecimal(dto.getWeightedAveragePrice(), ticker::setWeightedAveragePrice);
+        setDecimal(dto.getFirstTradeBeforeWindow(), ticker::setFirstTradeBeforeWindow);
+        setDecimal(dto.getLastPrice(), ticker::setLastPrice);
+        setDecimal(dto.getLastQuantity(), ticker::setLastQuantity);
+        setDecimal(dto.getBestBidPrice(), ticker::setBestBidPrice);
+        setDecimal(dto.getBestBidQuantity(), ticker::setBestBidQuantity);
+        setDecimal(dto.getBestAskPrice(), ticker::setBestAskPrice);
+        setDecimal(dto.getBestAskQuantity(), ticker::setBestAskQuantity);
+        setDecimal(dto.getOpenPrice(), ticker::setOpenPrice);
+        setDecimal(dto.getHighPrice(), ticker::setHighPrice);
+        setDecimal(dto.getLowPrice(), ticker::setLowPrice);
+        setDecimal(dto.getTotalTradedBaseAssetVolume(), ticker::setTotalTradedBaseAssetVolume);
+        setDecimal(dto.getTotalTradedQuoteAssetVolume(), ticker::setTotalTradedQuoteAssetVolume);
+        setIfPresent(dto.getStatisticsOpenTime(), ticker::setStatisticsOpenTime);
+        setIfPresent(dto.getStatisticsCloseTime(), ticker::setStatisticsCloseTime);
+        setIfPresent(dto.getFirstTradeId(), ticker::setFirstTradeId);
+        setIfPresent(dto.getLastTradeId(), ticker::setLastTradeId);
+        setIfPresent(dto.getTotalTradeCount(), ticker::setTotalTradeCount);
+        return ticker.build();
+    }
+
+    private static void setDecimal(BigDecimal value, Consumer<Decimal> setter) {
+        if (value == null) {
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        Decimal.Builder decimal = Decimal.newBuilder().setScale(value.scale());
+        if (unscaled.bitLength() < Long.SIZE) {
+            decimal.setUnscaled(unscaled.longValue());
+        } else {
+            decimal.setUnscaledBytes(ByteString.copyFrom(unscaled.toByteArray()));
+        }
+        setter.accept(decimal.build());
+    }
+
+    // Unset fields are left out rather than written as their defaults, so readers see them as absent
+    private static <T> void setIfPresent(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static <T> T element(Object element, Class<T> type) {
+        if (!type.isInstance(element)) {
+            throw new IllegalArgumentException("Unsupported protobuf page element: " + element.getClass().getName());
+        }
+        return type.cast(element);
+    }
+}
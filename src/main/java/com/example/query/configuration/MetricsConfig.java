@@ -0,0 +1,119 @@
+package com.example.query.configuration;
+
+import com.example.query.ingest.IngestStats;
+import com.example.query.ingest.TickerIngestListener;
+import com.example.query.ingest.TradeIngestListener;
+import com.example.query.service.DictionaryCache;
+import com.example.query.service.EventTypeService;
+import com.example.query.service.LatestValueStore;
+import com.example.query.service.LiveStreamHub;
+import com.example.query.service.SymbolService;
+import com.example.query.service.TickerService;
+import com.example.query.service.TradeService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Publishes the counters kept by the caches, the API key filter, the live stream and the Kafka
+ * listeners to Micrometer. The components keep plain LongAdder counters so they stay usable without a
+ * registry; the meters read them on scrape.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(SymbolService symbolService, EventTypeService eventTypeService,
+                                    TradeService tradeService, TickerService tickerService) {
+        return registry -> {
+            bindDictionary(registry, "symbol", symbolService.getCache());
+            bindDictionary(registry, "event_type", eventTypeService.getCache());
+            bindLatest(registry, "trade", tradeService.getLatestTrades());
+            bindLatest(registry, "ticker", tickerService.getLatestTickers());
+        };
+    }
+
+    @Bean
+    public MeterBinder apiKeyAuthMetrics(ApiKeyAuthFilter apiKeyAuthFilter) {
+        return registry -> {
+            FunctionCounter.builder("query.auth.cache.requests", apiKeyAuthFilter, ApiKeyAuthFilter::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("query.auth.cache.requests", apiKeyAuthFilter, ApiKeyAuthFilter::getMissCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("query.auth.denied", apiKeyAuthFilter, ApiKeyAuthFilter::getDenialCount)
+                    .description("Requests rejected for a missing, unknown or archived API key").register(registry);
+            Gauge.builder("query.auth.cache.size", apiKeyAuthFilter, ApiKeyAuthFilter::getCacheSize).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder liveStreamMetrics(LiveStreamHub liveStreamHub) {
+        return registry -> {
+            Gauge.builder("query.stream.subscribers", liveStreamHub, LiveStreamHub::getSubscriberCount).register(registry);
+            FunctionCounter.builder("query.stream.events", liveStreamHub, LiveStreamHub::getPublishedCount)
+                    .tag("result", "published").register(registry);
+            FunctionCounter.builder("query.stream.events", liveStreamHub, LiveStreamHub::getDeliveredCount)
+                    .tag("result", "delivered").register(registry);
+            FunctionCounter.builder("query.stream.events", liveStreamHub, LiveStreamHub::getDroppedCount)
+                    .tag("result", "dropped").register(registry);
+            FunctionCounter.builder("query.stream.slow.disconnects", liveStreamHub, LiveStreamHub::getSlowDisconnectCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestMetrics(ObjectProvider<TradeIngestListener> tradeIngestListener,
+                                     ObjectProvider<TickerIngestListener> tickerIngestListener) {
+        return registry -> {
+            tradeIngestListener.ifAvailable(listener -> bindIngest(registry, "trade", listener.getStats()));
+            tickerIngestListener.ifAvailable(listener -> bindIngest(registry, "ticker", listener.getStats()));
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer symbolRequestMetrics(MeterRegistry meterRegistry, SymbolService symbolService) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SymbolRequestMetricsInterceptor(meterRegistry, symbolService))
+                        .addPathPatterns("/internal/**");
+            }
+        };
+    }
+
+    private static void bindDictionary(MeterRegistry registry, String name, DictionaryCache<?> cache) {
+        FunctionCounter.builder("query.cache.requests", cache, DictionaryCache::hitCount)
+                .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("query.cache.requests", cache, DictionaryCache::missCount)
+                .tags("cache", name, "result", "miss").register(registry);
+        Gauge.builder("query.cache.size", cache, DictionaryCache::size).tag("cache", name).register(registry);
+    }
+
+    private static void bindLatest(MeterRegistry registry, String name, LatestValueStore<?> store) {
+        FunctionCounter.builder("query.cache.requests", store, LatestValueStore::hitCount)
+                .tags("cache", "latest_" + name, "result", "hit").register(registry);
+        FunctionCounter.builder("query.cache.requests", store, LatestValueStore::missCount)
+                .tags("cache", "latest_" + name, "result", "miss").register(registry);
+        Gauge.builder("query.cache.size", store, LatestValueStore::size).tag("cache", "latest_" + name).register(registry);
+    }
+
+    private static void bindIngest(MeterRegistry registry, String topic, IngestStats stats) {
+        FunctionCounter.builder("query.ingest.batches", stats, IngestStats::getBatches).tag("type", topic).register(registry);
+        FunctionCounter.builder("query.ingest.records", stats, IngestStats::getRecords)
+                .tags("type", topic, "result", "received").register(registry);
+        FunctionCounter.builder("query.ingest.records", stats, IngestStats::getRejected)
+                .tags("type", topic, "result", "rejected").register(registry);
+        FunctionCounter.builder("query.ingest.records", stats, IngestStats::getUnparseable)
+                .tags("type", topic, "result", "unparseable").register(registry);
+        Gauge.builder("query.ingest.batch.size.last", stats, IngestStats::getLastBatchSize).tag("type", topic).register(registry);
+        Gauge.builder("query.ingest.batch.duration.last", stats, IngestStats::getLastBatchMillis)
+                .tag("type", topic).baseUnit("milliseconds").register(registry);
+        Gauge.builder("query.ingest.records.lag.max", stats, IngestStats::getRecordsLagMax).tag("type", topic).register(registry);
+    }
+}
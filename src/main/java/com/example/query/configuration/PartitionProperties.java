@@ -0,0 +1,33 @@
+package com.example.query.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "query.partitions")
+public class PartitionProperties {
+    private boolean enabled;
+    private Map<String, TablePolicy> tables = new LinkedHashMap<>();
+
+    @Data
+    public static class TablePolicy {
+        private Granularity granularity = Granularity.DAY;
+        /**
+         * Partitions whose upper bound is older than this are dropped; unset keeps everything.
+         */
+        private Duration retention;
+        /**
+         * Number of empty partitions kept ahead of the current one.
+         */
+        private int ahead = 7;
+    }
+
+    public enum Granularity {
+        DAY,
+        MONTH
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.query.configuration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * R2DBC pool for the non-blocking read path. The pool is deliberately not exposed as a
+ * ConnectionFactory bean: DataSource auto-configuration backs off when one exists, and JPA
+ * must keep its JDBC DataSource. R2dbcAutoConfiguration is excluded for the same reason.
+ */
+@Configuration
+@ConditionalOnProperty(name = "query.reactive.enabled", havingValue = "true")
+public class ReactiveDataConfig {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${query.reactive.url}") String url,
+                                                 @Value("${spring.datasource.username:}") String username,
+                                                 @Value("${spring.datasource.password:}") String password,
+                                                 @Value("${query.reactive.pool.max-size:20}") int maxSize,
+                                                 @Value("${query.reactive.pool.max-idle-time:PT30M}") Duration maxIdleTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("query-reactive")
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.query.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits reads from writes. The application DataSource is a lazy proxy over the primary pool; once a
+ * transaction marks its connection read-only (any {@code @Transactional(readOnly = true)} method), the
+ * physical connection is taken from {@link ReplicaRoutingDataSource} instead. Every pool reports
+ * hikaricp metrics under its own pool name.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "query.datasource.read-routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties readReplicaProperties,
+                                                             Environment environment,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        track(primary, meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> configured = readReplicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReadReplicaProperties.Replica replica = configured.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            track(pool, meterRegistry);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readReplicaProperties.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.getPrimary());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> {
+            FunctionCounter.builder("query.datasource.reads", replicaRoutingDataSource, ReplicaRoutingDataSource::getPrimaryFallbackCount)
+                    .tag("target", ReplicaRoutingDataSource.PRIMARY).register(registry);
+            for (String replica : replicaRoutingDataSource.getReplicaNames()) {
+                FunctionCounter.builder("query.datasource.reads", replicaRoutingDataSource, routing -> routing.getRoutedCount(replica))
+                        .tag("target", replica).register(registry);
+                Gauge.builder("query.datasource.replica.lag", replicaRoutingDataSource, routing -> routing.getLagSeconds(replica))
+                        .tag("replica", replica).baseUnit("seconds").register(registry);
+                Gauge.builder("query.datasource.replica.healthy", replicaRoutingDataSource, routing -> routing.isHealthy(replica) ? 1 : 0)
+                        .tag("replica", replica).register(registry);
+            }
+        };
+    }
+
+    private static void track(HikariDataSource pool, ObjectProvider<MeterRegistry> meterRegistry) {
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.query.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "query.datasource.read-routing")
+public class ReadReplicaProperties {
+    private boolean enabled;
+    /**
+     * Largest {@code Seconds_Behind_Source} a replica may report and still serve reads. MySQL reports
+     * whole seconds, so a sub-second limit cannot be honoured and is rejected.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    private List<Replica> replicas = new ArrayList<>();
+
+    public void setMaxLag(Duration maxLag) {
+        if (maxLag.isNegative() || maxLag.toMillis() % 1000 != 0) {
+            throw new IllegalArgumentException("max-lag must be a non-negative whole number of seconds: " + maxLag);
+        }
+        this.maxLag = maxLag;
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.query.configuration;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only connection source: round-robin over the replicas whose last lag check succeeded within
+ * the allowed lag, falling back to the primary when none qualifies. Replicas start out unhealthy and
+ * are admitted by the first successful check. A replica without replication status, or whose SQL thread
+ * is not running ({@code Seconds_Behind_Source} is NULL), counts as unhealthy.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaPools, Duration maxLag) {
+        this.primary = primary;
+        if (maxLag.isNegative() || maxLag.toMillis() % 1000 != 0) {
+            throw new IllegalArgumentException("maxLag must be a non-negative whole number of seconds: " + maxLag);
+        }
+        this.maxLagSeconds = maxLag.toSeconds();
+        Map<Object, Object> targets = new HashMap<>(replicaPools);
+        targets.put(PRIMARY, primary);
+        replicaPools.forEach((name, dataSource) -> replicas.add(new Replica(name, dataSource)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replica.routed.increment();
+                return replica.name;
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${query.datasource.read-routing.lag-check-ms:5000}")
+    public void checkReplicationLag() {
+        for (Replica replica : replicas) {
+            try {
+                // No row means replication is not configured; that replica never catches up
+                Long lag = replica.jdbcTemplate.query("SHOW REPLICA STATUS",
+                        rs -> rs.next() ? rs.getObject("Seconds_Behind_Source", Long.class) : null);
+                replica.lagSeconds = lag == null ? -1 : lag;
+                replica.healthy = lag != null && lag <= maxLagSeconds;
+                if (lag == null) {
+                    log.warn("Replica {} is not replicating, reads fall back to the primary", replica.name);
+                }
+            } catch (DataAccessException e) {
+                replica.lagSeconds = -1;
+                replica.healthy = false;
+                log.warn("Replication lag check failed for {}: {}", replica.name, e.getMessage());
+            }
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<String> getReplicaNames() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    public long getRoutedCount(String replicaName) {
+        return find(replicaName).routed.sum();
+    }
+
+    public long getLagSeconds(String replicaName) {
+        return find(replicaName).lagSeconds;
+    }
+
+    public boolean isHealthy(String replicaName) {
+        return find(replicaName).healthy;
+    }
+
+    public long getPrimaryFallbackCount() {
+        return primaryFallbacks.sum();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Replica find(String replicaName) {
+        return replicas.stream().filter(replica -> replica.name.equals(replicaName)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown replica: " + replicaName));
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final LongAdder routed = new LongAdder();
+        private volatile long lagSeconds = -1;
+        private volatile boolean healthy;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.query.configuration;
+
+import com.example.query.service.SymbolService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Counts requests per symbol and endpoint pattern. Only successful requests for symbols in the symbol
+ * dictionary are counted, so arbitrary path values cannot grow the tag cardinality, including on
+ * endpoints that answer without resolving the symbol.
+ */
+public class SymbolRequestMetricsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final SymbolService symbolService;
+
+    public SymbolRequestMetricsInterceptor(MeterRegistry meterRegistry, SymbolService symbolService) {
+        this.meterRegistry = meterRegistry;
+        this.symbolService = symbolService;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex != null || response.getStatus() >= 400) {
+            return;
+        }
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (!(variables instanceof Map<?, ?> uriVariables) || !(uriVariables.get("symbol") instanceof String symbol)
+                || !symbolService.isKnownSymbol(symbol)) {
+            return;
+        }
+        Counter.builder("query.symbol.requests")
+                .description("Successful requests per symbol")
+                .tag("symbol", symbol)
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.query.configuration;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * zstd response compression for clients sending {@code Accept-Encoding: zstd}, which the embedded server
+ * does not offer. The body is held back until it reaches {@code min-response-size}; smaller or flushed
+ * bodies and other content types are written as is and remain eligible for the server's gzip
+ * compression. Async responses (the reactive endpoints, streamed NDJSON and CSV exports) are written after
+ * this filter has returned and are never zstd-compressed, leaving them to gzip as well.
+ */
+@Component
+@ConditionalOnProperty(name = "query.compression.zstd.enabled", havingValue = "true")
+public class ZstdCompressionFilter extends OncePerRequestFilter {
+
+    private static final String ZSTD = "zstd";
+
+    private final int level;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+
+    public ZstdCompressionFilter(@Value("${query.compression.zstd.level:3}") int level,
+                                 @Value("${query.compression.zstd.min-response-size:2048}") int minResponseSize,
+                                 @Value("${query.compression.zstd.mime-types:application/json,application/cbor,"
+                                         + "application/x-jackson-smile,application/x-protobuf}") List<String> mimeTypes) {
+        this.level = level;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = MediaType.parseMediaTypes(mimeTypes);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acceptsZstd(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ZstdResponse compressing = new ZstdResponse(response);
+        filterChain.doFilter(request, compressing);
+        // The async dispatch does not pass through this filter, so nothing would close the zstd frame
+        if (request.isAsyncStarted()) {
+            compressing.bypass();
+        } else {
+            compressing.finish();
+        }
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header allows zstd: listed with a non-zero q-value, or covered by
+     * a non-zero {@code *} when zstd is not listed. A malformed q-value counts as zero.
+     */
+    static boolean acceptsZstd(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean zstd = null;
+        boolean wildcard = false;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if (coding.equals(ZSTD)) {
+                zstd = qValue(parts) > 0;
+            } else if (coding.equals("*")) {
+                wildcard = qValue(parts) > 0;
+            }
+        }
+        return zstd != null ? zstd : wildcard;
+    }
+
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean compressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(candidate -> candidate.includes(type));
+    }
+
+    private class ZstdResponse extends HttpServletResponseWrapper {
+        private DeferredStream stream;
+        private PrintWriter writer;
+        private boolean bypassed;
+
+        ZstdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (bypassed && stream == null) {
+                return super.getOutputStream();
+            }
+            if (stream == null) {
+                stream = new DeferredStream(this);
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (bypassed && writer == null && stream == null) {
+                return super.getWriter();
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        // The length of the uncompressed body is wrong once it is compressed, so the response is always chunked
+        @Override
+        public void setContentLength(int len) {
+            if (bypassed) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (bypassed) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (bypassed || !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (bypassed || !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.finish();
+            }
+        }
+
+        /**
+         * Leaves the rest of the response uncompressed. Anything held back so far is written as is; a body
+         * that already went past the threshold before the handler went async is closed as it stands.
+         */
+        void bypass() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.bypass();
+            }
+            bypassed = true;
+        }
+
+        ServletOutputStream raw() throws IOException {
+            return super.getOutputStream();
+        }
+    }
+
+    private class DeferredStream extends ServletOutputStream {
+        private final ZstdResponse response;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+
+        DeferredStream(ZstdResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target != null) {
+                target.write(b, off, len);
+                return;
+            }
+            if (!compressible(response.getContentType())) {
+                passThrough().write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() >= minResponseSize) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, ZSTD);
+                target = new ZstdOutputStream(new FilterOutputStream(response.raw()) {
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        out.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                }, level);
+                buffer.writeTo(target);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Headers go out with the first flush, so a body still below the threshold is sent uncompressed
+            if (target == null) {
+                passThrough();
+            }
+            target.flush();
+        }
+
+        void finish() throws IOException {
+            if (target == null) {
+                passThrough();
+            }
+            if (target instanceof ZstdOutputStream) {
+                target.close();
+            } else {
+                target.flush();
+            }
+        }
+
+        void bypass() throws IOException {
+            if (target == null) {
+                passThrough();
+            } else if (target instanceof ZstdOutputStream) {
+                target.close();
+            }
+        }
+
+        private OutputStream passThrough() throws IOException {
+            target = response.raw();
+            buffer.writeTo(target);
+            buffer = null;
+            return target;
+        }
+
+        @Override
+        public boolean isReady() {
+            return !(target instanceof ServletOutputStream raw) || raw.isReady();
+        }
+
+        /**
+         * Non-blocking writes cannot be held back or compressed, so they go straight to the container's
+         * stream. The handler is async by then, and the filter leaves the response uncompressed.
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (target instanceof ZstdOutputStream) {
+                throw new IllegalStateException("Non-blocking writes cannot continue a zstd-compressed body");
+            }
+            try {
+                if (target == null) {
+                    passThrough();
+                }
+                response.raw().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.query.controller;
+
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.example.query.service.ReactiveQueryService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC-backed variants of the symbol listing and latest endpoints. Listings are written as NDJSON
+ * one row at a time; the next row is only requested from the database once the previous one is written.
+ */
+@RestController
+@RequestMapping("/internal/reactive")
+@AllArgsConstructor
+@ConditionalOnProperty(name = "query.reactive.enabled", havingValue = "true")
+public class ReactiveQueryController {
+
+    private ReactiveQueryService reactiveQueryService;
+
+    @GetMapping(value = "/trade/symbol/{symbol}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TradeDto> getTradesBySymbol(@PathVariable(value = "symbol") String symbol,
+                                            @RequestParam(defaultValue = "0") long from,
+                                            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+                                            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        return reactiveQueryService.getTradesBySymbol(symbol, from, to, limit);
+    }
+
+    @GetMapping(value = "/trade/symbol/{symbol}/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TradeDto> getLatestTradeBySymbol(@PathVariable String symbol) {
+        return reactiveQueryService.getLatestTradeBySymbol(symbol);
+    }
+
+    @GetMapping(value = "/ticker/symbol/{symbol}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TickerDto> getTickersBySymbol(@PathVariable(value = "symbol") String symbol,
+                                              @RequestParam(defaultValue = "0") long from,
+                                              @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+                                              @RequestParam(defaultValue = "1000") int limit
+    ) {
+        return reactiveQueryService.getTickersBySymbol(symbol, from, to, limit);
+    }
+
+    @GetMapping(value = "/ticker/symbol/{symbol}/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TickerDto> getLatestTickerBySymbol(@PathVariable String symbol) {
+        return reactiveQueryService.getLatestTickerBySymbol(symbol);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.query.controller;
+
+import com.example.query.model.StreamEventType;
+import com.example.query.service.LiveStreamHub;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/internal/stream")
+@AllArgsConstructor
+public class StreamController {
+
+    private LiveStreamHub liveStreamHub;
+
+    @GetMapping(value = "", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam List<String> symbols,
+                                @RequestParam(defaultValue = "trade,ticker") List<String> types
+    ) {
+        Set<StreamEventType> eventTypes = EnumSet.noneOf(StreamEventType.class);
+        types.forEach(type -> eventTypes.add(StreamEventType.from(type)));
+        return liveStreamHub.subscribe(symbols, eventTypes);
+    }
+}
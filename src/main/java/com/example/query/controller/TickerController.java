@@ -1,10 +1,19 @@
 package com.example.query.controller;
 
+import com.example.query.configuration.BinaryFormatConfig;
+import com.example.query.configuration.MarketDataProtobufConverter;
+import com.example.query.model.BatchResult;
+import com.example.query.model.CursorPage;
+import com.example.query.model.ExportFormat;
+import com.example.query.model.SparseFields;
 import com.example.query.model.TickerDto;
+import com.example.query.service.BatchIngestService;
 import com.example.query.service.TickerService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,6 +24,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/internal/ticker")
@@ -22,19 +38,36 @@ import org.springframework.web.bind.annotation.RestController;
 public class TickerController {
 
     private TickerService tickerService;
+    private BatchIngestService batchIngestService;
 
-    @GetMapping(value = "/{tickerId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{tickerId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public @ResponseBody
     TickerDto getTickerById(@PathVariable(value = "tickerId") Long tickerId) {
         return tickerService.getTickerById(tickerId);
     }
 
+    @GetMapping(value = "/{tickerId}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Map<String, Object> getTickerFieldsById(@PathVariable(value = "tickerId") Long tickerId,
+                                            @RequestParam String fields) {
+        return tickerService.getTickerFieldsById(tickerId, SparseFields.ofTicker(fields));
+    }
+
     @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody
     TickerDto saveTicker(@RequestBody TickerDto tickerDto) {
         return tickerService.saveTicker(tickerDto);
     }
 
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    BatchResult saveTickers(InputStream body) throws IOException {
+        return batchIngestService.ingestTickers(body);
+    }
+
     @DeleteMapping(value = "/{tickerId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody
     void deleteTicker(@PathVariable(value = "tickerId") Long tickerId) {
@@ -47,7 +80,8 @@ public class TickerController {
         return tickerService.updateTicker(tickerDto);
     }
 
-    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public @ResponseBody
     Page<TickerDto> getAllTickers(
             @RequestParam(defaultValue = "0") int page,
@@ -58,20 +92,145 @@ public class TickerController {
         return tickerService.getAllTickers(page, size, sortBy, sortDirection);
     }
 
-    @GetMapping(value = "/symbol/{symbol}/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Page<Map<String, Object>> getAllTickerFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tickerService.getTickerFields(SparseFields.ofTicker(fields), page, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/latest", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE})
+    public @ResponseBody
+    Map<String, TickerDto> getLatestTickers(@RequestParam("symbols") List<String> symbols) {
+        return tickerService.getLatestTickersBySymbols(symbols);
+    }
+
+    @GetMapping(value = "/latest", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Map<String, Map<String, Object>> getLatestTickerFields(@RequestParam("symbols") List<String> symbols,
+                                                           @RequestParam String fields) {
+        SparseFields sparseFields = SparseFields.ofTicker(fields);
+        Map<String, Map<String, Object>> latest = new LinkedHashMap<>();
+        tickerService.getLatestTickersBySymbols(symbols).forEach((symbol, ticker) -> latest.put(symbol, sparseFields.project(ticker)));
+        return latest;
+    }
+
+    @GetMapping(value = "/symbol/{symbol}/latest", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public @ResponseBody
     TickerDto getLatestTicker(@PathVariable("symbol") String symbol) {
         return tickerService.getLatestTickerBySymbol(symbol);
     }
 
-    @GetMapping(value = "/symbol/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/symbol/{symbol}/latest", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Map<String, Object> getLatestTickerFields(@PathVariable("symbol") String symbol, @RequestParam String fields) {
+        return SparseFields.ofTicker(fields).project(tickerService.getLatestTickerBySymbol(symbol));
+    }
+
+    @GetMapping(value = "/symbol/{symbol}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public @ResponseBody
     Page<TickerDto> getTickersBySymbol(@PathVariable(value = "symbol") String symbol,
                                        @RequestParam(defaultValue = "0") int page,
                                        @RequestParam(defaultValue = "20") int size,
                                        @RequestParam(defaultValue = "id") String sortBy,
-                                       @RequestParam(defaultValue = "asc") String sortDirection
+                                       @RequestParam(defaultValue = "asc") String sortDirection,
+                                       @RequestParam(required = false) Long from,
+                                       @RequestParam(required = false) Long to
     ) {
+        if (from != null || to != null) {
+            return tickerService.getTickersBySymbolBetween(symbol,
+                    from == null ? 0L : from, to == null ? Long.MAX_VALUE : to, page, size, sortBy, sortDirection);
+        }
         return tickerService.getTickersBySymbol(symbol, page, size, sortBy, sortDirection);
     }
+
+    @GetMapping(value = "/symbol/{symbol}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Page<Map<String, Object>> getTickerFieldsBySymbol(@PathVariable(value = "symbol") String symbol,
+                                                      @RequestParam String fields,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @RequestParam(defaultValue = "id") String sortBy,
+                                                      @RequestParam(defaultValue = "asc") String sortDirection,
+                                                      @RequestParam(required = false) Long from,
+                                                      @RequestParam(required = false) Long to
+    ) {
+        SparseFields sparseFields = SparseFields.ofTicker(fields);
+        if (from != null || to != null) {
+            return tickerService.getTickerFieldsBySymbolBetween(symbol, from == null ? 0L : from,
+                    to == null ? Long.MAX_VALUE : to, sparseFields, page, size, sortBy, sortDirection);
+        }
+        return tickerService.getTickerFieldsBySymbol(symbol, sparseFields, page, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(params = "cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
+    public @ResponseBody
+    CursorPage<TickerDto> scrollAllTickers(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tickerService.scrollAllTickers(cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(params = {"cursor", "fields"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    CursorPage<Map<String, Object>> scrollAllTickerFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tickerService.scrollAllTickerFields(SparseFields.ofTicker(fields), cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}", params = "cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
+    public @ResponseBody
+    CursorPage<TickerDto> scrollTickersBySymbol(@PathVariable(value = "symbol") String symbol,
+                                              @RequestParam(defaultValue = "") String cursor,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(defaultValue = "id") String sortBy,
+                                              @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tickerService.scrollTickersBySymbol(symbol, cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}", params = {"cursor", "fields"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    CursorPage<Map<String, Object>> scrollTickerFieldsBySymbol(@PathVariable(value = "symbol") String symbol,
+                                                               @RequestParam String fields,
+                                                               @RequestParam(defaultValue = "") String cursor,
+                                                               @RequestParam(defaultValue = "20") int size,
+                                                               @RequestParam(defaultValue = "id") String sortBy,
+                                                               @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tickerService.scrollTickerFieldsBySymbol(symbol, SparseFields.ofTicker(fields), cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}/export")
+    public ResponseEntity<StreamingResponseBody> exportTickers(@PathVariable(value = "symbol") String symbol,
+                                                              @RequestParam(defaultValue = "0") long from,
+                                                              @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+                                                              @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = tickerService.exportTickers(symbol, from, to, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + symbol + "-tickers." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
 }
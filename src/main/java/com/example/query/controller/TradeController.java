@@ -1,10 +1,20 @@
 package com.example.query.controller;
 
+import com.example.query.configuration.BinaryFormatConfig;
+import com.example.query.configuration.MarketDataProtobufConverter;
+import com.example.query.model.BatchResult;
+import com.example.query.model.CandleDto;
+import com.example.query.model.CursorPage;
+import com.example.query.model.ExportFormat;
+import com.example.query.model.SparseFields;
 import com.example.query.model.TradeDto;
+import com.example.query.service.BatchIngestService;
 import com.example.query.service.TradeService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,29 +25,54 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/internal/trade")
 @AllArgsConstructor
 public class TradeController {
     private TradeService tradeService;
+    private BatchIngestService batchIngestService;
 
-    @GetMapping(value = "/{tradeId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{tradeId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public @ResponseBody
     TradeDto getTradeByTradeId(@PathVariable(value = "tradeId") Long tradeId) {
         return tradeService.getTradeByTradeId(tradeId);
     }
 
+    @GetMapping(value = "/{tradeId}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Map<String, Object> getTradeFieldsByTradeId(@PathVariable(value = "tradeId") Long tradeId,
+                                                @RequestParam String fields) {
+        return tradeService.getTradeFieldsByTradeId(tradeId, SparseFields.ofTrade(fields));
+    }
+
     @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody
     TradeDto saveTrade(@RequestBody TradeDto tradeDto) {
         return tradeService.saveTrade(tradeDto);
     }
 
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    BatchResult saveTrades(InputStream body) throws IOException {
+        return batchIngestService.ingestTrades(body);
+    }
+
     @DeleteMapping(value = "/{tradeId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody
-    void deleteTrade(@PathVariable(value = "tradeId") Long tradeId) {
-        tradeService.deleteByTradeId(tradeId);
+    void deleteTrade(@PathVariable(value = "tradeId") Long tradeId,
+                     @RequestParam(value = "tradeTime", required = false) Long tradeTime) {
+        tradeService.deleteByTradeId(tradeId, tradeTime);
     }
 
     @PutMapping("")
@@ -45,7 +80,8 @@ public class TradeController {
         return tradeService.updateTrade(tradeDto);
     }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public Page<TradeDto> getAllTrades(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -55,19 +91,149 @@ public class TradeController {
         return tradeService.getAllTrades(page, size, sortBy, sortDirection);
     }
 
-    @GetMapping(value = "/symbol/{symbol}/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Page<Map<String, Object>> getAllTradeFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "tradeId") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tradeService.getTradeFields(SparseFields.ofTrade(fields), page, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/latest", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE})
+    public @ResponseBody Map<String, TradeDto> getLatestTrades(@RequestParam("symbols") List<String> symbols) {
+        return tradeService.getLatestTradesBySymbols(symbols);
+    }
+
+    @GetMapping(value = "/latest", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody Map<String, Map<String, Object>> getLatestTradeFields(@RequestParam("symbols") List<String> symbols,
+                                                                               @RequestParam String fields) {
+        SparseFields sparseFields = SparseFields.ofTrade(fields);
+        Map<String, Map<String, Object>> latest = new LinkedHashMap<>();
+        tradeService.getLatestTradesBySymbols(symbols).forEach((symbol, trade) -> latest.put(symbol, sparseFields.project(trade)));
+        return latest;
+    }
+
+    @GetMapping(value = "/symbol/{symbol}/latest", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public TradeDto getLatestTradeBySymbol(@PathVariable String symbol) {
         return tradeService.getLatestTradeBySymbol(symbol);
     }
 
-    @GetMapping(value = "/symbol/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/symbol/{symbol}/latest", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getLatestTradeFieldsBySymbol(@PathVariable String symbol, @RequestParam String fields) {
+        return SparseFields.ofTrade(fields).project(tradeService.getLatestTradeBySymbol(symbol));
+    }
+
+    @GetMapping(value = "/symbol/{symbol}/candles", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody List<CandleDto> getCandles(@PathVariable(value = "symbol") String symbol,
+                                                    @RequestParam(defaultValue = "1m") String interval,
+                                                    @RequestParam(required = false) Long from,
+                                                    @RequestParam(required = false) Long to
+    ) {
+        return tradeService.getCandles(symbol, interval, from, to);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
     public @ResponseBody
     Page<TradeDto> getTradesBySymbol(@PathVariable(value = "symbol") String symbol,
                                      @RequestParam(defaultValue = "0") int page,
                                      @RequestParam(defaultValue = "20") int size,
                                      @RequestParam(defaultValue = "tradeId") String sortBy,
-                                     @RequestParam(defaultValue = "asc") String sortDirection
+                                     @RequestParam(defaultValue = "asc") String sortDirection,
+                                     @RequestParam(required = false) Long from,
+                                     @RequestParam(required = false) Long to
     ) {
+        if (from != null || to != null) {
+            return tradeService.getTradesBySymbolBetween(symbol,
+                    from == null ? 0L : from, to == null ? Long.MAX_VALUE : to, page, size, sortBy, sortDirection);
+        }
         return tradeService.getTradesBySymbol(symbol, page, size, sortBy, sortDirection);
     }
+
+    @GetMapping(value = "/symbol/{symbol}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Page<Map<String, Object>> getTradeFieldsBySymbol(@PathVariable(value = "symbol") String symbol,
+                                                     @RequestParam String fields,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size,
+                                                     @RequestParam(defaultValue = "tradeId") String sortBy,
+                                                     @RequestParam(defaultValue = "asc") String sortDirection,
+                                                     @RequestParam(required = false) Long from,
+                                                     @RequestParam(required = false) Long to
+    ) {
+        SparseFields sparseFields = SparseFields.ofTrade(fields);
+        if (from != null || to != null) {
+            return tradeService.getTradeFieldsBySymbolBetween(symbol, from == null ? 0L : from,
+                    to == null ? Long.MAX_VALUE : to, sparseFields, page, size, sortBy, sortDirection);
+        }
+        return tradeService.getTradeFieldsBySymbol(symbol, sparseFields, page, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(params = "cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
+    public @ResponseBody
+    CursorPage<TradeDto> scrollAllTrades(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "tradeId") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tradeService.scrollAllTrades(cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(params = {"cursor", "fields"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    CursorPage<Map<String, Object>> scrollAllTradeFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "tradeId") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tradeService.scrollAllTradeFields(SparseFields.ofTrade(fields), cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}", params = "cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.SMILE_VALUE, MarketDataProtobufConverter.PROTOBUF_VALUE})
+    public @ResponseBody
+    CursorPage<TradeDto> scrollTradesBySymbol(@PathVariable(value = "symbol") String symbol,
+                                              @RequestParam(defaultValue = "") String cursor,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(defaultValue = "tradeId") String sortBy,
+                                              @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tradeService.scrollTradesBySymbol(symbol, cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}", params = {"cursor", "fields"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    CursorPage<Map<String, Object>> scrollTradeFieldsBySymbol(@PathVariable(value = "symbol") String symbol,
+                                                              @RequestParam String fields,
+                                                              @RequestParam(defaultValue = "") String cursor,
+                                                              @RequestParam(defaultValue = "20") int size,
+                                                              @RequestParam(defaultValue = "tradeId") String sortBy,
+                                                              @RequestParam(defaultValue = "asc") String sortDirection
+    ) {
+        return tradeService.scrollTradeFieldsBySymbol(symbol, SparseFields.ofTrade(fields), cursor, size, sortBy, sortDirection);
+    }
+
+    @GetMapping(value = "/symbol/{symbol}/export")
+    public ResponseEntity<StreamingResponseBody> exportTrades(@PathVariable(value = "symbol") String symbol,
+                                                              @RequestParam(defaultValue = "0") long from,
+                                                              @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+                                                              @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = tradeService.exportTrades(symbol, from, to, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + symbol + "-trades." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
 }
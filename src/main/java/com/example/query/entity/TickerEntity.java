@@ -5,59 +5,67 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.Data;
 
-import javax.persistence.JoinColumn;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "ticker")
+@Table(name = "ticker", indexes = {
+        @Index(name = "idx_ticker_symbol_event_timestamp", columnList = "symbol_id, event_timestamp, id"),
+        @Index(name = "idx_ticker_symbol_created_at", columnList = "symbol_id, created_at")
+})
 @Data
 public class TickerEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ticker_id_block")
+    @TableGenerator(name = "ticker_id_block", table = "id_block", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "ticker", allocationSize = 1000)
     private Long id;
     @ManyToOne(optional = false)
     @JoinColumn(name = "event_type_id", nullable = false)
     private EventTypeEntity eventType;
-    @Column(name = "event_timestamp")
+    @Column(name = "event_timestamp", nullable = false)
     private Long eventTimestamp;
     @ManyToOne(optional = false)
     @JoinColumn(name = "symbol_id", nullable = false)
     private SymbolEntity symbol;
-    @Column(name = "price_change")
-    private String priceChange;
-    @Column(name = "price_change_percent")
-    private String priceChangePercent;
-    @Column(name = "weighted_average_price")
-    private String weightedAveragePrice;
-    @Column(name = "first_trade_before_window")
-    private String firstTradeBeforeWindow;
-    @Column(name = "last_price")
-    private String lastPrice;
-    @Column(name = "last_quantity")
-    private String lastQuantity;
-    @Column(name = "best_bid_price")
-    private String bestBidPrice;
-    @Column(name = "best_bid_quantity")
-    private String bestBidQuantity;
-    @Column(name = "best_ask_price")
-    private String bestAskPrice;
-    @Column(name = "best_ask_quantity")
-    private String bestAskQuantity;
-    @Column(name = "open_price")
-    private String openPrice;
-    @Column(name = "high_price")
-    private String highPrice;
-    @Column(name = "low_price")
-    private String lowPrice;
-    @Column(name = "total_traded_base_asset_volume")
-    private String totalTradedBaseAssetVolume;
-    @Column(name = "total_traded_quote_asset_volume")
-    private String totalTradedQuoteAssetVolume;
+    @Column(name = "price_change", precision = 30, scale = 8)
+    private BigDecimal priceChange;
+    @Column(name = "price_change_percent", precision = 30, scale = 8)
+    private BigDecimal priceChangePercent;
+    @Column(name = "weighted_average_price", precision = 30, scale = 8)
+    private BigDecimal weightedAveragePrice;
+    @Column(name = "first_trade_before_window", precision = 30, scale = 8)
+    private BigDecimal firstTradeBeforeWindow;
+    @Column(name = "last_price", precision = 30, scale = 8)
+    private BigDecimal lastPrice;
+    @Column(name = "last_quantity", precision = 30, scale = 8)
+    private BigDecimal lastQuantity;
+    @Column(name = "best_bid_price", precision = 30, scale = 8)
+    private BigDecimal bestBidPrice;
+    @Column(name = "best_bid_quantity", precision = 30, scale = 8)
+    private BigDecimal bestBidQuantity;
+    @Column(name = "best_ask_price", precision = 30, scale = 8)
+    private BigDecimal bestAskPrice;
+    @Column(name = "best_ask_quantity", precision = 30, scale = 8)
+    private BigDecimal bestAskQuantity;
+    @Column(name = "open_price", precision = 30, scale = 8)
+    private BigDecimal openPrice;
+    @Column(name = "high_price", precision = 30, scale = 8)
+    private BigDecimal highPrice;
+    @Column(name = "low_price", precision = 30, scale = 8)
+    private BigDecimal lowPrice;
+    @Column(name = "total_traded_base_asset_volume", precision = 30, scale = 8)
+    private BigDecimal totalTradedBaseAssetVolume;
+    @Column(name = "total_traded_quote_asset_volume", precision = 30, scale = 8)
+    private BigDecimal totalTradedQuoteAssetVolume;
     @Column(name = "statistics_open_time")
     private Long statisticsOpenTime;
     @Column(name = "statistics_close_time")
@@ -5,19 +5,30 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
-import javax.persistence.JoinColumn;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trade")
+@Table(name = "trade", indexes = {
+        @Index(name = "idx_trade_symbol_trade_time", columnList = "symbol_id, trade_time, id"),
+        @Index(name = "idx_trade_symbol_created_at", columnList = "symbol_id, created_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_trade_trade_id", columnNames = {"trade_id", "trade_time"})
+})
 @Data
 public class TradeEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "trade_id_block")
+    @TableGenerator(name = "trade_id_block", table = "id_block", pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = "trade", allocationSize = 1000)
     private Long id;
     @ManyToOne(optional = false)
     @JoinColumn(name = "event_type_id", nullable = false)
@@ -29,9 +40,11 @@ public class TradeEntity {
     private SymbolEntity symbol;
     @Column(name = "trade_id")
     private Long tradeId;
-    private String price;
-    private String quantity;
-    @Column(name = "trade_time")
+    @Column(precision = 30, scale = 8)
+    private BigDecimal price;
+    @Column(precision = 30, scale = 8)
+    private BigDecimal quantity;
+    @Column(name = "trade_time", nullable = false)
     private Long tradeTime;
     @Column(name = "is_buyer_market_maker")
     private Boolean isBuyerMarketMaker;
@@ -0,0 +1,7 @@
+package com.example.query.exception;
+
+public class TradeArchivedException extends RuntimeException {
+    public TradeArchivedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.query.ingest;
+
+import com.example.query.model.BatchItemStatus;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one ingestion stream, read by the metrics binding.
+ */
+public class IngestStats {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder unparseable = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+    private final AtomicLong recordsLagMax = new AtomicLong();
+
+    void recordBatch(int size, List<BatchItemStatus> statuses, long elapsedMillis) {
+        batches.increment();
+        records.add(size);
+        rejected.add(statuses.stream().filter(status -> status.getStatus() != BatchItemStatus.Status.CREATED).count());
+        lastBatchSize.set(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+        lastBatchMillis.set(elapsedMillis);
+    }
+
+    void recordUnparseable() {
+        unparseable.increment();
+    }
+
+    void recordLag(Consumer<?, ?> consumer) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : consumer.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if ("records-lag-max".equals(name.name()) && "consumer-fetch-manager-metrics".equals(name.group())
+                    && !name.tags().containsKey("topic")) {
+                Object value = entry.getValue().metricValue();
+                if (value instanceof Double lag && !lag.isNaN()) {
+                    recordsLagMax.set(lag.longValue());
+                }
+            }
+        }
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getRecords() {
+        return records.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getUnparseable() {
+        return unparseable.sum();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public long getLastBatchMillis() {
+        return lastBatchMillis.get();
+    }
+
+    public long getRecordsLagMax() {
+        return recordsLagMax.get();
+    }
+}
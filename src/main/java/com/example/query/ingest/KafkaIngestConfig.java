@@ -0,0 +1,40 @@
+package com.example.query.ingest;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "query.ingest.kafka.enabled", havingValue = "true")
+public class KafkaIngestConfig {
+
+    static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+    /**
+     * A batch that fails as a whole, typically because the database is unavailable, is retried from the
+     * same offsets until the database accepts it. A record the listeners single out as the cause
+     * ({@link org.springframework.kafka.listener.BatchListenerFailedException}) is retried
+     * {@code max-attempts} times and then published to {@code <topic>.DLT}, so it cannot block its partition.
+     */
+    @Bean
+    public CommonErrorHandler ingestErrorHandler(KafkaTemplate<?, ?> kafkaTemplate,
+                                                 @Value("${query.ingest.kafka.retry-interval:PT1S}") Duration retryInterval,
+                                                 @Value("${query.ingest.kafka.max-attempts:5}") int maxAttempts) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer,
+                new FixedBackOff(retryInterval.toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS));
+        errorHandler.setBackOffFunction((record, exception) ->
+                new FixedBackOff(retryInterval.toMillis(), Math.max(0, maxAttempts - 1)));
+        return errorHandler;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.query.ingest;
+
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.TickerDto;
+import com.example.query.service.TickerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "query.ingest.kafka.enabled", havingValue = "true")
+public class TickerIngestListener {
+
+    private final TickerService tickerService;
+    private final ObjectMapper objectMapper;
+    private final IngestStats stats = new IngestStats();
+
+    /**
+     * Receives one poll worth of records (bounded by max.poll.records and fetch.max.wait) and
+     * acknowledges the offsets only after the batch insert has committed.
+     */
+    @KafkaListener(id = "ticker-ingest", topics = "${query.ingest.kafka.ticker-topic}", batch = "true")
+    public void onTickers(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment, Consumer<?, ?> consumer) {
+        long start = System.currentTimeMillis();
+        List<TickerDto> tickers = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, String>> sources = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            try {
+                tickers.add(objectMapper.readValue(record.value(), TickerDto.class));
+                sources.add(record);
+            } catch (JsonProcessingException e) {
+                stats.recordUnparseable();
+                log.warn("Skipping unparseable ticker at {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+            }
+        }
+
+        List<BatchItemStatus> statuses = tickers.isEmpty() ? List.of() : save(tickers, sources);
+        acknowledgment.acknowledge();
+
+        stats.recordBatch(tickers.size(), statuses, System.currentTimeMillis() - start);
+        stats.recordLag(consumer);
+        statuses.stream()
+                .filter(status -> status.getStatus() != BatchItemStatus.Status.CREATED)
+                .forEach(status -> log.warn("Rejected ticker for {}: {}", tickers.get(status.getIndex()).getSymbol(), status.getError()));
+    }
+
+    /**
+     * A batch the database refuses because of its data (a value too long for its column, a missing
+     * NOT NULL value) is saved again one ticker at a time, so the record at fault can be handed to the
+     * error handler, which retries it a bounded number of times and then dead-letters it. The tickers
+     * before it are committed. Other failures propagate and the whole batch is retried.
+     */
+    private List<BatchItemStatus> save(List<TickerDto> tickers, List<ConsumerRecord<String, String>> sources) {
+        try {
+            return tickerService.saveTickers(tickers);
+        } catch (DataIntegrityViolationException e) {
+            List<BatchItemStatus> statuses = new ArrayList<>(tickers.size());
+            for (int i = 0; i < tickers.size(); i++) {
+                try {
+                    BatchItemStatus status = tickerService.saveTickers(List.of(tickers.get(i))).get(0);
+                    status.setIndex(i);
+                    statuses.add(status);
+                } catch (DataIntegrityViolationException rejected) {
+                    throw new BatchListenerFailedException("Ticker rejected by the database", rejected, sources.get(i));
+                }
+            }
+            return statuses;
+        }
+    }
+
+    public IngestStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.query.ingest;
+
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.TradeDto;
+import com.example.query.service.TradeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "query.ingest.kafka.enabled", havingValue = "true")
+public class TradeIngestListener {
+
+    private final TradeService tradeService;
+    private final ObjectMapper objectMapper;
+    private final IngestStats stats = new IngestStats();
+
+    /**
+     * Receives one poll worth of records (bounded by max.poll.records and fetch.max.wait) and
+     * acknowledges the offsets only after the batch insert has committed.
+     */
+    @KafkaListener(id = "trade-ingest", topics = "${query.ingest.kafka.trade-topic}", batch = "true")
+    public void onTrades(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment, Consumer<?, ?> consumer) {
+        long start = System.currentTimeMillis();
+        List<TradeDto> trades = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, String>> sources = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            try {
+                trades.add(objectMapper.readValue(record.value(), TradeDto.class));
+                sources.add(record);
+            } catch (JsonProcessingException e) {
+                stats.recordUnparseable();
+                log.warn("Skipping unparseable trade at {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+            }
+        }
+
+        List<BatchItemStatus> statuses = trades.isEmpty() ? List.of() : save(trades, sources);
+        acknowledgment.acknowledge();
+
+        stats.recordBatch(trades.size(), statuses, System.currentTimeMillis() - start);
+        stats.recordLag(consumer);
+        statuses.stream()
+                .filter(status -> status.getStatus() != BatchItemStatus.Status.CREATED)
+                .forEach(status -> log.warn("Rejected trade {}: {}", trades.get(status.getIndex()).getTradeId(), status.getError()));
+    }
+
+    /**
+     * A batch the database refuses because of its data (a value too long for its column, a missing
+     * NOT NULL value) is saved again one trade at a time, so the record at fault can be handed to the
+     * error handler, which retries it a bounded number of times and then dead-letters it. The trades
+     * before it are committed. Other failures propagate and the whole batch is retried.
+     */
+    private List<BatchItemStatus> save(List<TradeDto> trades, List<ConsumerRecord<String, String>> sources) {
+        try {
+            return tradeService.saveTrades(trades);
+        } catch (DataIntegrityViolationException e) {
+            List<BatchItemStatus> statuses = new ArrayList<>(trades.size());
+            for (int i = 0; i < trades.size(); i++) {
+                try {
+                    BatchItemStatus status = tradeService.saveTrades(List.of(trades.get(i))).get(0);
+                    status.setIndex(i);
+                    statuses.add(status);
+                } catch (DataIntegrityViolationException rejected) {
+                    throw new BatchListenerFailedException("Trade rejected by the database", rejected, sources.get(i));
+                }
+            }
+            return statuses;
+        }
+    }
+
+    public IngestStats getStats() {
+        return stats;
+    }
+}
@@ -6,7 +6,9 @@ import com.example.query.entity.SymbolEntity;
 import com.example.query.entity.TickerEntity;
 import com.example.query.entity.TradeEntity;
 import com.example.query.model.TickerDto;
+import com.example.query.model.TickerRow;
 import com.example.query.model.TradeDto;
+import com.example.query.model.TradeRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -22,6 +24,9 @@ public interface PayloadMapper {
     @Mapping(source = "symbol.name", target = "symbol")
     TradeDto toTradeDto(TradeEntity entity);
 
+    @Mapping(target = "ignore", ignore = true)
+    TradeDto toTradeDto(TradeRow row);
+
     @Mapping(target = "eventType", ignore = true)
     @Mapping(target = "symbol", ignore = true)
     TickerEntity toTickerEntity(TickerDto dto);
@@ -31,4 +36,6 @@ public interface PayloadMapper {
     @Mapping(source = "id", target = "tickerId")
     TickerDto toTickerDto(TickerEntity entity);
 
+    TickerDto toTickerDto(TickerRow row);
+
 }
@@ -0,0 +1,30 @@
+package com.example.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemStatus {
+    private int index;
+    private Status status;
+    private String error;
+
+    public static BatchItemStatus created(int index) {
+        return new BatchItemStatus(index, Status.CREATED, null);
+    }
+
+    public static BatchItemStatus rejected(int index, String error) {
+        return new BatchItemStatus(index, Status.REJECTED, error);
+    }
+
+    public static BatchItemStatus failed(int index, String error) {
+        return new BatchItemStatus(index, Status.FAILED, error);
+    }
+
+    public enum Status {
+        CREATED, REJECTED, FAILED
+    }
+}
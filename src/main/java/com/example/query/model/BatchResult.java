@@ -0,0 +1,31 @@
+package com.example.query.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingest request. Counters cover every item in the body; {@code items} lists the
+ * items that were not created, addressed by their zero-based position in the body.
+ */
+@Data
+public class BatchResult {
+    private long received;
+    private long created;
+    private long rejected;
+    private long failed;
+    private List<BatchItemStatus> items = new ArrayList<>();
+
+    public void add(BatchItemStatus status) {
+        received++;
+        switch (status.getStatus()) {
+            case CREATED -> created++;
+            case REJECTED -> rejected++;
+            case FAILED -> failed++;
+        }
+        if (status.getStatus() != BatchItemStatus.Status.CREATED) {
+            items.add(status);
+        }
+    }
+}
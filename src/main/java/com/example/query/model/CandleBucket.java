@@ -0,0 +1,83 @@
+package com.example.query.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable OHLCV accumulator for one symbol, interval and bucket. First and last trade times are kept
+ * so that two partial buckets for the same window can be merged without knowing their arrival order.
+ */
+@Data
+@NoArgsConstructor
+public class CandleBucket {
+    private int symbolId;
+    private long intervalMillis;
+    private long openTime;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal volume = BigDecimal.ZERO;
+    private long tradeCount;
+    private long firstTradeTime;
+    private long lastTradeTime;
+
+    public CandleBucket(int symbolId, long intervalMillis, long openTime) {
+        this.symbolId = symbolId;
+        this.intervalMillis = intervalMillis;
+        this.openTime = openTime;
+    }
+
+    public void add(long tradeTime, BigDecimal price, BigDecimal quantity) {
+        if (tradeCount == 0 || tradeTime < firstTradeTime) {
+            open = price;
+            firstTradeTime = tradeTime;
+        }
+        if (tradeCount == 0 || tradeTime >= lastTradeTime) {
+            close = price;
+            lastTradeTime = tradeTime;
+        }
+        if (high == null || price.compareTo(high) > 0) {
+            high = price;
+        }
+        if (low == null || price.compareTo(low) < 0) {
+            low = price;
+        }
+        volume = volume.add(quantity);
+        tradeCount++;
+    }
+
+    public void merge(CandleBucket other) {
+        if (other.tradeCount == 0) {
+            return;
+        }
+        if (tradeCount == 0 || other.firstTradeTime < firstTradeTime) {
+            open = other.open;
+            firstTradeTime = other.firstTradeTime;
+        }
+        if (tradeCount == 0 || other.lastTradeTime >= lastTradeTime) {
+            close = other.close;
+            lastTradeTime = other.lastTradeTime;
+        }
+        if (high == null || other.high.compareTo(high) > 0) {
+            high = other.high;
+        }
+        if (low == null || other.low.compareTo(low) < 0) {
+            low = other.low;
+        }
+        volume = volume.add(other.volume);
+        tradeCount += other.tradeCount;
+    }
+
+    public CandleBucket copy() {
+        CandleBucket copy = new CandleBucket(symbolId, intervalMillis, openTime);
+        copy.merge(this);
+        return copy;
+    }
+
+    public CandleDto toDto() {
+        return new CandleDto(openTime, openTime + intervalMillis - 1, open, high, low, close, volume, tradeCount);
+    }
+}
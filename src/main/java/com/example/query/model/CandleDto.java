@@ -0,0 +1,27 @@
+package com.example.query.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleDto {
+    private Long openTime;
+    private Long closeTime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal open;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal high;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal low;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal close;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal volume;
+    private Long tradeCount;
+}
@@ -0,0 +1,33 @@
+package com.example.query.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Writes decimals to JSON as plain strings without trailing zeros, so a price stored in a
+ * {@code DECIMAL(30, 8)} column as {@code 50000.00000000} goes out as {@code "50000"} and
+ * {@code 0.00000001} never turns into {@code 1E-8}. Only the JSON mapper picks this up; the CBOR and
+ * Smile mappers keep their native decimal encodings.
+ */
+@JsonComponent
+public class PlainDecimalSerializer extends StdSerializer<BigDecimal> {
+
+    public PlainDecimalSerializer() {
+        super(BigDecimal.class);
+    }
+
+    @Override
+    public void serialize(BigDecimal value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeString(format(value));
+    }
+
+    public static String format(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        return (stripped.scale() < 0 ? stripped.setScale(0) : stripped).toPlainString();
+    }
+}
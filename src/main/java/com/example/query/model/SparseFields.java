@@ -0,0 +1,83 @@
+package com.example.query.model;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A validated {@code fields=} selection of DTO properties in request order, with the entity attribute
+ * path each one is read from. Selected rows are returned as maps keyed by the DTO property names;
+ * decimals are written as plain strings by {@link PlainDecimalSerializer}, like the DTO properties.
+ */
+public final class SparseFields {
+
+    private static final List<String> TRADE_FIELDS = List.of("tradeId", "eventType", "eventTimestamp", "symbol",
+            "price", "quantity", "tradeTime", "isBuyerMarketMaker");
+
+    private static final List<String> TICKER_FIELDS = List.of("tickerId", "eventType", "eventTimestamp", "symbol",
+            "priceChange", "priceChangePercent", "weightedAveragePrice", "firstTradeBeforeWindow", "lastPrice",
+            "lastQuantity", "bestBidPrice", "bestBidQuantity", "bestAskPrice", "bestAskQuantity", "openPrice",
+            "highPrice", "lowPrice", "totalTradedBaseAssetVolume", "totalTradedQuoteAssetVolume",
+            "statisticsOpenTime", "statisticsCloseTime", "firstTradeId", "lastTradeId", "totalTradeCount");
+
+    private static final Map<String, String> ENTITY_PATHS = Map.of(
+            "tickerId", "id",
+            "eventType", "eventType.type",
+            "symbol", "symbol.name");
+
+    private final Map<String, String> paths;
+
+    private SparseFields(Map<String, String> paths) {
+        this.paths = Collections.unmodifiableMap(paths);
+    }
+
+    public static SparseFields ofTrade(String fields) {
+        return parse(fields, TRADE_FIELDS);
+    }
+
+    public static SparseFields ofTicker(String fields) {
+        return parse(fields, TICKER_FIELDS);
+    }
+
+    /**
+     * Selected DTO property names mapped to entity attribute paths, where {@code a.b} reads {@code b}
+     * through the {@code a} association.
+     */
+    public Map<String, String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * The selected properties of an already loaded DTO, for results served from memory or from entities.
+     */
+    public Map<String, Object> project(Object dto) {
+        BeanWrapper bean = PropertyAccessorFactory.forBeanPropertyAccess(dto);
+        Map<String, Object> row = new LinkedHashMap<>();
+        paths.keySet().forEach(field -> row.put(field, value(bean.getPropertyValue(field))));
+        return row;
+    }
+
+    public static Object value(Object value) {
+        return value instanceof BigDecimal decimal ? PlainDecimalSerializer.format(decimal) : value;
+    }
+
+    private static SparseFields parse(String fields, List<String> allowed) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        Stream.of(fields.split(",")).map(String::trim).filter(field -> !field.isEmpty()).forEach(field -> {
+            if (!allowed.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field + ", expected any of " + allowed);
+            }
+            paths.put(field, ENTITY_PATHS.getOrDefault(field, field));
+        });
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return new SparseFields(paths);
+    }
+}
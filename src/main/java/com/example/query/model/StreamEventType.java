@@ -0,0 +1,22 @@
+package com.example.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StreamEventType {
+    TRADE("trade"),
+    TICKER("ticker");
+
+    private final String eventName;
+
+    public static StreamEventType from(String eventName) {
+        for (StreamEventType candidate : values()) {
+            if (candidate.eventName.equalsIgnoreCase(eventName)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported stream event type: " + eventName);
+    }
+}
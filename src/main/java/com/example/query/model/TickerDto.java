@@ -1,26 +1,44 @@
 package com.example.query.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 
 public class TickerDto extends BaseDto {
     private Long tickerId;
-    private String priceChange;
-    private String priceChangePercent;
-    private String weightedAveragePrice;
-    private String firstTradeBeforeWindow;
-    private String lastPrice;
-    private String lastQuantity;
-    private String bestBidPrice;
-    private String bestBidQuantity;
-    private String bestAskPrice;
-    private String bestAskQuantity;
-    private String openPrice;
-    private String highPrice;
-    private String lowPrice;
-    private String totalTradedBaseAssetVolume;
-    private String totalTradedQuoteAssetVolume;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal priceChange;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal priceChangePercent;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal weightedAveragePrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal firstTradeBeforeWindow;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal lastPrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal lastQuantity;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal bestBidPrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal bestBidQuantity;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal bestAskPrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal bestAskQuantity;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal openPrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal highPrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal lowPrice;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal totalTradedBaseAssetVolume;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal totalTradedQuoteAssetVolume;
     private Long statisticsOpenTime;
     private Long statisticsCloseTime;
     private Long firstTradeId;
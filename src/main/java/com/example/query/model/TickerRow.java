@@ -0,0 +1,32 @@
+package com.example.query.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only ticker listing row, the ticker counterpart of {@link TradeRow}.
+ */
+public record TickerRow(Long tickerId,
+                        String eventType,
+                        Long eventTimestamp,
+                        String symbol,
+                        BigDecimal priceChange,
+                        BigDecimal priceChangePercent,
+                        BigDecimal weightedAveragePrice,
+                        BigDecimal firstTradeBeforeWindow,
+                        BigDecimal lastPrice,
+                        BigDecimal lastQuantity,
+                        BigDecimal bestBidPrice,
+                        BigDecimal bestBidQuantity,
+                        BigDecimal bestAskPrice,
+                        BigDecimal bestAskQuantity,
+                        BigDecimal openPrice,
+                        BigDecimal highPrice,
+                        BigDecimal lowPrice,
+                        BigDecimal totalTradedBaseAssetVolume,
+                        BigDecimal totalTradedQuoteAssetVolume,
+                        Long statisticsOpenTime,
+                        Long statisticsCloseTime,
+                        Long firstTradeId,
+                        Long lastTradeId,
+                        Long totalTradeCount) {
+}
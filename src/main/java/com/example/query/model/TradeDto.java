@@ -1,12 +1,17 @@
 package com.example.query.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class TradeDto extends BaseDto {
     private Long tradeId;
-    private String price;
-    private String quantity;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal price;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal quantity;
     private Long tradeTime;
     private Boolean isBuyerMarketMaker;
     private Boolean ignore;
@@ -0,0 +1,17 @@
+package com.example.query.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only trade listing row, selected by a JPQL constructor expression with the symbol and event type
+ * names joined in, so listings never hydrate or dirty-track entities.
+ */
+public record TradeRow(Long tradeId,
+                       String eventType,
+                       Long eventTimestamp,
+                       String symbol,
+                       BigDecimal price,
+                       BigDecimal quantity,
+                       Long tradeTime,
+                       Boolean isBuyerMarketMaker) {
+}
@@ -0,0 +1,93 @@
+package com.example.query.repository;
+
+import com.example.query.model.CandleBucket;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Pre-aggregated candles in the {@code candle} table. Rows are never merged into: a range is deleted and
+ * recomputed from the trade table, or from the candles of a shorter interval, so writes on any instance
+ * and updates or deletes of trades leave the same rows behind. Both run in the caller's transaction; the
+ * INSERT ... SELECT reads its source with locks, so a trade committed meanwhile is either seen or waits.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class CandleRepository {
+
+    private static final String DELETE_SQL = "DELETE FROM candle "
+            + "WHERE symbol_id = ? AND interval_ms = ? AND open_time >= ? AND open_time < ?";
+
+    // Same bucketing as TradeAggregationRepository, keeping the first and last trade times for roll-ups
+    private static final String FROM_TRADES_SQL = "INSERT INTO candle (symbol_id, interval_ms, open_time, open_price, "
+            + "high_price, low_price, close_price, volume, trade_count, first_trade_time, last_trade_time) "
+            + "SELECT ?, ?, bucket_start, open_price, MAX(price), MIN(price), close_price, SUM(quantity), COUNT(*), "
+            + "MIN(trade_time), MAX(trade_time) "
+            + "FROM ("
+            + "  SELECT trade_time - MOD(trade_time, ?) AS bucket_start, trade_time, price, quantity, "
+            + "         FIRST_VALUE(price) OVER (PARTITION BY trade_time - MOD(trade_time, ?) ORDER BY trade_time, id) AS open_price, "
+            + "         FIRST_VALUE(price) OVER (PARTITION BY trade_time - MOD(trade_time, ?) ORDER BY trade_time DESC, id DESC) AS close_price "
+            + "  FROM trade "
+            + "  WHERE symbol_id = ? AND trade_time >= ? AND trade_time < ?"
+            + ") buckets "
+            + "GROUP BY bucket_start, open_price, close_price";
+
+    private static final String FROM_CANDLES_SQL = "INSERT INTO candle (symbol_id, interval_ms, open_time, open_price, "
+            + "high_price, low_price, close_price, volume, trade_count, first_trade_time, last_trade_time) "
+            + "SELECT ?, ?, bucket_start, open_price, MAX(high_price), MIN(low_price), close_price, SUM(volume), "
+            + "SUM(trade_count), MIN(first_trade_time), MAX(last_trade_time) "
+            + "FROM ("
+            + "  SELECT open_time - MOD(open_time, ?) AS bucket_start, high_price, low_price, volume, trade_count, "
+            + "         first_trade_time, last_trade_time, "
+            + "         FIRST_VALUE(open_price) OVER (PARTITION BY open_time - MOD(open_time, ?) ORDER BY first_trade_time) AS open_price, "
+            + "         FIRST_VALUE(close_price) OVER (PARTITION BY open_time - MOD(open_time, ?) ORDER BY last_trade_time DESC) AS close_price "
+            + "  FROM candle "
+            + "  WHERE symbol_id = ? AND interval_ms = ? AND open_time >= ? AND open_time < ?"
+            + ") buckets "
+            + "GROUP BY bucket_start, open_price, close_price";
+
+    private static final String SELECT_SQL = "SELECT open_time, open_price, high_price, low_price, close_price, "
+            + "volume, trade_count, first_trade_time, last_trade_time FROM candle "
+            + "WHERE symbol_id = ? AND interval_ms = ? AND open_time >= ? AND open_time < ? ORDER BY open_time";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Replaces the candles of the interval in [from, to) with the ones aggregated from the trades in that range.
+     * Both bounds must be aligned to the interval.
+     */
+    public void replaceFromTrades(int symbolId, long intervalMillis, long from, long to) {
+        jdbcTemplate.update(DELETE_SQL, symbolId, intervalMillis, from, to);
+        jdbcTemplate.update(FROM_TRADES_SQL, symbolId, intervalMillis, intervalMillis, intervalMillis, intervalMillis,
+                symbolId, from, to);
+    }
+
+    /**
+     * Replaces the candles of the interval in [from, to) with the roll-up of the stored candles of a shorter
+     * interval that divides it. Both bounds must be aligned to the longer interval.
+     */
+    public void replaceFromCandles(int symbolId, long sourceIntervalMillis, long intervalMillis, long from, long to) {
+        jdbcTemplate.update(DELETE_SQL, symbolId, intervalMillis, from, to);
+        jdbcTemplate.update(FROM_CANDLES_SQL, symbolId, intervalMillis, intervalMillis, intervalMillis, intervalMillis,
+                symbolId, sourceIntervalMillis, from, to);
+    }
+
+    public List<CandleBucket> findCandles(int symbolId, long intervalMillis, long from, long to) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            CandleBucket bucket = new CandleBucket(symbolId, intervalMillis, rs.getLong("open_time"));
+            bucket.setOpen(rs.getBigDecimal("open_price"));
+            bucket.setHigh(rs.getBigDecimal("high_price"));
+            bucket.setLow(rs.getBigDecimal("low_price"));
+            bucket.setClose(rs.getBigDecimal("close_price"));
+            bucket.setVolume(rs.getBigDecimal("volume"));
+            bucket.setTradeCount(rs.getLong("trade_count"));
+            bucket.setFirstTradeTime(rs.getLong("first_trade_time"));
+            bucket.setLastTradeTime(rs.getLong("last_trade_time"));
+            return bucket;
+        }, symbolId, intervalMillis, from, to);
+    }
+}
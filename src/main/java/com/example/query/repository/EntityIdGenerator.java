@@ -0,0 +1,41 @@
+package com.example.query.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out ids from the same pooled id_block generators Hibernate uses for persist, so the JDBC
+ * write paths and JPA never collide. Ids come from the in-memory block; only exhausting a block costs
+ * a round trip, done in its own transaction on a separate connection.
+ */
+@Component
+public class EntityIdGenerator {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public EntityIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public long[] nextIds(Class<?> entityType, int count) {
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entityType)
+                .getGenerator();
+        long[] ids = new long[count];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            SharedSessionContractImplementor implementor = (SharedSessionContractImplementor) session;
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) generator.generate(implementor, null)).longValue();
+            }
+        }
+        return ids;
+    }
+
+    public long nextId(Class<?> entityType) {
+        return nextIds(entityType, 1)[0];
+    }
+}
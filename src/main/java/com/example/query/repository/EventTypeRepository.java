@@ -4,9 +4,13 @@ import com.example.query.entity.EventTypeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EventTypeRepository extends JpaRepository<EventTypeEntity, Long> {
     Optional<EventTypeEntity> findByType(String eventType);
+
+    List<EventTypeEntity> findByTypeIn(Collection<String> eventTypes);
 }
@@ -0,0 +1,55 @@
+package com.example.query.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+/**
+ * Forward-only reads for exports. A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream
+ * rows one at a time instead of buffering the whole result set, so memory stays flat regardless of
+ * the exported range. Columns are aliased to the DTO property names.
+ */
+@Repository
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class ExportRepository {
+
+    private static final String TRADE_SQL = "SELECT t.trade_id AS tradeId, e.type AS eventType, "
+            + "t.event_timestamp AS eventTimestamp, ? AS symbol, t.price AS price, t.quantity AS quantity, "
+            + "t.trade_time AS tradeTime, t.is_buyer_market_maker AS isBuyerMarketMaker "
+            + "FROM trade t JOIN event_type e ON e.id = t.event_type_id "
+            + "WHERE t.symbol_id = ? AND t.trade_time >= ? AND t.trade_time < ? "
+            + "ORDER BY t.trade_time, t.id";
+
+    private static final String TICKER_SQL = "SELECT t.id AS tickerId, e.type AS eventType, "
+            + "t.event_timestamp AS eventTimestamp, ? AS symbol, t.price_change AS priceChange, "
+            + "t.price_change_percent AS priceChangePercent, t.weighted_average_price AS weightedAveragePrice, "
+            + "t.first_trade_before_window AS firstTradeBeforeWindow, t.last_price AS lastPrice, "
+            + "t.last_quantity AS lastQuantity, t.best_bid_price AS bestBidPrice, t.best_bid_quantity AS bestBidQuantity, "
+            + "t.best_ask_price AS bestAskPrice, t.best_ask_quantity AS bestAskQuantity, t.open_price AS openPrice, "
+            + "t.high_price AS highPrice, t.low_price AS lowPrice, "
+            + "t.total_traded_base_asset_volume AS totalTradedBaseAssetVolume, "
+            + "t.total_traded_quote_asset_volume AS totalTradedQuoteAssetVolume, "
+            + "t.statistics_open_time AS statisticsOpenTime, t.statistics_close_time AS statisticsCloseTime, "
+            + "t.first_trade_id AS firstTradeId, t.last_trade_id AS lastTradeId, t.total_trade_count AS totalTradeCount "
+            + "FROM ticker t JOIN event_type e ON e.id = t.event_type_id "
+            + "WHERE t.symbol_id = ? AND t.event_timestamp >= ? AND t.event_timestamp < ? "
+            + "ORDER BY t.event_timestamp, t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public void streamTrades(String symbol, int symbolId, long from, long to, RowCallbackHandler handler) {
+        jdbcTemplate.query(TRADE_SQL, handler, symbol, symbolId, from, to);
+    }
+
+    public void streamTickers(String symbol, int symbolId, long from, long to, RowCallbackHandler handler) {
+        jdbcTemplate.query(TICKER_SQL, handler, symbol, symbolId, from, to);
+    }
+}
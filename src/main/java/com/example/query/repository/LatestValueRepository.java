@@ -0,0 +1,87 @@
+package com.example.query.repository;
+
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Greatest-per-group lookups of the newest trade or ticker of many symbols in one statement. The lateral
+ * subquery is a single backward dive into the (symbol_id, created_at) index per symbol, so the cost grows
+ * with the number of symbols, not with the size of the table. It returns the whole row, so the result is
+ * never joined back on {@code id} alone, which would not prune partitions keyed by time.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class LatestValueRepository {
+
+    private static final String LATEST_TRADES_SQL = "SELECT t.*, e.type AS event_type, s.name AS symbol "
+            + "FROM symbol s "
+            + "JOIN LATERAL (SELECT l.* FROM trade l WHERE l.symbol_id = s.id%s ORDER BY l.created_at DESC LIMIT 1) t ON TRUE "
+            + "JOIN event_type e ON e.id = t.event_type_id "
+            + "WHERE s.id IN (%s)";
+
+    private static final String LATEST_TICKERS_SQL = "SELECT t.*, t.id AS ticker_id, e.type AS event_type, s.name AS symbol "
+            + "FROM symbol s "
+            + "JOIN LATERAL (SELECT l.* FROM ticker l WHERE l.symbol_id = s.id%s ORDER BY l.created_at DESC LIMIT 1) t ON TRUE "
+            + "JOIN event_type e ON e.id = t.event_type_id "
+            + "WHERE s.id IN (%s)";
+
+    private static final String TRADE_TIME_BOUND = " AND l.trade_time >= ?";
+    private static final String EVENT_TIMESTAMP_BOUND = " AND l.event_timestamp >= ?";
+
+    private static final RowMapper<TradeDto> TRADE_MAPPER = new BeanPropertyRowMapper<>(TradeDto.class);
+    private static final RowMapper<TickerDto> TICKER_MAPPER = new BeanPropertyRowMapper<>(TickerDto.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<TradeDto> findLatestTrades(Collection<Integer> symbolIds) {
+        return query(LATEST_TRADES_SQL, "", TRADE_MAPPER, null, symbolIds);
+    }
+
+    /**
+     * Latest trade per symbol among trades with {@code trade_time >= since}, so only recent partitions are
+     * read. Symbols without such trades are left out.
+     */
+    public List<TradeDto> findLatestTrades(Collection<Integer> symbolIds, long since) {
+        return query(LATEST_TRADES_SQL, TRADE_TIME_BOUND, TRADE_MAPPER, since, symbolIds);
+    }
+
+    public List<TickerDto> findLatestTickers(Collection<Integer> symbolIds) {
+        return query(LATEST_TICKERS_SQL, "", TICKER_MAPPER, null, symbolIds);
+    }
+
+    /**
+     * Latest ticker per symbol among tickers with {@code event_timestamp >= since}, so only recent partitions
+     * are read. Symbols without such tickers are left out.
+     */
+    public List<TickerDto> findLatestTickers(Collection<Integer> symbolIds, long since) {
+        return query(LATEST_TICKERS_SQL, EVENT_TIMESTAMP_BOUND, TICKER_MAPPER, since, symbolIds);
+    }
+
+    private <T> List<T> query(String sql, String bound, RowMapper<T> mapper, Long since, Collection<Integer> symbolIds) {
+        if (symbolIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(symbolIds.size() + 1);
+        if (since != null) {
+            args.add(since);
+        }
+        args.addAll(symbolIds);
+        return jdbcTemplate.query(sql.formatted(bound, placeholders(symbolIds.size())), mapper, args.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.query.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Range partition DDL. Table and partition names are generated by the service, never taken from requests,
+ * because DDL cannot bind them as parameters.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class PartitionRepository {
+
+    public static final String FUTURE_PARTITION = "p_future";
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION "
+            + "FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Partitions in ascending order; the upper bound is null for the MAXVALUE partition.
+     */
+    public List<Partition> findPartitions(String table) {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) -> {
+            String description = rs.getString("PARTITION_DESCRIPTION");
+            Long upperBound = "MAXVALUE".equalsIgnoreCase(description) ? null : Long.valueOf(description);
+            return new Partition(rs.getString("PARTITION_NAME"), upperBound);
+        }, table);
+    }
+
+    /**
+     * Splits the MAXVALUE partition so that the given partitions precede it.
+     */
+    public void addBefore(String table, List<Partition> partitions) {
+        String definitions = partitions.stream()
+                .map(partition -> "PARTITION " + partition.name() + " VALUES LESS THAN (" + partition.upperBound() + ")")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                + definitions + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    public void drop(String table, List<String> partitionNames) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", partitionNames));
+    }
+
+    /**
+     * Runs the task while holding a MySQL named lock, so only one instance maintains partitions at a time.
+     * Returns false without running the task when another session holds the lock.
+     */
+    public boolean withLock(String lockName, Runnable task) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                lock.setString(1, lockName);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        return false;
+                    }
+                }
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                try (PreparedStatement release = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    release.setString(1, lockName);
+                    release.execute();
+                }
+            }
+        }));
+    }
+
+    public record Partition(String name, Long upperBound) {
+    }
+}
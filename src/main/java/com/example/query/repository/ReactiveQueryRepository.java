@@ -0,0 +1,123 @@
+package com.example.query.repository;
+
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking counterparts of the symbol listing and latest queries. Rows are mapped straight to DTOs
+ * and emitted on demand, so a slow HTTP client slows the read instead of buffering the result. The symbol
+ * is joined by name to keep the whole request off blocking lookups.
+ */
+@Repository
+@AllArgsConstructor
+@ConditionalOnProperty(name = "query.reactive.enabled", havingValue = "true")
+public class ReactiveQueryRepository {
+
+    private static final String TRADE_COLUMNS = "SELECT t.trade_id, e.type AS event_type, t.event_timestamp, s.name AS symbol, "
+            + "t.price, t.quantity, t.trade_time, t.is_buyer_market_maker "
+            + "FROM trade t JOIN symbol s ON s.id = t.symbol_id JOIN event_type e ON e.id = t.event_type_id ";
+
+    private static final String TRADES_SQL = TRADE_COLUMNS
+            + "WHERE s.name = :symbol AND t.trade_time >= :from AND t.trade_time < :to "
+            + "ORDER BY t.trade_time, t.id LIMIT :limit";
+
+    private static final String LATEST_TRADE_SQL = TRADE_COLUMNS
+            + "WHERE s.name = :symbol ORDER BY t.created_at DESC LIMIT 1";
+
+    private static final String TICKER_COLUMNS = "SELECT t.*, e.type AS event_type, s.name AS symbol "
+            + "FROM ticker t JOIN symbol s ON s.id = t.symbol_id JOIN event_type e ON e.id = t.event_type_id ";
+
+    private static final String TICKERS_SQL = TICKER_COLUMNS
+            + "WHERE s.name = :symbol AND t.event_timestamp >= :from AND t.event_timestamp < :to "
+            + "ORDER BY t.event_timestamp, t.id LIMIT :limit";
+
+    private static final String LATEST_TICKER_SQL = TICKER_COLUMNS
+            + "WHERE s.name = :symbol ORDER BY t.created_at DESC LIMIT 1";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    public Flux<TradeDto> findTrades(String symbol, long from, long to, int limit) {
+        return reactiveDatabaseClient.sql(TRADES_SQL)
+                .bind("symbol", symbol)
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", limit)
+                .map(ReactiveQueryRepository::toTradeDto)
+                .all();
+    }
+
+    public Mono<TradeDto> findLatestTrade(String symbol) {
+        return reactiveDatabaseClient.sql(LATEST_TRADE_SQL)
+                .bind("symbol", symbol)
+                .map(ReactiveQueryRepository::toTradeDto)
+                .one();
+    }
+
+    public Flux<TickerDto> findTickers(String symbol, long from, long to, int limit) {
+        return reactiveDatabaseClient.sql(TICKERS_SQL)
+                .bind("symbol", symbol)
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", limit)
+                .map(ReactiveQueryRepository::toTickerDto)
+                .all();
+    }
+
+    public Mono<TickerDto> findLatestTicker(String symbol) {
+        return reactiveDatabaseClient.sql(LATEST_TICKER_SQL)
+                .bind("symbol", symbol)
+                .map(ReactiveQueryRepository::toTickerDto)
+                .one();
+    }
+
+    private static TradeDto toTradeDto(Readable row) {
+        TradeDto dto = new TradeDto();
+        dto.setTradeId(row.get("trade_id", Long.class));
+        dto.setEventType(row.get("event_type", String.class));
+        dto.setEventTimestamp(row.get("event_timestamp", Long.class));
+        dto.setSymbol(row.get("symbol", String.class));
+        dto.setPrice(row.get("price", BigDecimal.class));
+        dto.setQuantity(row.get("quantity", BigDecimal.class));
+        dto.setTradeTime(row.get("trade_time", Long.class));
+        dto.setIsBuyerMarketMaker(row.get("is_buyer_market_maker", Boolean.class));
+        return dto;
+    }
+
+    private static TickerDto toTickerDto(Readable row) {
+        TickerDto dto = new TickerDto();
+        dto.setTickerId(row.get("id", Long.class));
+        dto.setEventType(row.get("event_type", String.class));
+        dto.setEventTimestamp(row.get("event_timestamp", Long.class));
+        dto.setSymbol(row.get("symbol", String.class));
+        dto.setPriceChange(row.get("price_change", BigDecimal.class));
+        dto.setPriceChangePercent(row.get("price_change_percent", BigDecimal.class));
+        dto.setWeightedAveragePrice(row.get("weighted_average_price", BigDecimal.class));
+        dto.setFirstTradeBeforeWindow(row.get("first_trade_before_window", BigDecimal.class));
+        dto.setLastPrice(row.get("last_price", BigDecimal.class));
+        dto.setLastQuantity(row.get("last_quantity", BigDecimal.class));
+        dto.setBestBidPrice(row.get("best_bid_price", BigDecimal.class));
+        dto.setBestBidQuantity(row.get("best_bid_quantity", BigDecimal.class));
+        dto.setBestAskPrice(row.get("best_ask_price", BigDecimal.class));
+        dto.setBestAskQuantity(row.get("best_ask_quantity", BigDecimal.class));
+        dto.setOpenPrice(row.get("open_price", BigDecimal.class));
+        dto.setHighPrice(row.get("high_price", BigDecimal.class));
+        dto.setLowPrice(row.get("low_price", BigDecimal.class));
+        dto.setTotalTradedBaseAssetVolume(row.get("total_traded_base_asset_volume", BigDecimal.class));
+        dto.setTotalTradedQuoteAssetVolume(row.get("total_traded_quote_asset_volume", BigDecimal.class));
+        dto.setStatisticsOpenTime(row.get("statistics_open_time", Long.class));
+        dto.setStatisticsCloseTime(row.get("statistics_close_time", Long.class));
+        dto.setFirstTradeId(row.get("first_trade_id", Long.class));
+        dto.setLastTradeId(row.get("last_trade_id", Long.class));
+        dto.setTotalTradeCount(row.get("total_trade_count", Long.class));
+        return dto;
+    }
+}
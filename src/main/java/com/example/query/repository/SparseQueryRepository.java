@@ -0,0 +1,136 @@
+package com.example.query.repository;
+
+import com.example.query.model.SparseFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pages, keyset slices and single rows of trades or tickers with only the requested columns selected, built
+ * as Criteria tuple queries.
+ * Associations are joined only when one of their attributes is selected.
+ */
+@Repository
+@AllArgsConstructor
+public class SparseQueryRepository {
+
+    private static final String KEY_ALIAS = "key_";
+
+    private final EntityManager entityManager;
+
+    public <T> Page<Map<String, Object>> findFields(Class<T> type, SparseFields fields, Specification<T> filter,
+                                                    Pageable pageable) {
+        List<Map<String, Object>> content = select(type, fields, List.of(), filter, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(tuple -> fields(fields, tuple))
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(type, filter));
+    }
+
+    /**
+     * The requested fields of the first row matching the filter, for lookups by a unique key.
+     */
+    public <T> Optional<Map<String, Object>> findFirstFields(Class<T> type, SparseFields fields, Specification<T> filter) {
+        return select(type, fields, List.of(), filter, Sort.unsorted())
+                .setMaxResults(1)
+                .getResultList().stream()
+                .findFirst()
+                .map(tuple -> fields(fields, tuple));
+    }
+
+    /**
+     * Up to {@code limit} rows in the given order without a count, each with the values of the {@code keys}
+     * attributes alongside the requested fields, so the caller can position the next slice on the last row.
+     */
+    public <T> List<KeyedRow> scrollFields(Class<T> type, SparseFields fields, List<String> keys,
+                                           Specification<T> filter, Sort sort, int limit) {
+        return select(type, fields, keys, filter, sort)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> keyValues = new LinkedHashMap<>();
+                    keys.forEach(key -> keyValues.put(key, tuple.get(keyAlias(fields, key))));
+                    return new KeyedRow(fields(fields, tuple), keyValues);
+                })
+                .toList();
+    }
+
+    private <T> TypedQuery<Tuple> select(Class<T> type, SparseFields fields, List<String> keys, Specification<T> filter,
+                                         Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        fields.getPaths().forEach((field, path) -> selections.add(path(root, joins, path).alias(field)));
+        keys.stream()
+                .filter(key -> !fields.getPaths().containsValue(key))
+                .forEach(key -> selections.add(root.get(key).alias(KEY_ALIAS + key)));
+        query.multiselect(selections)
+                .where(filter.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    // A key that is also a requested field is read from the field: the path is shared and holds one alias
+    private static String keyAlias(SparseFields fields, String key) {
+        return fields.getPaths().entrySet().stream()
+                .filter(entry -> entry.getValue().equals(key))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(KEY_ALIAS + key);
+    }
+
+    private static Map<String, Object> fields(SparseFields fields, Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        fields.getPaths().keySet().forEach(field -> row.put(field, SparseFields.value(tuple.get(field))));
+        return row;
+    }
+
+    private <T> long count(Class<T> type, Specification<T> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root)).where(filter.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            return root.get(path);
+        }
+        String association = path.substring(0, dot);
+        return joins.computeIfAbsent(association, root::join).get(path.substring(dot + 1));
+    }
+
+    /**
+     * A row of requested fields with the values of the attributes its listing is positioned by.
+     */
+    public record KeyedRow(Map<String, Object> fields, Map<String, Object> keys) {
+    }
+}
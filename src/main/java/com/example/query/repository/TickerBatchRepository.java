@@ -0,0 +1,66 @@
+package com.example.query.repository;
+
+import com.example.query.entity.TickerEntity;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Multi-row inserts for the ingestion paths, see {@link TradeBatchRepository}.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class TickerBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO ticker "
+            + "(id, event_type_id, event_timestamp, symbol_id, price_change, price_change_percent, weighted_average_price, "
+            + "first_trade_before_window, last_price, last_quantity, best_bid_price, best_bid_quantity, best_ask_price, "
+            + "best_ask_quantity, open_price, high_price, low_price, total_traded_base_asset_volume, "
+            + "total_traded_quote_asset_volume, statistics_open_time, statistics_close_time, first_trade_id, last_trade_id, "
+            + "total_trade_count, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIdGenerator entityIdGenerator;
+
+    public void insertAll(List<TickerEntity> tickers) {
+        long[] ids = entityIdGenerator.nextIds(TickerEntity.class, tickers.size());
+        for (int i = 0; i < tickers.size(); i++) {
+            tickers.get(i).setId(ids[i]);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, tickers, BATCH_SIZE, (ps, ticker) -> {
+            ps.setLong(1, ticker.getId());
+            ps.setInt(2, ticker.getEventType().getId());
+            ps.setObject(3, ticker.getEventTimestamp(), Types.BIGINT);
+            ps.setInt(4, ticker.getSymbol().getId());
+            ps.setBigDecimal(5, ticker.getPriceChange());
+            ps.setBigDecimal(6, ticker.getPriceChangePercent());
+            ps.setBigDecimal(7, ticker.getWeightedAveragePrice());
+            ps.setBigDecimal(8, ticker.getFirstTradeBeforeWindow());
+            ps.setBigDecimal(9, ticker.getLastPrice());
+            ps.setBigDecimal(10, ticker.getLastQuantity());
+            ps.setBigDecimal(11, ticker.getBestBidPrice());
+            ps.setBigDecimal(12, ticker.getBestBidQuantity());
+            ps.setBigDecimal(13, ticker.getBestAskPrice());
+            ps.setBigDecimal(14, ticker.getBestAskQuantity());
+            ps.setBigDecimal(15, ticker.getOpenPrice());
+            ps.setBigDecimal(16, ticker.getHighPrice());
+            ps.setBigDecimal(17, ticker.getLowPrice());
+            ps.setBigDecimal(18, ticker.getTotalTradedBaseAssetVolume());
+            ps.setBigDecimal(19, ticker.getTotalTradedQuoteAssetVolume());
+            ps.setObject(20, ticker.getStatisticsOpenTime(), Types.BIGINT);
+            ps.setObject(21, ticker.getStatisticsCloseTime(), Types.BIGINT);
+            ps.setObject(22, ticker.getFirstTradeId(), Types.BIGINT);
+            ps.setObject(23, ticker.getLastTradeId(), Types.BIGINT);
+            ps.setObject(24, ticker.getTotalTradeCount(), Types.BIGINT);
+            ps.setTimestamp(25, Timestamp.valueOf(ticker.getCreatedAt()));
+        });
+    }
+}
@@ -2,15 +2,40 @@ package com.example.query.repository;
 
 import com.example.query.entity.SymbolEntity;
 import com.example.query.entity.TickerEntity;
+import com.example.query.model.TickerRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface TickerRepository extends JpaRepository<TickerEntity, Long> {
-    Page<TickerEntity> findBySymbol(SymbolEntity symbol, Pageable pageable);
+public interface TickerRepository extends JpaRepository<TickerEntity, Long>, JpaSpecificationExecutor<TickerEntity> {
+    String ROW_SELECT = "select new com.example.query.model.TickerRow(t.id, e.type, t.eventTimestamp, s.name, "
+            + "t.priceChange, t.priceChangePercent, t.weightedAveragePrice, t.firstTradeBeforeWindow, "
+            + "t.lastPrice, t.lastQuantity, t.bestBidPrice, t.bestBidQuantity, t.bestAskPrice, t.bestAskQuantity, "
+            + "t.openPrice, t.highPrice, t.lowPrice, t.totalTradedBaseAssetVolume, t.totalTradedQuoteAssetVolume, "
+            + "t.statisticsOpenTime, t.statisticsCloseTime, t.firstTradeId, t.lastTradeId, t.totalTradeCount) "
+            + "from TickerEntity t join t.eventType e join t.symbol s ";
+
+    @Query(value = ROW_SELECT, countQuery = "select count(t) from TickerEntity t")
+    Page<TickerRow> findAllRows(Pageable pageable);
+
+    @Query(value = ROW_SELECT + "where t.symbol = :symbol",
+            countQuery = "select count(t) from TickerEntity t where t.symbol = :symbol")
+    Page<TickerRow> findRowsBySymbol(@Param("symbol") SymbolEntity symbol, Pageable pageable);
+
+    @Query(value = ROW_SELECT + "where t.symbol = :symbol and t.eventTimestamp >= :from and t.eventTimestamp < :to",
+            countQuery = "select count(t) from TickerEntity t "
+                    + "where t.symbol = :symbol and t.eventTimestamp >= :from and t.eventTimestamp < :to")
+    Page<TickerRow> findRowsBySymbolBetween(@Param("symbol") SymbolEntity symbol, @Param("from") Long from,
+                                            @Param("to") Long to, Pageable pageable);
+
     Optional<TickerEntity> findFirstBySymbolOrderByCreatedAtDesc(SymbolEntity symbol);
+
+    Optional<TickerEntity> findFirstBySymbolAndEventTimestampGreaterThanEqualOrderByCreatedAtDesc(SymbolEntity symbol, Long from);
 }
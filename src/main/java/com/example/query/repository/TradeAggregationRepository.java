@@ -0,0 +1,44 @@
+package com.example.query.repository;
+
+import com.example.query.model.CandleDto;
+import com.example.query.model.CandleInterval;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * OHLCV aggregation pushed down to MySQL. The range predicate is served by
+ * idx_trade_symbol_trade_time and only one row per bucket leaves the database.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class TradeAggregationRepository {
+
+    private static final String CANDLE_SQL = "SELECT bucket_start, open_price, MAX(price) AS high_price, "
+            + "MIN(price) AS low_price, close_price, SUM(quantity) AS volume, COUNT(*) AS trade_count "
+            + "FROM ("
+            + "  SELECT trade_time - MOD(trade_time, ?) AS bucket_start, price, quantity, "
+            + "         FIRST_VALUE(price) OVER (PARTITION BY trade_time - MOD(trade_time, ?) ORDER BY trade_time, id) AS open_price, "
+            + "         FIRST_VALUE(price) OVER (PARTITION BY trade_time - MOD(trade_time, ?) ORDER BY trade_time DESC, id DESC) AS close_price "
+            + "  FROM trade "
+            + "  WHERE symbol_id = ? AND trade_time >= ? AND trade_time < ?"
+            + ") buckets "
+            + "GROUP BY bucket_start, open_price, close_price "
+            + "ORDER BY bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<CandleDto> findCandles(int symbolId, CandleInterval interval, long from, long to) {
+        long millis = interval.getMillis();
+        return jdbcTemplate.query(CANDLE_SQL, (rs, rowNum) -> {
+            long openTime = rs.getLong("bucket_start");
+            return new CandleDto(openTime, openTime + millis - 1,
+                    rs.getBigDecimal("open_price"), rs.getBigDecimal("high_price"), rs.getBigDecimal("low_price"),
+                    rs.getBigDecimal("close_price"), rs.getBigDecimal("volume"), rs.getLong("trade_count"));
+        }, millis, millis, millis, symbolId, from, to);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.query.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Reads and removes the trades moved to cold segments. Reads stream like exports; deletes go in
+ * chunks by the primary keys that were streamed, so trades inserted for the same day while it was being
+ * archived stay in MySQL until the next run. Ids come from pooled blocks and are not ordered by insert
+ * time across instances, so no id range can stand in for the streamed rows.
+ */
+@Repository
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class TradeArchiveRepository {
+
+    private static final String OLDEST_SQL = "SELECT MIN(trade_time) FROM trade "
+            + "WHERE symbol_id = ? AND trade_time >= ? AND trade_time < ?";
+
+    private static final String TRADES_SQL = "SELECT t.id, t.trade_id, e.type AS event_type, t.event_timestamp, "
+            + "t.price, t.quantity, t.trade_time, t.is_buyer_market_maker "
+            + "FROM trade t JOIN event_type e ON e.id = t.event_type_id "
+            + "WHERE t.symbol_id = ? AND t.trade_time >= ? AND t.trade_time < ? "
+            + "ORDER BY t.trade_time, t.trade_id, t.id";
+
+    private static final String DELETE_SQL = "DELETE FROM trade WHERE (id, trade_time) IN (%s)";
+    // Two placeholders per key, well below the 65535 a prepared statement allows
+    private static final int MAX_KEYS_PER_DELETE = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public TradeArchiveRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public Long findOldestTradeTime(int symbolId, long from, long to) {
+        return jdbcTemplate.queryForObject(OLDEST_SQL, Long.class, symbolId, from, to);
+    }
+
+    public void streamTrades(int symbolId, long from, long to, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query(TRADES_SQL, handler, symbolId, from, to);
+    }
+
+    /**
+     * Deletes the trades with the given primary keys, at most {@code chunkSize} per statement.
+     */
+    public long deleteArchived(TradeKeys keys, int chunkSize) {
+        int size = Math.max(1, Math.min(chunkSize, MAX_KEYS_PER_DELETE));
+        long deleted = 0;
+        for (int start = 0; start < keys.size(); start += size) {
+            int end = Math.min(start + size, keys.size());
+            Object[] args = new Object[2 * (end - start)];
+            for (int i = start; i < end; i++) {
+                args[2 * (i - start)] = keys.ids[i];
+                args[2 * (i - start) + 1] = keys.tradeTimes[i];
+            }
+            String placeholders = String.join(", ", Collections.nCopies(end - start, "(?, ?)"));
+            deleted += jdbcTemplate.update(DELETE_SQL.formatted(placeholders), args);
+        }
+        return deleted;
+    }
+
+    /**
+     * Primary keys {@code (id, trade_time)} of streamed trades, kept in primitive arrays since a day of a
+     * busy symbol can hold millions of rows.
+     */
+    public static final class TradeKeys {
+        private long[] ids = new long[1024];
+        private long[] tradeTimes = new long[1024];
+        private int size;
+
+        public void add(long id, long tradeTime) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                tradeTimes = Arrays.copyOf(tradeTimes, size * 2);
+            }
+            ids[size] = id;
+            tradeTimes[size] = tradeTime;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+}
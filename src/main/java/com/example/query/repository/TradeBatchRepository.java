@@ -0,0 +1,80 @@
+package com.example.query.repository;
+
+import com.example.query.entity.TradeEntity;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batched upserts for the ingestion paths. The upsert is an INSERT ... SELECT, which the driver cannot
+ * fold into one multi-row INSERT, so with rewriteBatchedStatements=true on the connection URL it sends
+ * each JDBC batch as one multi-statement round trip and still reports a count per row. Rows that hit the
+ * (trade_id, trade_time) unique key overwrite the stored trade, so replayed events do not create
+ * duplicates, and a trade already stored at another trade_time or for another symbol within
+ * {@link #TRADE_TIME_WINDOW_MILLIS} is left alone instead of being stored twice or moved to another candle.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class TradeBatchRepository {
+
+    /**
+     * How far from its trade_time a stored copy of a trade is looked for. The unique key cannot span
+     * partitions without trade_time, so a replay that moves a trade further than this is not detected.
+     */
+    static final long TRADE_TIME_WINDOW_MILLIS = Duration.ofDays(1).toMillis();
+
+    // Affected rows: 1 inserted, 2 changed a stored trade, 0 left it as it was or found it at another
+    // trade_time or symbol; the NOT EXISTS range only reads the partitions around the trade
+    static final String UPSERT_SQL = "INSERT INTO trade "
+            + "(id, event_type_id, event_timestamp, symbol_id, trade_id, price, quantity, trade_time, is_buyer_market_maker, created_at) "
+            + "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ? FROM DUAL "
+            + "WHERE NOT EXISTS (SELECT 1 FROM trade stored WHERE stored.trade_id = ? "
+            + "AND stored.trade_time >= ? AND stored.trade_time < ? AND (stored.trade_time <> ? OR stored.symbol_id <> ?)) "
+            + "ON DUPLICATE KEY UPDATE event_type_id = VALUES(event_type_id), event_timestamp = VALUES(event_timestamp), "
+            + "price = VALUES(price), quantity = VALUES(quantity), "
+            + "is_buyer_market_maker = VALUES(is_buyer_market_maker)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIdGenerator entityIdGenerator;
+
+    /**
+     * Upserts the trades in order and returns the affected-row count of each, as {@link #UPSERT_SQL} reports it.
+     */
+    public int[] insertAll(List<TradeEntity> trades) {
+        long[] ids = entityIdGenerator.nextIds(TradeEntity.class, trades.size());
+        for (int i = 0; i < trades.size(); i++) {
+            trades.get(i).setId(ids[i]);
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, trades, BATCH_SIZE, TradeBatchRepository::setUpsertParameters);
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+
+    static void setUpsertParameters(PreparedStatement ps, TradeEntity trade) throws SQLException {
+        ps.setLong(1, trade.getId());
+        ps.setInt(2, trade.getEventType().getId());
+        ps.setObject(3, trade.getEventTimestamp(), Types.BIGINT);
+        ps.setInt(4, trade.getSymbol().getId());
+        ps.setObject(5, trade.getTradeId(), Types.BIGINT);
+        ps.setBigDecimal(6, trade.getPrice());
+        ps.setBigDecimal(7, trade.getQuantity());
+        ps.setObject(8, trade.getTradeTime(), Types.BIGINT);
+        ps.setObject(9, trade.getIsBuyerMarketMaker(), Types.BOOLEAN);
+        ps.setTimestamp(10, Timestamp.valueOf(trade.getCreatedAt()));
+        ps.setObject(11, trade.getTradeId(), Types.BIGINT);
+        ps.setLong(12, trade.getTradeTime() - TRADE_TIME_WINDOW_MILLIS);
+        ps.setLong(13, trade.getTradeTime() + TRADE_TIME_WINDOW_MILLIS);
+        ps.setLong(14, trade.getTradeTime());
+        ps.setInt(15, trade.getSymbol().getId());
+    }
+}
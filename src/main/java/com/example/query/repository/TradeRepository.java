@@ -2,23 +2,40 @@ package com.example.query.repository;
 
 import com.example.query.entity.SymbolEntity;
 import com.example.query.entity.TradeEntity;
+import com.example.query.model.TradeRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface TradeRepository extends JpaRepository<TradeEntity, Long> {
+public interface TradeRepository extends JpaRepository<TradeEntity, Long>, JpaSpecificationExecutor<TradeEntity> {
 
-    Page<TradeEntity> findBySymbol(SymbolEntity symbol, Pageable pageable);
+    String ROW_SELECT = "select new com.example.query.model.TradeRow(t.tradeId, e.type, t.eventTimestamp, s.name, "
+            + "t.price, t.quantity, t.tradeTime, t.isBuyerMarketMaker) "
+            + "from TradeEntity t join t.eventType e join t.symbol s ";
 
-    Optional<TradeEntity> findByTradeId(Long tradeId);
+    @Query(value = ROW_SELECT, countQuery = "select count(t) from TradeEntity t")
+    Page<TradeRow> findAllRows(Pageable pageable);
+
+    @Query(value = ROW_SELECT + "where t.symbol = :symbol",
+            countQuery = "select count(t) from TradeEntity t where t.symbol = :symbol")
+    Page<TradeRow> findRowsBySymbol(@Param("symbol") SymbolEntity symbol, Pageable pageable);
 
-    void deleteByTradeId(Long tradeId);
+    @Query(value = ROW_SELECT + "where t.symbol = :symbol and t.tradeTime >= :from and t.tradeTime < :to",
+            countQuery = "select count(t) from TradeEntity t "
+                    + "where t.symbol = :symbol and t.tradeTime >= :from and t.tradeTime < :to")
+    Page<TradeRow> findRowsBySymbolBetween(@Param("symbol") SymbolEntity symbol, @Param("from") Long from,
+                                           @Param("to") Long to, Pageable pageable);
 
-    boolean existsByTradeId(Long tradeId);
+    Optional<TradeEntity> findByTradeId(Long tradeId);
 
     Optional<TradeEntity> findFirstBySymbolOrderByCreatedAtDesc(SymbolEntity symbol);
+
+    Optional<TradeEntity> findFirstBySymbolAndTradeTimeGreaterThanEqualOrderByCreatedAtDesc(SymbolEntity symbol, Long from);
 }
@@ -0,0 +1,115 @@
+package com.example.query.repository;
+
+import com.example.query.entity.TradeEntity;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Single-statement writes keyed by tradeId, each one round trip in auto-commit mode instead of the
+ * select-then-write pairs of the JPA repository. The connection runs with useAffectedRows=true, so the
+ * counts are changed rather than matched rows: an upsert tells an insert (1) from an overwrite (2), and a
+ * write that leaves the row as it was reports 0. Only that last case needs {@link #findStoredTrades}.
+ * The trade_time and symbol of a trade never change: trade_time is part of the unique key and the
+ * partitioning column, so updates and deletes match on it to touch a single partition, and both place the
+ * trade in its candles. Deletes read the row first because the candles need to know where it was.
+ */
+@Repository
+@AllArgsConstructor
+@Timed(value = "query.repository.jdbc", histogram = true)
+public class TradeWriteRepository {
+
+    private static final String UPDATE_SQL = "UPDATE trade SET event_type_id = ?, event_timestamp = ?, "
+            + "price = ?, quantity = ?, is_buyer_market_maker = ?, created_at = ? "
+            + "WHERE trade_id = ? AND trade_time = ? AND symbol_id = ?";
+
+    private static final String LOCK_SQL = "SELECT trade_id, trade_time, symbol_id FROM trade WHERE trade_id = ? FOR UPDATE";
+    private static final String LOCK_AT_SQL = "SELECT trade_id, trade_time, symbol_id FROM trade "
+            + "WHERE trade_id = ? AND trade_time = ? FOR UPDATE";
+    private static final String DELETE_AT_SQL = "DELETE FROM trade WHERE trade_id = ? AND trade_time = ?";
+    private static final String STORED_SQL = "SELECT trade_id, trade_time, symbol_id FROM trade "
+            + "WHERE trade_id IN (%s) AND trade_time >= ? AND trade_time < ?";
+    private static final RowMapper<StoredTrade> STORED_TRADE = (rs, rowNum) ->
+            new StoredTrade(rs.getLong("trade_id"), rs.getLong("trade_time"), rs.getInt("symbol_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIdGenerator entityIdGenerator;
+
+    /**
+     * Inserts the trade or overwrites the stored one with the same tradeId and tradeTime, and returns the
+     * affected-row count: 1 for an insert, 2 when a stored trade changed, and 0 when it was already stored
+     * as given or is stored at another tradeTime.
+     */
+    public int upsert(TradeEntity trade) {
+        trade.setId(entityIdGenerator.nextId(TradeEntity.class));
+        return jdbcTemplate.update(TradeBatchRepository.UPSERT_SQL, ps -> TradeBatchRepository.setUpsertParameters(ps, trade));
+    }
+
+    /**
+     * Stored trades by trade id, for the trades stored within the upsert's trade_time window of
+     * [fromTradeTime, toTradeTime], so only the partitions around them are read. Null ids are ignored.
+     */
+    public Map<Long, StoredTrade> findStoredTrades(Collection<Long> tradeIds, long fromTradeTime, long toTradeTime) {
+        List<Object> args = tradeIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (args.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(args.size(), "?"));
+        args.add(fromTradeTime - TradeBatchRepository.TRADE_TIME_WINDOW_MILLIS);
+        args.add(toTradeTime + TradeBatchRepository.TRADE_TIME_WINDOW_MILLIS);
+        Map<Long, StoredTrade> stored = new HashMap<>();
+        jdbcTemplate.query(STORED_SQL.formatted(placeholders), STORED_TRADE, args.toArray())
+                .forEach(trade -> stored.put(trade.tradeId(), trade));
+        return stored;
+    }
+
+    /**
+     * Replaces every column but trade_time and symbol of the trade with the given tradeId, tradeTime and
+     * symbol, and returns the number of changed rows, 0 both when no trade matched and when it already held
+     * these values.
+     */
+    public int updateByTradeId(TradeEntity trade) {
+        return jdbcTemplate.update(UPDATE_SQL, ps -> {
+            ps.setInt(1, trade.getEventType().getId());
+            ps.setObject(2, trade.getEventTimestamp(), Types.BIGINT);
+            ps.setBigDecimal(3, trade.getPrice());
+            ps.setBigDecimal(4, trade.getQuantity());
+            ps.setObject(5, trade.getIsBuyerMarketMaker(), Types.BOOLEAN);
+            ps.setTimestamp(6, Timestamp.valueOf(trade.getCreatedAt()));
+            ps.setObject(7, trade.getTradeId(), Types.BIGINT);
+            ps.setObject(8, trade.getTradeTime(), Types.BIGINT);
+            ps.setInt(9, trade.getSymbol().getId());
+        });
+    }
+
+    /**
+     * Deletes the trade and returns the deleted rows. MySQL has no DELETE ... RETURNING, so the rows are
+     * read under a lock first and the caller must hold a transaction. Without a tradeTime every partition
+     * is probed.
+     */
+    public List<StoredTrade> deleteByTradeId(long tradeId, Long tradeTime) {
+        List<StoredTrade> stored = tradeTime == null
+                ? jdbcTemplate.query(LOCK_SQL, STORED_TRADE, tradeId)
+                : jdbcTemplate.query(LOCK_AT_SQL, STORED_TRADE, tradeId, tradeTime);
+        stored.forEach(trade -> jdbcTemplate.update(DELETE_AT_SQL, tradeId, trade.tradeTime()));
+        return stored;
+    }
+
+    /**
+     * Where a trade is stored: the trade_time that picks its partition and, with the symbol, its candles.
+     */
+    public record StoredTrade(long tradeId, long tradeTime, int symbolId) {
+    }
+}
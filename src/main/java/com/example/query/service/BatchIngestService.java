@@ -0,0 +1,102 @@
+package com.example.query.service;
+
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.BatchResult;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams NDJSON or JSON-array request bodies item by item and writes them in chunked transactions,
+ * so a replay of millions of items never holds more than one chunk in memory.
+ */
+@Slf4j
+@Service
+public class BatchIngestService {
+
+    private final ObjectMapper objectMapper;
+    private final TradeService tradeService;
+    private final TickerService tickerService;
+    private final int chunkSize;
+
+    public BatchIngestService(ObjectMapper objectMapper,
+                              TradeService tradeService,
+                              TickerService tickerService,
+                              @Value("${query.ingest.batch.chunk-size:1000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.tradeService = tradeService;
+        this.tickerService = tickerService;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchResult ingestTrades(InputStream body) throws IOException {
+        return ingest(body, TradeDto.class, tradeService::saveTrades);
+    }
+
+    public BatchResult ingestTickers(InputStream body) throws IOException {
+        return ingest(body, TickerDto.class, tickerService::saveTickers);
+    }
+
+    private <T> BatchResult ingest(InputStream body, Class<T> type, Function<List<T>, List<BatchItemStatus>> writer)
+            throws IOException {
+        BatchResult result = new BatchResult();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a JSON object at item " + index + " but found " + token);
+                }
+                chunk.add(objectMapper.readValue(parser, type));
+                index++;
+                if (chunk.size() == chunkSize) {
+                    flush(chunk, index - chunk.size(), writer, result);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            flush(chunk, index - chunk.size(), writer, result);
+            result.add(BatchItemStatus.rejected(index, "Malformed body, ingestion stopped: " + e.getMessage()));
+            return result;
+        }
+
+        flush(chunk, index - chunk.size(), writer, result);
+        return result;
+    }
+
+    private <T> void flush(List<T> chunk, int offset, Function<List<T>, List<BatchItemStatus>> writer, BatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            for (BatchItemStatus status : writer.apply(chunk)) {
+                status.setIndex(offset + status.getIndex());
+                result.add(status);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk chunk at offset {} failed", offset, e);
+            for (int i = 0; i < chunk.size(); i++) {
+                result.add(BatchItemStatus.failed(offset + i, e.getMessage()));
+            }
+        }
+        chunk.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.query.service;
+
+import com.example.query.model.CandleBucket;
+import com.example.query.model.CandleDto;
+import com.example.query.model.CandleInterval;
+import com.example.query.repository.CandleRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OHLCV pre-aggregation in the candle table. Every trade that is inserted, changed or deleted marks its
+ * 1s bucket; the marks are flushed periodically by recomputing those buckets from the trade table and
+ * rolling them up into the 1m and 1h buckets that contain them. Recomputing rather than adding deltas
+ * keeps the rows right whichever instance wrote the trades and however often a trade was replayed.
+ * Reads are served from the table when it is trusted for the range, otherwise not at all so the caller
+ * falls back to aggregating the trade table; the latest buckets lag by up to one flush interval.
+ */
+@Slf4j
+@Component
+public class CandleStore {
+
+    private static final List<CandleInterval> STORED = List.of(
+            CandleInterval.ONE_SECOND, CandleInterval.ONE_MINUTE, CandleInterval.ONE_HOUR);
+    // Marked buckets closer than this are recomputed as one range
+    private static final long MAX_GAP_MILLIS = CandleInterval.ONE_MINUTE.getMillis();
+
+    private final CandleRepository candleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long tableSince;
+    private final Map<Integer, NavigableSet<Long>> marked = new ConcurrentHashMap<>();
+
+    public CandleStore(CandleRepository candleRepository, TransactionTemplate transactionTemplate,
+                       @Value("${query.candles.table-since:-1}") long tableSince) {
+        this.candleRepository = candleRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tableSince = tableSince;
+    }
+
+    /**
+     * Marks the candles holding the trade time of a trade that was inserted, changed or deleted.
+     */
+    public void invalidate(Integer symbolId, Long tradeTime) {
+        if (symbolId == null || tradeTime == null) {
+            return;
+        }
+        long openTime = CandleInterval.ONE_SECOND.bucketStart(tradeTime);
+        // Marks are added and drained inside compute, so none lands in a set that is being flushed
+        marked.compute(symbolId, (id, openTimes) -> {
+            NavigableSet<Long> buckets = openTimes != null ? openTimes : new TreeSet<>();
+            buckets.add(openTime);
+            return buckets;
+        });
+    }
+
+    /**
+     * Candles in [from, to) for the given interval, or empty when the candle table is not trusted for the
+     * whole range. {@code from} must be aligned to the interval.
+     */
+    public Optional<List<CandleDto>> find(int symbolId, CandleInterval interval, long from, long to) {
+        if (tableSince < 0 || from < tableSince) {
+            return Optional.empty();
+        }
+        CandleInterval base = baseOf(interval);
+        return Optional.of(rollUp(candleRepository.findCandles(symbolId, base.getMillis(), from, to), interval));
+    }
+
+    /**
+     * Recomputes the marked buckets, one transaction per symbol. The recomputation is idempotent, so the
+     * marks of a symbol whose transaction fails are kept for the next attempt.
+     */
+    @Scheduled(initialDelayString = "${query.candles.flush-ms:5000}", fixedDelayString = "${query.candles.flush-ms:5000}")
+    public void flush() {
+        for (Integer symbolId : List.copyOf(marked.keySet())) {
+            NavigableSet<Long> openTimes = drain(symbolId);
+            if (openTimes.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> recompute(symbolId, openTimes));
+            } catch (RuntimeException e) {
+                log.warn("Failed to recompute {} candle buckets of symbol {}, keeping them for the next attempt",
+                        openTimes.size(), symbolId, e);
+                marked.merge(symbolId, openTimes, (current, failed) -> {
+                    current.addAll(failed);
+                    return current;
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private NavigableSet<Long> drain(int symbolId) {
+        NavigableSet<Long> drained = new TreeSet<>();
+        marked.computeIfPresent(symbolId, (id, openTimes) -> {
+            drained.addAll(openTimes);
+            return null;
+        });
+        return drained;
+    }
+
+    /**
+     * Recomputes the marked 1s buckets from the trades, then each longer interval from the one before it,
+     * covering every bucket that contains a marked one.
+     */
+    private void recompute(int symbolId, NavigableSet<Long> openTimes) {
+        CandleInterval source = null;
+        for (CandleInterval interval : STORED) {
+            for (long[] range : ranges(openTimes, interval)) {
+                if (source == null) {
+                    candleRepository.replaceFromTrades(symbolId, interval.getMillis(), range[0], range[1]);
+                } else {
+                    candleRepository.replaceFromCandles(symbolId, source.getMillis(), interval.getMillis(), range[0], range[1]);
+                }
+            }
+            source = interval;
+        }
+    }
+
+    /**
+     * Aligned [from, to) ranges of the buckets of the interval holding the given open times, joining
+     * buckets less than {@link #MAX_GAP_MILLIS} apart.
+     */
+    static List<long[]> ranges(NavigableSet<Long> openTimes, CandleInterval interval) {
+        List<long[]> ranges = new ArrayList<>();
+        long[] current = null;
+        for (long openTime : openTimes) {
+            long from = interval.bucketStart(openTime);
+            long to = from + interval.getMillis();
+            if (current != null && from - current[1] < MAX_GAP_MILLIS) {
+                current[1] = Math.max(current[1], to);
+            } else {
+                current = new long[]{from, to};
+                ranges.add(current);
+            }
+        }
+        return ranges;
+    }
+
+    private static CandleInterval baseOf(CandleInterval interval) {
+        CandleInterval base = CandleInterval.ONE_SECOND;
+        for (CandleInterval stored : STORED) {
+            if (interval.getMillis() % stored.getMillis() == 0 && stored.getMillis() > base.getMillis()) {
+                base = stored;
+            }
+        }
+        return base;
+    }
+
+    private static List<CandleDto> rollUp(List<CandleBucket> buckets, CandleInterval interval) {
+        TreeMap<Long, CandleBucket> candles = new TreeMap<>();
+        for (CandleBucket bucket : buckets) {
+            long openTime = interval.bucketStart(bucket.getOpenTime());
+            candles.computeIfAbsent(openTime, time -> new CandleBucket(bucket.getSymbolId(), interval.getMillis(), time))
+                    .merge(bucket);
+        }
+        return candles.values().stream().map(CandleBucket::toDto).toList();
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.query.service;
+
+import com.example.query.model.TradeDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable columnar file holding the archived trades of one symbol and UTC day, ordered by trade time.
+ * Ids and timestamps are stored as zigzag varint deltas from the previous row, prices as varint deltas of
+ * the value scaled to {@value #SCALE} decimals, quantities as scaled varints. Each column is a contiguous
+ * region of the memory-mapped file, so reads are sequential scans over only the columns they need.
+ */
+final class ColdSegment {
+
+    static final int SCALE = 8;
+
+    private static final int MAGIC = 0x54524431;
+    private static final int COLUMNS = 8;
+    private static final int ID = 0;
+    private static final int TRADE_ID = 1;
+    private static final int TRADE_TIME = 2;
+    private static final int EVENT_TIMESTAMP = 3;
+    private static final int PRICE = 4;
+    private static final int QUANTITY = 5;
+    private static final int FLAGS = 6;
+    private static final int EVENT_TYPE = 7;
+
+    private static final int BUYER_MAKER = 1;
+    private static final int BUYER_MAKER_NULL = 1 << 1;
+    private static final int EVENT_TIMESTAMP_NULL = 1 << 2;
+    private static final int PRICE_NULL = 1 << 3;
+    private static final int QUANTITY_NULL = 1 << 4;
+    private static final int TRADE_ID_NULL = 1 << 5;
+
+    private final Path path;
+    private final String symbol;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long minTradeTime;
+    private final long maxTradeTime;
+    private final long minTradeId;
+    private final long maxTradeId;
+    private final long maxId;
+    private final String[] eventTypes;
+    private final int[] offsets = new int[COLUMNS];
+
+    private ColdSegment(Path path, String symbol, MappedByteBuffer buffer) {
+        this.path = path;
+        this.symbol = symbol;
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a trade segment: " + path);
+        }
+        this.count = header.getInt();
+        this.minTradeTime = header.getLong();
+        this.maxTradeTime = header.getLong();
+        this.minTradeId = header.getLong();
+        this.maxTradeId = header.getLong();
+        this.maxId = header.getLong();
+        this.eventTypes = new String[header.get() & 0xFF];
+        for (int i = 0; i < eventTypes.length; i++) {
+            byte[] name = new byte[header.getShort()];
+            header.get(name);
+            eventTypes[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < COLUMNS; i++) {
+            offsets[i] = header.getInt();
+        }
+    }
+
+    static ColdSegment open(Path path, String symbol) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ColdSegment(path, symbol, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getMinTradeTime() {
+        return minTradeTime;
+    }
+
+    long getMaxTradeTime() {
+        return maxTradeTime;
+    }
+
+    long getMaxId() {
+        return maxId;
+    }
+
+    boolean mayContainTradeId(long tradeId) {
+        return tradeId >= minTradeId && tradeId <= maxTradeId;
+    }
+
+    /**
+     * Rows with index in [from, to), in ascending trade time order.
+     */
+    List<TradeDto> read(int from, int to) {
+        List<TradeDto> trades = new ArrayList<>(Math.max(0, to - from));
+        Cursor cursor = new Cursor();
+        for (int i = 0; i < to; i++) {
+            cursor.advance();
+            if (i >= from) {
+                trades.add(cursor.toDto());
+            }
+        }
+        return trades;
+    }
+
+    /**
+     * Index of the row with the given trade id, scanning only the trade id column, or -1.
+     */
+    int indexOfTradeId(long tradeId) {
+        if (!mayContainTradeId(tradeId)) {
+            return -1;
+        }
+        ByteBuffer ids = column(TRADE_ID);
+        ByteBuffer flags = column(FLAGS);
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value += readVarLong(ids);
+            if ((flags.get() & TRADE_ID_NULL) == 0 && value == tradeId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void forEachTradeId(LongConsumer consumer) {
+        ByteBuffer ids = column(TRADE_ID);
+        ByteBuffer flags = column(FLAGS);
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value += readVarLong(ids);
+            if ((flags.get() & TRADE_ID_NULL) == 0) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    private ByteBuffer column(int column) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offsets[column]);
+        return view;
+    }
+
+    private final class Cursor {
+        private final ByteBuffer ids = column(ID);
+        private final ByteBuffer tradeIds = column(TRADE_ID);
+        private final ByteBuffer tradeTimes = column(TRADE_TIME);
+        private final ByteBuffer eventTimestamps = column(EVENT_TIMESTAMP);
+        private final ByteBuffer prices = column(PRICE);
+        private final ByteBuffer quantities = column(QUANTITY);
+        private final ByteBuffer flagBytes = column(FLAGS);
+        private final ByteBuffer eventTypeBytes = column(EVENT_TYPE);
+        private long tradeId;
+        private long tradeTime;
+        private long eventTimestamp;
+        private long price;
+        private long quantity;
+        private int flags;
+        private int eventType;
+
+        void advance() {
+            readVarLong(ids);
+            tradeId += readVarLong(tradeIds);
+            tradeTime += readVarLong(tradeTimes);
+            eventTimestamp = tradeTime + readVarLong(eventTimestamps);
+            price += readVarLong(prices);
+            quantity = readVarLong(quantities);
+            flags = flagBytes.get();
+            eventType = eventTypeBytes.get() & 0xFF;
+        }
+
+        TradeDto toDto() {
+            TradeDto dto = new TradeDto();
+            dto.setSymbol(symbol);
+            dto.setEventType(eventTypes[eventType].isEmpty() ? null : eventTypes[eventType]);
+            dto.setTradeId((flags & TRADE_ID_NULL) == 0 ? tradeId : null);
+            dto.setTradeTime(tradeTime);
+            dto.setEventTimestamp((flags & EVENT_TIMESTAMP_NULL) == 0 ? eventTimestamp : null);
+            dto.setPrice((flags & PRICE_NULL) == 0 ? BigDecimal.valueOf(price, SCALE) : null);
+            dto.setQuantity((flags & QUANTITY_NULL) == 0 ? BigDecimal.valueOf(quantity, SCALE) : null);
+            dto.setIsBuyerMarketMaker((flags & BUYER_MAKER_NULL) == 0 ? (flags & BUYER_MAKER) != 0 : null);
+            return dto;
+        }
+    }
+
+    /**
+     * Accumulates rows in trade time order and writes them as a segment. Prices and quantities must fit
+     * a long at {@value #SCALE} decimals, otherwise {@link ArithmeticException} is thrown.
+     */
+    static final class Writer {
+        private final Column[] columns = new Column[COLUMNS];
+        private final List<String> eventTypes = new ArrayList<>();
+        private int count;
+        private long minTradeTime = Long.MAX_VALUE;
+        private long maxTradeTime = Long.MIN_VALUE;
+        private long minTradeId = Long.MAX_VALUE;
+        private long maxTradeId = Long.MIN_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        private long lastId;
+        private long lastTradeId;
+        private long lastTradeTime;
+        private long lastPrice;
+
+        Writer() {
+            Arrays.setAll(columns, i -> new Column());
+        }
+
+        void add(long id, Long tradeId, String eventType, Long eventTimestamp, BigDecimal price, BigDecimal quantity,
+                 long tradeTime, Boolean isBuyerMarketMaker) {
+            if (count > 0 && tradeTime < lastTradeTime) {
+                throw new IllegalArgumentException("Rows must be added in trade time order");
+            }
+            int flags = 0;
+            columns[ID].writeVarLong(id - lastId);
+            lastId = id;
+            maxId = Math.max(maxId, id);
+
+            if (tradeId == null) {
+                flags |= TRADE_ID_NULL;
+                columns[TRADE_ID].writeVarLong(0);
+            } else {
+                columns[TRADE_ID].writeVarLong(tradeId - lastTradeId);
+                lastTradeId = tradeId;
+                minTradeId = Math.min(minTradeId, tradeId);
+                maxTradeId = Math.max(maxTradeId, tradeId);
+            }
+
+            columns[TRADE_TIME].writeVarLong(tradeTime - lastTradeTime);
+            lastTradeTime = tradeTime;
+            minTradeTime = Math.min(minTradeTime, tradeTime);
+            maxTradeTime = Math.max(maxTradeTime, tradeTime);
+
+            if (eventTimestamp == null) {
+                flags |= EVENT_TIMESTAMP_NULL;
+            }
+            columns[EVENT_TIMESTAMP].writeVarLong(eventTimestamp == null ? 0 : eventTimestamp - tradeTime);
+
+            if (price == null) {
+                flags |= PRICE_NULL;
+                columns[PRICE].writeVarLong(0);
+            } else {
+                long scaled = scaled(price);
+                columns[PRICE].writeVarLong(scaled - lastPrice);
+                lastPrice = scaled;
+            }
+
+            if (quantity == null) {
+                flags |= QUANTITY_NULL;
+            }
+            columns[QUANTITY].writeVarLong(quantity == null ? 0 : scaled(quantity));
+
+            if (isBuyerMarketMaker == null) {
+                flags |= BUYER_MAKER_NULL;
+            } else if (isBuyerMarketMaker) {
+                flags |= BUYER_MAKER;
+            }
+            columns[FLAGS].write(flags);
+            columns[EVENT_TYPE].write(eventTypeIndex(eventType));
+            count++;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * Writes to a sibling temporary file, forces it to disk and moves it into place, so a segment is
+         * either complete or absent.
+         */
+        void writeTo(Path target) throws IOException {
+            ByteBuffer header = header();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.write(header);
+                for (Column column : columns) {
+                    channel.write(ByteBuffer.wrap(column.bytes, 0, column.size));
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private ByteBuffer header() {
+            byte[][] names = eventTypes.stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+            int size = 4 + 4 + 5 * 8 + 1 + Arrays.stream(names).mapToInt(name -> 2 + name.length).sum() + COLUMNS * 4;
+            ByteBuffer header = ByteBuffer.allocate(size);
+            header.putInt(MAGIC)
+                    .putInt(count)
+                    .putLong(minTradeTime)
+                    .putLong(maxTradeTime)
+                    .putLong(minTradeId)
+                    .putLong(maxTradeId)
+                    .putLong(maxId)
+                    .put((byte) names.length);
+            for (byte[] name : names) {
+                header.putShort((short) name.length).put(name);
+            }
+            int offset = size;
+            for (Column column : columns) {
+                header.putInt(offset);
+                offset += column.size;
+            }
+            return header.flip();
+        }
+
+        private int eventTypeIndex(String eventType) {
+            String name = eventType == null ? "" : eventType;
+            int index = eventTypes.indexOf(name);
+            if (index < 0) {
+                if (eventTypes.size() == 255) {
+                    throw new IllegalArgumentException("Too many event types in one segment");
+                }
+                eventTypes.add(name);
+                index = eventTypes.size() - 1;
+            }
+            return index;
+        }
+
+        private static long scaled(BigDecimal value) {
+            return value.setScale(SCALE).unscaledValue().longValueExact();
+        }
+    }
+
+    private static final class Column {
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        void write(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            write((int) zigzag);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
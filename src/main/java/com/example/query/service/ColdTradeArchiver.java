@@ -0,0 +1,115 @@
+package com.example.query.service;
+
+import com.example.query.entity.SymbolEntity;
+import com.example.query.repository.PartitionRepository;
+import com.example.query.repository.TradeArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Moves whole UTC days of trades older than {@code query.cold.after-days} from MySQL into cold segments,
+ * oldest day first. A day is deleted from MySQL only after its segment is on disk; if a symbol fails, its
+ * later days are left alone so the cold data of a symbol is always older than its hot rows.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "query.cold.enabled", havingValue = "true")
+public class ColdTradeArchiver {
+    private static final String LOCK_NAME = "query.cold-archive";
+    private static final Pattern SAFE_SYMBOL = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final TradeArchiveRepository tradeArchiveRepository;
+    private final PartitionRepository partitionRepository;
+    private final ColdTradeStore coldTradeStore;
+    private final SymbolService symbolService;
+    private final int afterDays;
+    private final int deleteChunkSize;
+
+    public ColdTradeArchiver(TradeArchiveRepository tradeArchiveRepository,
+                             PartitionRepository partitionRepository,
+                             ColdTradeStore coldTradeStore,
+                             SymbolService symbolService,
+                             @Value("${query.cold.after-days:30}") int afterDays,
+                             @Value("${query.cold.delete-chunk-size:10000}") int deleteChunkSize) {
+        this.tradeArchiveRepository = tradeArchiveRepository;
+        this.partitionRepository = partitionRepository;
+        this.coldTradeStore = coldTradeStore;
+        this.symbolService = symbolService;
+        this.afterDays = afterDays;
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    @Scheduled(cron = "${query.cold.cron:0 45 0 * * *}", zone = "UTC")
+    public void archive() {
+        long cutoff = startOf(LocalDate.now(ZoneOffset.UTC).minusDays(afterDays));
+        boolean ran = partitionRepository.withLock(LOCK_NAME, () -> {
+            for (SymbolEntity symbol : symbolService.getKnownSymbols()) {
+                if (!SAFE_SYMBOL.matcher(symbol.getName()).matches()) {
+                    log.warn("Not archiving symbol {}, its name is not usable as a directory", symbol.getName());
+                    continue;
+                }
+                try {
+                    archive(symbol, cutoff);
+                } catch (RuntimeException | IOException e) {
+                    log.warn("Archiving trades of {} failed, later days stay in MySQL", symbol.getName(), e);
+                }
+            }
+        });
+        if (!ran) {
+            log.info("Trade archiving is running on another instance, skipping");
+        }
+    }
+
+    private void archive(SymbolEntity symbol, long cutoff) throws IOException {
+        long from = Long.MIN_VALUE;
+        Long oldest;
+        while ((oldest = tradeArchiveRepository.findOldestTradeTime(symbol.getId(), from, cutoff)) != null) {
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(oldest), ZoneOffset.UTC);
+            long dayStart = startOf(day);
+            long dayEnd = startOf(day.plusDays(1));
+            archiveDay(symbol, day, dayStart, dayEnd);
+            from = dayEnd;
+        }
+    }
+
+    private void archiveDay(SymbolEntity symbol, LocalDate day, long from, long to) throws IOException {
+        Set<Long> archived = coldTradeStore.archivedTradeIds(symbol.getName(), day);
+        ColdSegment.Writer writer = new ColdSegment.Writer();
+        // Every streamed row is deleted afterwards, including the ones a previous run already archived
+        TradeArchiveRepository.TradeKeys streamed = new TradeArchiveRepository.TradeKeys();
+        tradeArchiveRepository.streamTrades(symbol.getId(), from, to, rs -> {
+            long id = rs.getLong("id");
+            long tradeTime = rs.getLong("trade_time");
+            streamed.add(id, tradeTime);
+            Long tradeId = rs.getObject("trade_id", Long.class);
+            if (tradeId != null && archived.contains(tradeId)) {
+                return;
+            }
+            writer.add(id, tradeId, rs.getString("event_type"), rs.getObject("event_timestamp", Long.class),
+                    rs.getBigDecimal("price"), rs.getBigDecimal("quantity"), tradeTime,
+                    rs.getObject("is_buyer_market_maker", Boolean.class));
+        });
+        if (streamed.size() == 0) {
+            return;
+        }
+        if (writer.getCount() > 0) {
+            coldTradeStore.append(symbol.getName(), day, writer);
+        }
+        long deleted = tradeArchiveRepository.deleteArchived(streamed, deleteChunkSize);
+        log.info("Archived {} trades of {} for {}, deleted {} rows", writer.getCount(), symbol.getName(), day, deleted);
+    }
+
+    private static long startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+}
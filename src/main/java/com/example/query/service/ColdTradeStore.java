@@ -0,0 +1,201 @@
+package com.example.query.service;
+
+import com.example.query.model.TradeDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Catalog of the cold trade segments on local disk, laid out as {@code <dir>/<symbol>/<yyyy-MM-dd>-<n>.seg}.
+ * Segments only hold trades older than everything left in MySQL for the same symbol, so a listing ordered
+ * by a time-correlated key is the hot rows followed by the cold ones (or the reverse when ascending).
+ * With {@code query.cold.enabled=false} the catalog stays empty and every call is a no-op.
+ * <p>
+ * Archived trades are deleted from the shared database, so every instance must see the segments: enabling
+ * cold storage requires {@code query.cold.storage}, either {@link Storage#SHARED} for a directory mounted on
+ * every instance or {@link Storage#SINGLE_INSTANCE} for a deployment of one instance.
+ */
+@Slf4j
+@Component
+public class ColdTradeStore {
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final Comparator<ColdSegment> BY_TIME = Comparator.comparingLong(ColdSegment::getMinTradeTime)
+            .thenComparing(ColdSegment::getPath);
+
+    private final Path directory;
+    private final boolean enabled;
+    private final Map<String, List<ColdSegment>> segments = new ConcurrentHashMap<>();
+
+    public ColdTradeStore(@Value("${query.cold.enabled:false}") boolean enabled,
+                          @Value("${query.cold.directory:data/cold}") Path directory,
+                          @Value("${query.cold.storage:#{null}}") Storage storage) {
+        if (enabled && storage == null) {
+            throw new IllegalStateException("query.cold.enabled requires query.cold.storage: SHARED when "
+                    + directory + " is mounted on every instance, SINGLE_INSTANCE when only one instance runs");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        if (enabled) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long count(String symbol) {
+        return segmentsOf(symbol).stream().mapToLong(ColdSegment::getCount).sum();
+    }
+
+    /**
+     * Up to {@code limit} cold trades of the symbol starting at {@code offset}, in trade time order.
+     * Whole segments before the offset are skipped from their header counts without being read.
+     */
+    public List<TradeDto> read(String symbol, long offset, int limit, boolean ascending) {
+        List<ColdSegment> ordered = new ArrayList<>(segmentsOf(symbol));
+        if (!ascending) {
+            Collections.reverse(ordered);
+        }
+        List<TradeDto> trades = new ArrayList<>(Math.max(0, limit));
+        long skip = offset;
+        for (ColdSegment segment : ordered) {
+            if (trades.size() >= limit) {
+                break;
+            }
+            if (skip >= segment.getCount()) {
+                skip -= segment.getCount();
+                continue;
+            }
+            int take = (int) Math.min(limit - trades.size(), segment.getCount() - skip);
+            if (ascending) {
+                trades.addAll(segment.read((int) skip, (int) skip + take));
+            } else {
+                int end = segment.getCount() - (int) skip;
+                List<TradeDto> rows = segment.read(end - take, end);
+                Collections.reverse(rows);
+                trades.addAll(rows);
+            }
+            skip = 0;
+        }
+        return trades;
+    }
+
+    public Optional<TradeDto> findByTradeId(long tradeId) {
+        for (List<ColdSegment> symbolSegments : segments.values()) {
+            for (ColdSegment segment : symbolSegments) {
+                int index = segment.indexOfTradeId(tradeId);
+                if (index >= 0) {
+                    return Optional.of(segment.read(index, index + 1).get(0));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Picks up segments written by the archiving instance when the directory is shared.
+     */
+    @Scheduled(fixedDelayString = "${query.cold.rescan-ms:60000}")
+    public void rescan() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Trade ids already archived for the symbol and day, so a day that is archived again after a crash or
+     * a late insert does not duplicate rows.
+     */
+    Set<Long> archivedTradeIds(String symbol, LocalDate day) {
+        Set<Long> tradeIds = new HashSet<>();
+        String prefix = day + "-";
+        segmentsOf(symbol).stream()
+                .filter(segment -> segment.getPath().getFileName().toString().startsWith(prefix))
+                .forEach(segment -> segment.forEachTradeId(tradeIds::add));
+        return tradeIds;
+    }
+
+    /**
+     * Writes the segment under the next free sequence number for the day and adds it to the catalog.
+     */
+    synchronized void append(String symbol, LocalDate day, ColdSegment.Writer writer) throws IOException {
+        Path symbolDirectory = Files.createDirectories(directory.resolve(symbol));
+        int sequence = 0;
+        Path target;
+        do {
+            target = symbolDirectory.resolve(day + "-" + sequence++ + SEGMENT_SUFFIX);
+        } while (Files.exists(target));
+        writer.writeTo(target);
+        add(symbol, ColdSegment.open(target, symbol));
+    }
+
+    private List<ColdSegment> segmentsOf(String symbol) {
+        return segments.getOrDefault(symbol, List.of());
+    }
+
+    private void add(String symbol, ColdSegment segment) {
+        segments.compute(symbol, (key, current) -> {
+            List<ColdSegment> updated = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            updated.add(segment);
+            updated.sort(BY_TIME);
+            return List.copyOf(updated);
+        });
+    }
+
+    private synchronized void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Set<Path> known = new HashSet<>();
+        segments.values().forEach(symbolSegments -> symbolSegments.forEach(segment -> known.add(segment.getPath())));
+        int loaded = 0;
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(SEGMENT_SUFFIX) && !known.contains(file)) {
+                    String symbol = file.getParent().getFileName().toString();
+                    add(symbol, ColdSegment.open(file, symbol));
+                    loaded++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (loaded > 0) {
+            log.info("Loaded {} cold trade segments from {}", loaded, directory);
+        }
+    }
+
+    /**
+     * Where the segment directory lives relative to the instances serving reads.
+     */
+    public enum Storage {
+        /**
+         * The directory is shared storage mounted on every instance; the others pick up new segments on rescan.
+         */
+        SHARED,
+        /**
+         * Only one instance runs, so its local disk is the only one that has to hold the segments.
+         */
+        SINGLE_INSTANCE
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.query.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-mostly name to entity dictionary with a reverse id to name index.
+ * Lookups are served from memory; misses fall through to the loader and are remembered.
+ */
+public class DictionaryCache<E> {
+
+    private final Function<E, String> nameFn;
+    private final Function<E, Integer> idFn;
+    private final Map<String, E> byName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> nameById = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DictionaryCache(Function<E, String> nameOf, Function<E, Integer> idOf) {
+        this.nameFn = nameOf;
+        this.idFn = idOf;
+    }
+
+    public Optional<E> get(String name, Function<String, Optional<E>> loader) {
+        E cached = byName.get(name);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<E> loaded = loader.apply(name);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Map<String, E> getAll(Collection<String> names, Function<Collection<String>, Collection<E>> bulkLoader) {
+        Map<String, E> found = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String name : names) {
+            E cached = name == null ? null : byName.get(name);
+            if (cached != null) {
+                found.put(name, cached);
+            } else if (name != null) {
+                missing.add(name);
+            }
+        }
+        hits.add(found.size());
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            for (E loaded : bulkLoader.apply(missing)) {
+                put(loaded);
+                found.put(nameFn.apply(loaded), loaded);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Whether the name is cached, without loading it.
+     */
+    public boolean contains(String name) {
+        return name != null && byName.containsKey(name);
+    }
+
+    public Optional<String> nameOf(Integer id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(nameById.get(id));
+    }
+
+    public Collection<E> values() {
+        return byName.values();
+    }
+
+    public void refresh(Supplier<Collection<E>> loader) {
+        Collection<E> entries = loader.get();
+        Set<String> names = new HashSet<>();
+        Set<Integer> ids = new HashSet<>();
+        for (E entry : entries) {
+            put(entry);
+            names.add(nameFn.apply(entry));
+            ids.add(idFn.apply(entry));
+        }
+        byName.keySet().retainAll(names);
+        nameById.keySet().retainAll(ids);
+    }
+
+    public void invalidate(String name) {
+        E removed = byName.remove(name);
+        if (removed != null) {
+            nameById.remove(idFn.apply(removed));
+        }
+    }
+
+    public void invalidateAll() {
+        byName.clear();
+        nameById.clear();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    private void put(E entry) {
+        byName.put(nameFn.apply(entry), entry);
+        nameById.put(idFn.apply(entry), nameFn.apply(entry));
+    }
+}
@@ -3,16 +3,63 @@ package com.example.query.service;
 import com.example.query.entity.EventTypeEntity;
 import com.example.query.repository.EventTypeRepository;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
 @Service
 @AllArgsConstructor
 public class EventTypeService {
 
     private final EventTypeRepository eventTypeRepository;
+    private final DictionaryCache<EventTypeEntity> eventTypes = new DictionaryCache<>(EventTypeEntity::getType, EventTypeEntity::getId);
 
     EventTypeEntity findEventType(String eventType) {
-        return eventTypeRepository.findByType(eventType)
+        if (eventType == null) {
+            throw new IllegalArgumentException("Invalid event type: null");
+        }
+        return eventTypes.get(eventType, eventTypeRepository::findByType)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid event type: " + eventType));
     }
+
+    Map<String, EventTypeEntity> findEventTypes(Collection<String> types) {
+        return eventTypes.getAll(types, eventTypeRepository::findByTypeIn);
+    }
+
+    public Optional<String> findEventTypeName(Integer eventTypeId) {
+        return eventTypes.nameOf(eventTypeId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(initialDelayString = "${query.cache.dictionary.refresh-ms:300000}",
+            fixedDelayString = "${query.cache.dictionary.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            eventTypes.refresh(eventTypeRepository::findAll);
+        } catch (RuntimeException e) {
+            log.warn("Event type dictionary refresh failed, keeping {} cached entries", eventTypes.size(), e);
+        }
+    }
+
+    public void invalidate(String eventType) {
+        eventTypes.invalidate(eventType);
+    }
+
+    public void invalidateAll() {
+        eventTypes.invalidateAll();
+    }
+
+    public DictionaryCache<EventTypeEntity> getCache() {
+        return eventTypes;
+    }
 }
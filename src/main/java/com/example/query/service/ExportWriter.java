@@ -0,0 +1,147 @@
+package com.example.query.service;
+
+import com.example.query.model.ExportFormat;
+import com.example.query.model.PlainDecimalSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Writes each row of a streamed result set straight to the response, using the column labels as
+ * field names. Nothing is buffered beyond the writer's own output buffer.
+ */
+abstract class ExportWriter implements RowCallbackHandler {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private String[] columns;
+
+    static ExportWriter create(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(JSON_FACTORY.createGenerator(out));
+            case CSV -> new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        };
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        try {
+            if (columns == null) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                columns = new String[metaData.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = metaData.getColumnLabel(i + 1);
+                }
+                writeHeader(columns);
+            }
+            writeRow(columns, rs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    abstract void writeHeader(String[] columns) throws IOException;
+
+    abstract void writeRow(String[] columns, ResultSet rs) throws IOException, SQLException;
+
+    abstract void finish() throws IOException;
+
+    private static final class NdjsonWriter extends ExportWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(JsonGenerator generator) {
+            this.generator = generator;
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        void writeHeader(String[] columns) {
+        }
+
+        @Override
+        void writeRow(String[] columns, ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeString(PlainDecimalSerializer.format(decimal));
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.writeRaw('\n');
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter extends ExportWriter {
+        private final Writer writer;
+
+        private CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void writeHeader(String[] columns) throws IOException {
+            writeLine(columns);
+        }
+
+        @Override
+        void writeRow(String[] columns, ResultSet rs) throws IOException, SQLException {
+            String[] values = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                values[i] = value == null ? ""
+                        : value instanceof BigDecimal decimal ? PlainDecimalSerializer.format(decimal) : value.toString();
+            }
+            writeLine(values);
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.close();
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
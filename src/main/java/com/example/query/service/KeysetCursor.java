@@ -0,0 +1,151 @@
+package com.example.query.service;
+
+import com.example.query.model.CursorPage;
+import com.example.query.repository.SparseQueryRepository.KeyedRow;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset pagination. The token carries the sort property, the
+ * direction and the (sort key, id) pair of the last row returned, so the next slice is a range
+ * seek on the index instead of an OFFSET scan. It also names the listing it was issued for
+ * (e.g. a symbol) and is rejected by any other listing. Rows whose sort key is null cannot be
+ * positioned by a keyset and are left out of keyset listings.
+ */
+final class KeysetCursor {
+
+    private static final String ID = "id";
+
+    private final String listing;
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Map<String, Object> keys;
+
+    private KeysetCursor(String listing, String sortBy, Sort.Direction direction, Map<String, Object> keys) {
+        this.listing = listing;
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.keys = keys;
+    }
+
+    /**
+     * Starts a new listing when {@code token} is blank, otherwise resumes the listing the token was issued for.
+     * {@code listing} identifies the filter, so a token issued for one symbol cannot be replayed on another.
+     */
+    static KeysetCursor of(String token, String listing, String sortBy, String sortDirection, Set<String> sortableKeys) {
+        if (token == null || token.isBlank()) {
+            if (!sortableKeys.contains(sortBy)) {
+                throw new IllegalArgumentException("Cursor pagination is not supported for sortBy=" + sortBy
+                        + ", use one of " + sortableKeys);
+            }
+            Sort.Direction direction = sortDirection.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+            return new KeysetCursor(listing, sortBy, direction, Map.of());
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 5);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (parts.length != 5 || !sortableKeys.contains(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (!parts[4].equals(listing)) {
+            throw new IllegalArgumentException("Cursor was issued for a different listing: " + token);
+        }
+        try {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(parts[0], Long.valueOf(parts[2]));
+            keys.put(ID, Long.valueOf(parts[3]));
+            return new KeysetCursor(listing, parts[0], Sort.Direction.valueOf(parts[1]), keys);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Narrows {@code filter} to the rows a keyset can position, those with a non-null sort key.
+     */
+    <T> Specification<T> restrict(Specification<T> filter) {
+        if (ID.equals(sortBy)) {
+            return filter;
+        }
+        return filter.and((root, query, cb) -> cb.isNotNull(root.get(sortBy)));
+    }
+
+    /**
+     * Narrows {@code filter} like {@link #restrict} and to the rows after the resumed position, for listings
+     * that seek with their own query instead of a {@link ScrollPosition}.
+     */
+    <T> Specification<T> seek(Specification<T> filter) {
+        Specification<T> restricted = restrict(filter);
+        if (keys.isEmpty()) {
+            return restricted;
+        }
+        return restricted.and((root, query, cb) -> {
+            Predicate afterId = after(cb, root.get(ID), (Long) keys.get(ID));
+            if (ID.equals(sortBy)) {
+                return afterId;
+            }
+            Path<Long> sortKey = root.get(sortBy);
+            Long last = (Long) keys.get(sortBy);
+            return cb.or(after(cb, sortKey, last), cb.and(cb.equal(sortKey, last), afterId));
+        });
+    }
+
+    /**
+     * Attributes whose values on the last row position the next slice, in token order.
+     */
+    List<String> keyAttributes() {
+        return ID.equals(sortBy) ? List.of(ID) : List.of(sortBy, ID);
+    }
+
+    /**
+     * The slice of a {@link #seek} listing fetched with one row more than {@code size}, the extra row only
+     * telling whether another slice follows.
+     */
+    CursorPage<Map<String, Object>> slice(List<KeyedRow> rows, int size) {
+        boolean hasNext = rows.size() > size && size > 0;
+        List<KeyedRow> content = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? token(content.get(size - 1).keys()) : null;
+        return new CursorPage<>(content.stream().map(KeyedRow::fields).toList(), size, hasNext, next);
+    }
+
+    Sort sort() {
+        return ID.equals(sortBy) ? Sort.by(direction, ID) : Sort.by(direction, sortBy, ID);
+    }
+
+    ScrollPosition position() {
+        return keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(keys);
+    }
+
+    String next(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        return token(((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys());
+    }
+
+    private String token(Map<String, ?> last) {
+        String raw = sortBy + ":" + direction.name() + ":" + last.get(sortBy) + ":" + last.get(ID) + ":" + listing;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Predicate after(CriteriaBuilder cb, Path<Long> key, Long last) {
+        return direction.isAscending() ? cb.greaterThan(key, last) : cb.lessThan(key, last);
+    }
+}
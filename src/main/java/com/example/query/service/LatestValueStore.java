@@ -0,0 +1,130 @@
+package com.example.query.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Per-symbol "last value" snapshot kept current by the write paths.
+ * A missing entry is loaded once from the database and then served from memory. Entries expire after
+ * {@code maxAge}, so writes handled by other instances show up within that window.
+ */
+public class LatestValueStore<V> {
+
+    private final Map<String, Entry<V>> latest = new ConcurrentHashMap<>();
+    private final long maxAgeNanos;
+    private final LongSupplier clock;
+    // Bumped by every eviction; a load that overlapped one may have read the evicted value and is not cached
+    private final AtomicLong evictions = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LatestValueStore(Duration maxAge) {
+        this(maxAge, System::nanoTime);
+    }
+
+    LatestValueStore(Duration maxAge, LongSupplier clock) {
+        this.maxAgeNanos = maxAge.toNanos();
+        this.clock = clock;
+    }
+
+    public Optional<V> get(String symbol, Function<String, Optional<V>> loader) {
+        long now = clock.getAsLong();
+        Entry<V> cached = latest.get(symbol);
+        if (isFresh(cached, now)) {
+            hits.increment();
+            return Optional.of(cached.value());
+        }
+        misses.increment();
+        long generation = evictions.get();
+        return loader.apply(symbol).map(value -> store(symbol, value, now, generation));
+    }
+
+    /**
+     * Values for the given symbols; the misses are loaded together with one call to the bulk loader.
+     * Symbols without a value are absent from the result.
+     */
+    public Map<String, V> getAll(Collection<String> symbols, Function<Collection<String>, Map<String, V>> bulkLoader) {
+        long now = clock.getAsLong();
+        Map<String, V> found = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String symbol : symbols) {
+            Entry<V> cached = latest.get(symbol);
+            if (isFresh(cached, now)) {
+                found.put(symbol, cached.value());
+            } else {
+                missing.add(symbol);
+            }
+        }
+        hits.add(found.size());
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            long generation = evictions.get();
+            bulkLoader.apply(missing).forEach((symbol, value) -> found.put(symbol, store(symbol, value, now, generation)));
+        }
+        return found;
+    }
+
+    public void put(String symbol, V value) {
+        latest.put(symbol, new Entry<>(value, clock.getAsLong()));
+    }
+
+    public void evict(String symbol) {
+        evictions.incrementAndGet();
+        latest.remove(symbol);
+    }
+
+    public void evictIf(Predicate<V> predicate) {
+        evictions.incrementAndGet();
+        latest.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public void clear() {
+        evictions.incrementAndGet();
+        latest.clear();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return latest.size();
+    }
+
+    /**
+     * Caches a loaded value unless a fresher one was put while it loaded, in which case that one is returned,
+     * or an eviction happened meanwhile, in which case the value is returned without being cached.
+     */
+    private V store(String symbol, V value, long loadedAt, long generation) {
+        Entry<V> loaded = new Entry<>(value, loadedAt);
+        Entry<V> current = latest.compute(symbol, (key, existing) -> {
+            if (isFresh(existing, clock.getAsLong())) {
+                return existing;
+            }
+            return evictions.get() == generation ? loaded : null;
+        });
+        return current != null ? current.value() : value;
+    }
+
+    private boolean isFresh(Entry<V> entry, long now) {
+        return entry != null && now - entry.storedAt() < maxAgeNanos;
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+}
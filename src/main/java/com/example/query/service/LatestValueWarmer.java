@@ -0,0 +1,31 @@
+package com.example.query.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "query.cache.latest.warm-on-startup", havingValue = "true", matchIfMissing = true)
+public class LatestValueWarmer {
+
+    private final TradeService tradeService;
+    private final TickerService tickerService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warm() {
+        try {
+            tradeService.rebuildLatestTrades();
+            tickerService.rebuildLatestTickers();
+        } catch (RuntimeException e) {
+            log.warn("Latest value warm-up failed, entries will be loaded on first read", e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.query.service;
+
+import com.example.query.model.StreamEventType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-symbol fan-out of saved trades and tickers to Server-Sent Events subscribers. Publishing only
+ * enqueues; each subscriber has a bounded queue drained on a shared executor, so a slow client never
+ * blocks the write path. A full queue drops its oldest event, and a subscriber that keeps overflowing
+ * is disconnected. With virtual threads enabled every drain gets its own virtual thread, so a client
+ * blocked on a full socket no longer holds a pooled thread.
+ */
+@Slf4j
+@Component
+public class LiveStreamHub {
+
+    private final SymbolService symbolService;
+    private final int queueCapacity;
+    private final int maxOverflow;
+    private final long timeoutMillis;
+    private final ExecutorService drainExecutor;
+    private final Map<String, Set<Subscriber>> subscribersBySymbol = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder slowDisconnects = new LongAdder();
+
+    @Autowired
+    public LiveStreamHub(SymbolService symbolService,
+                         @Value("${query.stream.queue-capacity:256}") int queueCapacity,
+                         @Value("${query.stream.max-overflow:1024}") int maxOverflow,
+                         @Value("${query.stream.timeout:PT1H}") Duration timeout,
+                         @Value("${query.stream.drain-threads:8}") int drainThreads,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(symbolService, queueCapacity, maxOverflow, timeout, virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("live-stream-", 0).factory())
+                : Executors.newFixedThreadPool(drainThreads, new CustomizableThreadFactory("live-stream-")));
+    }
+
+    LiveStreamHub(SymbolService symbolService, int queueCapacity, int maxOverflow, Duration timeout,
+                  ExecutorService drainExecutor) {
+        this.symbolService = symbolService;
+        this.queueCapacity = queueCapacity;
+        this.maxOverflow = maxOverflow;
+        this.timeoutMillis = timeout.toMillis();
+        this.drainExecutor = drainExecutor;
+    }
+
+    public SseEmitter subscribe(Collection<String> symbols, Set<StreamEventType> types) {
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        Set<String> names = new LinkedHashSet<>();
+        symbols.forEach(symbol -> names.add(symbolService.findSymbolByName(symbol).getName()));
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, names, types);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        // Added inside compute, so a concurrent unsubscribe cannot drop the set between lookup and add
+        names.forEach(name -> subscribersBySymbol.compute(name, (key, current) -> {
+            Set<Subscriber> targets = current == null ? ConcurrentHashMap.newKeySet() : current;
+            targets.add(subscriber);
+            return targets;
+        }));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(String symbol) {
+        return symbol != null && subscribersBySymbol.containsKey(symbol);
+    }
+
+    public void publish(StreamEventType type, String symbol, Object payload) {
+        Set<Subscriber> targets = symbol == null ? null : subscribersBySymbol.get(symbol);
+        if (targets == null) {
+            return;
+        }
+        published.increment();
+        LiveEvent event = new LiveEvent(type, payload);
+        for (Subscriber subscriber : targets) {
+            if (subscriber.types.contains(type)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${query.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(LiveEvent.HEARTBEAT));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSlowDisconnectCount() {
+        return slowDisconnects.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        drainExecutor.shutdownNow();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            subscriber.symbols.forEach(name -> subscribersBySymbol.computeIfPresent(name, (key, current) -> {
+                current.remove(subscriber);
+                return current.isEmpty() ? null : current;
+            }));
+        }
+    }
+
+    private record LiveEvent(StreamEventType type, Object payload) {
+        static final LiveEvent HEARTBEAT = new LiveEvent(null, null);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        private final Set<StreamEventType> types;
+        private final BlockingQueue<LiveEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger overflow = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<String> symbols, Set<StreamEventType> types) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+            this.types = types;
+        }
+
+        private void offer(LiveEvent event) {
+            if (closed) {
+                return;
+            }
+            while (!queue.offer(event)) {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+                if (overflow.incrementAndGet() > maxOverflow) {
+                    slowDisconnects.increment();
+                    unsubscribe(this);
+                    emitter.complete();
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    drainExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                LiveEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    if (event == LiveEvent.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .name(event.type().getEventName())
+                                .data(event.payload(), MediaType.APPLICATION_JSON));
+                        delivered.increment();
+                    }
+                }
+                overflow.set(0);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping live stream subscriber: {}", e.getMessage());
+                unsubscribe(this);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.query.service;
+
+import com.example.query.configuration.PartitionProperties;
+import com.example.query.configuration.PartitionProperties.Granularity;
+import com.example.query.configuration.PartitionProperties.TablePolicy;
+import com.example.query.repository.PartitionRepository;
+import com.example.query.repository.PartitionRepository.Partition;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps empty partitions ahead of the current day or month and drops the ones past retention, so the
+ * trade and ticker tables stay bounded and old data goes with a metadata operation instead of DELETEs.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@EnableConfigurationProperties(PartitionProperties.class)
+@ConditionalOnProperty(name = "query.partitions.enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+    private static final Set<String> PARTITIONED_TABLES = Set.of("trade", "ticker");
+    private static final String LOCK_NAME = "query.partition-maintenance";
+    private static final DateTimeFormatter DAY_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final PartitionRepository partitionRepository;
+    private final PartitionProperties partitionProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${query.partitions.cron:0 15 0 * * *}", zone = "UTC")
+    public void maintain() {
+        boolean ran = partitionRepository.withLock(LOCK_NAME, () -> {
+            for (Map.Entry<String, TablePolicy> table : partitionProperties.getTables().entrySet()) {
+                try {
+                    maintain(table.getKey(), table.getValue(), Instant.now());
+                } catch (RuntimeException e) {
+                    log.warn("Partition maintenance failed for {}", table.getKey(), e);
+                }
+            }
+        });
+        if (!ran) {
+            log.info("Partition maintenance is running on another instance, skipping");
+        }
+    }
+
+    void maintain(String table, TablePolicy policy, Instant now) {
+        if (!PARTITIONED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unsupported partitioned table " + table);
+        }
+        List<Partition> partitions = partitionRepository.findPartitions(table);
+        if (partitions.stream().noneMatch(partition -> PartitionRepository.FUTURE_PARTITION.equals(partition.name()))) {
+            log.warn("Table {} has no {} partition, apply db/004_time_partitions.sql first", table,
+                    PartitionRepository.FUTURE_PARTITION);
+            return;
+        }
+
+        List<Partition> added = plan(partitions, policy, now);
+        if (!added.isEmpty()) {
+            partitionRepository.addBefore(table, added);
+            log.info("Added partitions {} to {}", added.stream().map(Partition::name).toList(), table);
+        }
+
+        if (policy.getRetention() != null) {
+            long cutoff = now.minus(policy.getRetention()).toEpochMilli();
+            List<String> expired = partitions.stream()
+                    .filter(partition -> partition.upperBound() != null && partition.upperBound() <= cutoff)
+                    .map(Partition::name)
+                    .toList();
+            if (!expired.isEmpty()) {
+                partitionRepository.drop(table, expired);
+                log.info("Dropped partitions {} from {}", expired, table);
+            }
+        }
+    }
+
+    private static List<Partition> plan(List<Partition> partitions, TablePolicy policy, Instant now) {
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        LocalDate target = next(periodStart(today, policy.getGranularity()), policy.getGranularity(), policy.getAhead() + 1);
+        long highest = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(epochMillis(periodStart(today, policy.getGranularity())));
+
+        List<Partition> added = new ArrayList<>();
+        LocalDate start = periodStart(LocalDate.ofInstant(Instant.ofEpochMilli(highest), ZoneOffset.UTC), policy.getGranularity());
+        while (start.isBefore(target)) {
+            LocalDate end = next(start, policy.getGranularity(), 1);
+            if (epochMillis(end) > highest) {
+                String name = (policy.getGranularity() == Granularity.DAY ? DAY_NAME : MONTH_NAME).format(start);
+                added.add(new Partition(name, epochMillis(end)));
+            }
+            start = end;
+        }
+        return added;
+    }
+
+    private static LocalDate periodStart(LocalDate date, Granularity granularity) {
+        return granularity == Granularity.DAY ? date : date.withDayOfMonth(1);
+    }
+
+    private static LocalDate next(LocalDate start, Granularity granularity, int periods) {
+        return granularity == Granularity.DAY ? start.plusDays(periods) : start.plusMonths(periods);
+    }
+
+    private static long epochMillis(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.query.service;
+
+import com.example.query.exception.TickerNotFoundException;
+import com.example.query.exception.TradeNotFoundException;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.example.query.repository.ReactiveQueryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnProperty(name = "query.reactive.enabled", havingValue = "true")
+public class ReactiveQueryService {
+
+    private final ReactiveQueryRepository reactiveQueryRepository;
+    private final int maxLimit;
+
+    public ReactiveQueryService(ReactiveQueryRepository reactiveQueryRepository,
+                                @Value("${query.reactive.max-limit:10000}") int maxLimit) {
+        this.reactiveQueryRepository = reactiveQueryRepository;
+        this.maxLimit = maxLimit;
+    }
+
+    public Flux<TradeDto> getTradesBySymbol(String symbol, long from, long to, int limit) {
+        checkLimit(limit);
+        return reactiveQueryRepository.findTrades(symbol, from, to, limit);
+    }
+
+    public Mono<TradeDto> getLatestTradeBySymbol(String symbol) {
+        return reactiveQueryRepository.findLatestTrade(symbol)
+                .switchIfEmpty(Mono.error(() -> new TradeNotFoundException("No trades found for symbol " + symbol)));
+    }
+
+    public Flux<TickerDto> getTickersBySymbol(String symbol, long from, long to, int limit) {
+        checkLimit(limit);
+        return reactiveQueryRepository.findTickers(symbol, from, to, limit);
+    }
+
+    public Mono<TickerDto> getLatestTickerBySymbol(String symbol) {
+        return reactiveQueryRepository.findLatestTicker(symbol)
+                .switchIfEmpty(Mono.error(() -> new TickerNotFoundException("No tickers found for symbol " + symbol)));
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+    }
+}
@@ -3,16 +3,71 @@ package com.example.query.service;
 import com.example.query.entity.SymbolEntity;
 import com.example.query.repository.SymbolRepository;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
 @Service
 @AllArgsConstructor
 public class SymbolService {
 
     private final SymbolRepository symbolRepository;
+    private final DictionaryCache<SymbolEntity> symbols = new DictionaryCache<>(SymbolEntity::getName, SymbolEntity::getId);
 
     public SymbolEntity findSymbolByName(String symbol) {
-        return symbolRepository.findByName(symbol)
+        if (symbol == null) {
+            throw new IllegalArgumentException("Invalid symbol: null");
+        }
+        return symbols.get(symbol, symbolRepository::findByName)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid symbol: " + symbol));
     }
+
+    public Map<String, SymbolEntity> findSymbolsByName(Collection<String> names) {
+        return symbols.getAll(names, symbolRepository::findByNameIn);
+    }
+
+    public Optional<String> findSymbolName(Integer symbolId) {
+        return symbols.nameOf(symbolId);
+    }
+
+    public boolean isKnownSymbol(String symbol) {
+        return symbols.contains(symbol);
+    }
+
+    public Collection<SymbolEntity> getKnownSymbols() {
+        return symbols.values();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(initialDelayString = "${query.cache.dictionary.refresh-ms:300000}",
+            fixedDelayString = "${query.cache.dictionary.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            symbols.refresh(symbolRepository::findAll);
+        } catch (RuntimeException e) {
+            log.warn("Symbol dictionary refresh failed, keeping {} cached entries", symbols.size(), e);
+        }
+    }
+
+    public void invalidate(String symbol) {
+        symbols.invalidate(symbol);
+    }
+
+    public void invalidateAll() {
+        symbols.invalidateAll();
+    }
+
+    public DictionaryCache<SymbolEntity> getCache() {
+        return symbols;
+    }
 }
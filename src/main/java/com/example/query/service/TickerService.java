@@ -5,26 +5,71 @@ import com.example.query.entity.SymbolEntity;
 import com.example.query.entity.TickerEntity;
 import com.example.query.exception.TickerNotFoundException;
 import com.example.query.mapper.PayloadMapper;
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.CursorPage;
+import com.example.query.model.ExportFormat;
+import com.example.query.model.SparseFields;
+import com.example.query.model.StreamEventType;
 import com.example.query.model.TickerDto;
+import com.example.query.model.TickerRow;
 import com.example.query.repository.EventTypeRepository;
+import com.example.query.repository.ExportRepository;
+import com.example.query.repository.LatestValueRepository;
+import com.example.query.repository.SparseQueryRepository;
 import com.example.query.repository.SymbolRepository;
+import com.example.query.repository.TickerBatchRepository;
 import com.example.query.repository.TickerRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
+@Timed(value = "query.service", histogram = true)
 public class TickerService {
+    private static final String ALL_SYMBOLS = "*";
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "eventTimestamp", "statisticsCloseTime", "lastTradeId");
+    private static final String EVENT_TIMESTAMP_REQUIRED = "eventTimestamp is required";
+    private static final long LATEST_LOOKBACK_MILLIS = Duration.ofDays(1).toMillis();
+    private static final int MAX_LATEST_SYMBOLS = 500;
+
     private final TickerRepository tickerRepository;
+    private final TickerBatchRepository tickerBatchRepository;
+    private final ExportRepository exportRepository;
+    private final LatestValueRepository latestValueRepository;
+    private final SparseQueryRepository sparseQueryRepository;
     private final SymbolService symbolService;
     private final EventTypeService eventTypeService;
     private final PayloadMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final LiveStreamHub liveStreamHub;
+    private final LatestValueStore<TickerDto> latestTickers;
 
     public TickerDto saveTicker(TickerDto dto) {
+        requireEventTimestamp(dto);
         SymbolEntity symbol = symbolService.findSymbolByName(dto.getSymbol());
         EventTypeEntity eventType = eventTypeService.findEventType(dto.getEventType());
 
@@ -33,15 +78,72 @@ public class TickerService {
         ticker.setEventType(eventType);
 
         ticker = tickerRepository.save(ticker);
-        return mapper.toTickerDto(ticker);
+        TickerDto saved = mapper.toTickerDto(ticker);
+        latestTickers.put(saved.getSymbol(), saved);
+        liveStreamHub.publish(StreamEventType.TICKER, saved.getSymbol(), saved);
+        return saved;
+    }
+
+    /**
+     * Inserts a batch of tickers in one transaction, see {@link TradeService#saveTrades(List)}.
+     * Generated ticker ids are not read back, so the latest snapshot of each touched symbol is reloaded lazily.
+     */
+    public List<BatchItemStatus> saveTickers(List<TickerDto> dtos) {
+        Map<String, SymbolEntity> symbols = symbolService.findSymbolsByName(
+                dtos.stream().map(TickerDto::getSymbol).filter(Objects::nonNull).collect(Collectors.toSet()));
+        Map<String, EventTypeEntity> eventTypes = eventTypeService.findEventTypes(
+                dtos.stream().map(TickerDto::getEventType).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        BatchItemStatus[] statuses = new BatchItemStatus[dtos.size()];
+        List<TickerEntity> accepted = new ArrayList<>(dtos.size());
+        Set<String> touchedSymbols = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            TickerDto dto = dtos.get(i);
+            SymbolEntity symbol = symbols.get(dto.getSymbol());
+            EventTypeEntity eventType = eventTypes.get(dto.getEventType());
+            if (symbol == null) {
+                statuses[i] = BatchItemStatus.rejected(i, "Invalid symbol: " + dto.getSymbol());
+            } else if (eventType == null) {
+                statuses[i] = BatchItemStatus.rejected(i, "Invalid event type: " + dto.getEventType());
+            } else if (dto.getEventTimestamp() == null) {
+                statuses[i] = BatchItemStatus.rejected(i, EVENT_TIMESTAMP_REQUIRED);
+            } else {
+                TickerEntity ticker = mapper.toTickerEntity(dto);
+                ticker.setSymbol(symbol);
+                ticker.setEventType(eventType);
+                accepted.add(ticker);
+                touchedSymbols.add(dto.getSymbol());
+                statuses[i] = BatchItemStatus.created(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> tickerBatchRepository.insertAll(accepted));
+            touchedSymbols.forEach(latestTickers::evict);
+            for (TickerEntity ticker : accepted) {
+                if (liveStreamHub.hasSubscribers(ticker.getSymbol().getName())) {
+                    liveStreamHub.publish(StreamEventType.TICKER, ticker.getSymbol().getName(), mapper.toTickerDto(ticker));
+                }
+            }
+        }
+        return Arrays.asList(statuses);
     }
 
+    @Transactional(readOnly = true)
     public TickerDto getTickerById(Long tickerId) {
         TickerEntity ticker = tickerRepository.findById(tickerId)
                 .orElseThrow(() -> new TickerNotFoundException("Ticker with id " + tickerId + " not found"));
         return mapper.toTickerDto(ticker);
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTickerFieldsById(Long tickerId, SparseFields fields) {
+        return sparseQueryRepository.findFirstFields(TickerEntity.class, fields,
+                        (root, query, cb) -> cb.equal(root.get("id"), tickerId))
+                .orElseThrow(() -> new TickerNotFoundException("Ticker with id " + tickerId + " not found"));
+    }
+
+    @Transactional(readOnly = true)
     public Page<TickerDto> getTickersBySymbol(String symbolName, int page, int size, String sortBy, String sortDirection) {
         Sort sort = sortDirection.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
@@ -49,7 +151,21 @@ public class TickerService {
 
         SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
 
-        Page<TickerEntity> tickers = tickerRepository.findBySymbol(symbol, PageRequest.of(page, size, sort));
+        Page<TickerRow> tickers = tickerRepository.findRowsBySymbol(symbol, PageRequest.of(page, size, sort));
+        return tickers.map(mapper::toTickerDto);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TickerDto> getTickersBySymbolBetween(String symbolName, long from, long to,
+                                                     int page, int size, String sortBy, String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+
+        SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
+
+        Page<TickerRow> tickers = tickerRepository.findRowsBySymbolBetween(
+                symbol, from, to, PageRequest.of(page, size, sort));
         return tickers.map(mapper::toTickerDto);
     }
 
@@ -59,9 +175,11 @@ public class TickerService {
             throw new TickerNotFoundException("Ticker with id " + tickerId + " not found");
         }
         tickerRepository.deleteById(tickerId);
+        latestTickers.evictIf(latest -> Objects.equals(latest.getTickerId(), tickerId));
     }
 
     public TickerDto updateTicker(TickerDto tickerDto) {
+        requireEventTimestamp(tickerDto);
         return tickerRepository.findById(tickerDto.getTickerId()).map(
                 existingTicker -> {
                     SymbolEntity symbol = symbolService.findSymbolByName(tickerDto.getSymbol());
@@ -73,25 +191,186 @@ public class TickerService {
                     updatedEntity.setEventType(eventType);
 
                     TickerEntity saved = tickerRepository.save(updatedEntity);
+                    latestTickers.evictIf(latest -> Objects.equals(latest.getTickerId(), existingTicker.getId()));
                     return mapper.toTickerDto(saved);
                 }).orElseThrow(() ->
                 new TickerNotFoundException("Ticker with id " + tickerDto.getTickerId() + " not found")
         );
     }
 
+    @Transactional(readOnly = true)
     public Page<TickerDto> getAllTickers(int page, int size, String sortBy, String sortDirection) {
         Sort sort = sortDirection.equalsIgnoreCase("asc") ?
                 Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Page<TickerEntity> tickers = tickerRepository.findAll(PageRequest.of(page, size, sort));
+        Page<TickerRow> tickers = tickerRepository.findAllRows(PageRequest.of(page, size, sort));
         return tickers.map(mapper::toTickerDto);
     }
 
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTickerFields(SparseFields fields, int page, int size, String sortBy, String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("asc") ?
+                Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        return sparseQueryRepository.findFields(TickerEntity.class, fields,
+                (root, query, cb) -> cb.conjunction(), PageRequest.of(page, size, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTickerFieldsBySymbol(String symbolName, SparseFields fields,
+                                                             int page, int size, String sortBy, String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+
+        SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
+
+        return sparseQueryRepository.findFields(TickerEntity.class, fields,
+                (root, query, cb) -> cb.equal(root.get("symbol"), symbol), PageRequest.of(page, size, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTickerFieldsBySymbolBetween(String symbolName, long from, long to, SparseFields fields,
+                                                                    int page, int size, String sortBy, String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+
+        SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
+
+        return sparseQueryRepository.findFields(TickerEntity.class, fields, (root, query, cb) -> cb.and(
+                        cb.equal(root.get("symbol"), symbol),
+                        cb.greaterThanOrEqualTo(root.get("eventTimestamp"), from),
+                        cb.lessThan(root.get("eventTimestamp"), to)),
+                PageRequest.of(page, size, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TickerDto> scrollAllTickers(String cursor, int size, String sortBy, String sortDirection) {
+        return scroll(ALL_SYMBOLS, (root, query, cb) -> cb.conjunction(), cursor, size, sortBy, sortDirection);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TickerDto> scrollTickersBySymbol(String symbolName, String cursor, int size, String sortBy, String sortDirection) {
+        SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
+        return scroll(symbol.getName(), (root, query, cb) -> cb.equal(root.get("symbol"), symbol),
+                cursor, size, sortBy, sortDirection);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> scrollAllTickerFields(SparseFields fields, String cursor, int size,
+                                                                 String sortBy, String sortDirection) {
+        return scrollFields(ALL_SYMBOLS, (root, query, cb) -> cb.conjunction(), fields, cursor, size, sortBy, sortDirection);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> scrollTickerFieldsBySymbol(String symbolName, SparseFields fields, String cursor,
+                                                                      int size, String sortBy, String sortDirection) {
+        SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
+        return scrollFields(symbol.getName(), (root, query, cb) -> cb.equal(root.get("symbol"), symbol),
+                fields, cursor, size, sortBy, sortDirection);
+    }
+
+    /**
+     * Resolves the symbol up front so an unknown symbol fails before the response is committed,
+     * then streams every ticker with eventTimestamp in [from, to) in the requested format.
+     */
+    public StreamingResponseBody exportTickers(String symbolName, long from, long to, ExportFormat format) {
+        SymbolEntity symbol = symbolService.findSymbolByName(symbolName);
+        return out -> {
+            ExportWriter writer = ExportWriter.create(format, out);
+            readOnlyTransaction().executeWithoutResult(status ->
+                    exportRepository.streamTickers(symbol.getName(), symbol.getId(), from, to, writer));
+            writer.finish();
+        };
+    }
+
     public TickerDto getLatestTickerBySymbol(String symbol) {
+        return latestTickers.get(symbol, this::loadLatestTicker)
+                .orElseThrow(() -> new TickerNotFoundException("No ticker found for symbol " + symbol));
+    }
+
+    /**
+     * Latest ticker per symbol, in request order. Cached symbols are served from memory and the rest are
+     * loaded with one query; symbols without tickers are left out.
+     */
+    public Map<String, TickerDto> getLatestTickersBySymbols(Collection<String> symbols) {
+        Set<String> names = new LinkedHashSet<>(symbols);
+        if (names.isEmpty() || names.size() > MAX_LATEST_SYMBOLS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_LATEST_SYMBOLS + " symbols are required");
+        }
+        Map<String, TickerDto> found = latestTickers.getAll(names, this::loadLatestTickers);
+        Map<String, TickerDto> latest = new LinkedHashMap<>();
+        names.stream().filter(found::containsKey).forEach(name -> latest.put(name, found.get(name)));
+        return latest;
+    }
+
+    public void rebuildLatestTickers() {
+        latestTickers.clear();
+        symbolService.getKnownSymbols().forEach(symbol -> latestTickers.get(symbol.getName(), this::loadLatestTicker));
+    }
+
+    public LatestValueStore<TickerDto> getLatestTickers() {
+        return latestTickers;
+    }
+
+    private CursorPage<TickerDto> scroll(String listing, Specification<TickerEntity> filter, String cursor, int size,
+                                         String sortBy, String sortDirection) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, listing, sortBy, sortDirection, CURSOR_SORT_KEYS);
+        Window<TickerEntity> window = tickerRepository.findBy(keyset.restrict(filter),
+                query -> query.sortBy(keyset.sort()).limit(size).scroll(keyset.position()));
+        return new CursorPage<>(window.map(mapper::toTickerDto).getContent(), size, window.hasNext(), keyset.next(window));
+    }
+
+    // Same listing and tokens as scroll, with only the requested columns selected
+    private CursorPage<Map<String, Object>> scrollFields(String listing, Specification<TickerEntity> filter,
+                                                         SparseFields fields, String cursor, int size,
+                                                         String sortBy, String sortDirection) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, listing, sortBy, sortDirection, CURSOR_SORT_KEYS);
+        return keyset.slice(sparseQueryRepository.scrollFields(TickerEntity.class, fields, keyset.keyAttributes(),
+                keyset.seek(filter), keyset.sort(), size + 1), size);
+    }
+
+    private Optional<TickerDto> loadLatestTicker(String symbol) {
         SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        long since = System.currentTimeMillis() - LATEST_LOOKBACK_MILLIS;
+        // The bounded lookup only touches recent partitions; symbols that went quiet fall back to a full scan.
+        // Latest values are read on the primary: a lagging replica would hand back a stale row to be cached.
+        return transactionTemplate.execute(status -> tickerRepository
+                .findFirstBySymbolAndEventTimestampGreaterThanEqualOrderByCreatedAtDesc(symbolEntity, since)
+                .or(() -> tickerRepository.findFirstBySymbolOrderByCreatedAtDesc(symbolEntity))
+                .map(mapper::toTickerDto));
+    }
 
-        TickerEntity ticker = tickerRepository.findFirstBySymbolOrderByCreatedAtDesc(symbolEntity)
-                .orElseThrow(() -> new TickerNotFoundException("No ticker found for symbol " + symbol));
-        return mapper.toTickerDto(ticker);
+    private Map<String, TickerDto> loadLatestTickers(Collection<String> symbols) {
+        Map<String, SymbolEntity> symbolEntities = symbolService.findSymbolsByName(symbols);
+        List<String> unknown = symbols.stream().filter(name -> !symbolEntities.containsKey(name)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Invalid symbols: " + String.join(", ", unknown));
+        }
+        List<Integer> symbolIds = symbolEntities.values().stream().map(SymbolEntity::getId).toList();
+        long since = System.currentTimeMillis() - LATEST_LOOKBACK_MILLIS;
+        // Same lookback and fallback as the single-symbol lookup, on the primary
+        return transactionTemplate.execute(status -> {
+            List<TickerDto> latest = new ArrayList<>(latestValueRepository.findLatestTickers(symbolIds, since));
+            Set<String> found = latest.stream().map(TickerDto::getSymbol).collect(Collectors.toSet());
+            List<Integer> quiet = symbolEntities.values().stream()
+                    .filter(symbol -> !found.contains(symbol.getName()))
+                    .map(SymbolEntity::getId)
+                    .toList();
+            latest.addAll(latestValueRepository.findLatestTickers(quiet));
+            return latest;
+        }).stream().collect(Collectors.toMap(TickerDto::getSymbol, Function.identity()));
     }
 
+    // event_timestamp is NOT NULL and the partitioning key; reject before MySQL does, with a clear message
+    private static void requireEventTimestamp(TickerDto dto) {
+        if (dto.getEventTimestamp() == null) {
+            throw new IllegalArgumentException(EVENT_TIMESTAMP_REQUIRED);
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly;
+    }
 }
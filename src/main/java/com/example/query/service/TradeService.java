@@ -3,28 +3,90 @@ package com.example.query.service;
 import com.example.query.entity.EventTypeEntity;
 import com.example.query.entity.SymbolEntity;
 import com.example.query.entity.TradeEntity;
+import com.example.query.exception.TradeArchivedException;
 import com.example.query.exception.TradeNotFoundException;
 import com.example.query.mapper.PayloadMapper;
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.CandleDto;
+import com.example.query.model.CandleInterval;
+import com.example.query.model.CursorPage;
+import com.example.query.model.ExportFormat;
+import com.example.query.model.SparseFields;
+import com.example.query.model.StreamEventType;
 import com.example.query.model.TradeDto;
+import com.example.query.model.TradeRow;
 import com.example.query.repository.EventTypeRepository;
+import com.example.query.repository.ExportRepository;
+import com.example.query.repository.LatestValueRepository;
 import com.example.query.repository.SymbolRepository;
+import com.example.query.repository.SparseQueryRepository;
+import com.example.query.repository.TradeAggregationRepository;
+import com.example.query.repository.TradeBatchRepository;
 import com.example.query.repository.TradeRepository;
+import com.example.query.repository.TradeWriteRepository;
+import com.example.query.repository.TradeWriteRepository.StoredTrade;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @AllArgsConstructor
+@Timed(value = "query.service", histogram = true)
 public class TradeService {
+    private static final String ALL_SYMBOLS = "*";
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "tradeId", "tradeTime", "eventTimestamp");
+    private static final Set<String> COLD_SORT_KEYS = Set.of("id", "tradeId", "tradeTime", "eventTimestamp");
+    private static final long DEFAULT_CANDLES = 500;
+    private static final long MAX_CANDLES = 10_000;
+    private static final String TRADE_TIME_REQUIRED = "tradeTime is required";
+    private static final String TRADE_TIME_IMMUTABLE = "tradeTime of trade %d cannot change from %d";
+    private static final String SYMBOL_IMMUTABLE = "symbol of trade %d cannot change";
+    private static final long LATEST_LOOKBACK_MILLIS = Duration.ofDays(1).toMillis();
+    private static final int MAX_LATEST_SYMBOLS = 500;
+
     private final TradeRepository tradeRepository;
+    private final TradeBatchRepository tradeBatchRepository;
+    private final TradeWriteRepository tradeWriteRepository;
+    private final ExportRepository exportRepository;
+    private final TradeAggregationRepository tradeAggregationRepository;
+    private final LatestValueRepository latestValueRepository;
+    private final SparseQueryRepository sparseQueryRepository;
+    private final CandleStore candleStore;
+    private final ColdTradeStore coldTradeStore;
+    private final LiveStreamHub liveStreamHub;
     private final SymbolService symbolService;
     private final EventTypeService eventTypeService;
     private final PayloadMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final LatestValueStore<TradeDto> latestTrades;
 
     public TradeDto saveTrade(TradeDto dto) {
+        requireTradeTime(dto);
         TradeEntity trade = mapper.toTradeEntity(dto);
 
         SymbolEntity symbolEntity = symbolService.findSymbolByName(dto.getSymbol());
@@ -33,67 +95,460 @@ public class TradeService {
         EventTypeEntity eventTypeEntity = eventTypeService.findEventType(dto.getEventType());
         trade.setEventType(eventTypeEntity);
 
-        trade = tradeRepository.save(trade);
-        return mapper.toTradeDto(trade);
+        int written = tradeWriteRepository.upsert(trade);
+        String conflict = written == 0 ? conflict(trade, storedTrade(trade.getTradeId(), trade.getTradeTime())) : null;
+        if (conflict != null) {
+            throw new IllegalArgumentException(conflict);
+        }
+        TradeDto saved = mapper.toTradeDto(trade);
+        latestTrades.put(saved.getSymbol(), saved);
+        if (written > 0) {
+            candleStore.invalidate(symbolEntity.getId(), trade.getTradeTime());
+        }
+        liveStreamHub.publish(StreamEventType.TRADE, saved.getSymbol(), saved);
+        return saved;
     }
 
+    /**
+     * Upserts a batch of trades in one transaction with batched JDBC statements. Items whose symbol or
+     * event type cannot be resolved, or that would move a stored trade to another tradeTime or symbol, are rejected
+     * individually; the remaining items commit or fail together.
+     */
+    public List<BatchItemStatus> saveTrades(List<TradeDto> dtos) {
+        Map<String, SymbolEntity> symbols = symbolService.findSymbolsByName(
+                dtos.stream().map(TradeDto::getSymbol).filter(Objects::nonNull).collect(Collectors.toSet()));
+        Map<String, EventTypeEntity> eventTypes = eventTypeService.findEventTypes(
+                dtos.stream().map(TradeDto::getEventType).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        BatchItemStatus[] statuses = new BatchItemStatus[dtos.size()];
+        List<TradeEntity> accepted = new ArrayList<>(dtos.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            TradeDto dto = dtos.get(i);
+            SymbolEntity symbolEntity = symbols.get(dto.getSymbol());
+            EventTypeEntity eventTypeEntity = eventTypes.get(dto.getEventType());
+            if (symbolEntity == null) {
+                statuses[i] = BatchItemStatus.rejected(i, "Invalid symbol: " + dto.getSymbol());
+            } else if (eventTypeEntity == null) {
+                statuses[i] = BatchItemStatus.rejected(i, "Invalid event type: " + dto.getEventType());
+            } else if (dto.getTradeTime() == null) {
+                statuses[i] = BatchItemStatus.rejected(i, TRADE_TIME_REQUIRED);
+            } else {
+                TradeEntity trade = mapper.toTradeEntity(dto);
+                trade.setSymbol(symbolEntity);
+                trade.setEventType(eventTypeEntity);
+                accepted.add(trade);
+                acceptedIndexes.add(i);
+                statuses[i] = BatchItemStatus.created(i);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Arrays.asList(statuses);
+        }
+
+        int[] written = transactionTemplate.execute(status -> tradeBatchRepository.insertAll(accepted));
+        Map<Long, StoredTrade> storedTrades = storedTrades(accepted, written);
+        Map<String, TradeDto> latestBySymbol = new LinkedHashMap<>();
+        List<TradeEntity> stored = new ArrayList<>(accepted.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            TradeEntity trade = accepted.get(j);
+            int index = acceptedIndexes.get(j);
+            String conflict = written[j] == 0 ? conflict(trade, storedTrades.get(trade.getTradeId())) : null;
+            if (conflict != null) {
+                statuses[index] = BatchItemStatus.rejected(index, conflict);
+                continue;
+            }
+            stored.add(trade);
+            latestBySymbol.put(trade.getSymbol().getName(), mapper.toTradeDto(trade));
+            if (written[j] > 0) {
+                candleStore.invalidate(trade.getSymbol().getId(), trade.getTradeTime());
+            }
+        }
+        latestBySymbol.forEach(latestTrades::put);
+        for (TradeEntity trade : stored) {
+            if (liveStreamHub.hasSubscribers(trade.getSymbol().getName())) {
+                liveStreamHub.publish(StreamEventType.TRADE, trade.getSymbol().getName(), mapper.toTradeDto(trade));
+            }
+        }
+        return Arrays.asList(statuses);
+    }
+
+    @Transactional(readOnly = true)
     public TradeDto getTradeByTradeId(Long tradeId) {
-        TradeEntity trade = tradeRepository.findByTradeId(tradeId)
+        return tradeRepository.findByTradeId(tradeId)
+                .map(mapper::toTradeDto)
+                .or(() -> coldTradeStore.findByTradeId(tradeId))
                 .orElseThrow(() -> new TradeNotFoundException("Trade with id " + tradeId + " not found"));
-        return mapper.toTradeDto(trade);
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTradeFieldsByTradeId(Long tradeId, SparseFields fields) {
+        return sparseQueryRepository.findFirstFields(TradeEntity.class, fields,
+                        (root, query, cb) -> cb.equal(root.get("tradeId"), tradeId))
+                .or(() -> coldTradeStore.findByTradeId(tradeId).map(fields::project))
+                .orElseThrow(() -> new TradeNotFoundException("Trade with id " + tradeId + " not found"));
+    }
+
+    /**
+     * Pages over the MySQL rows and the cold segments of the symbol as one sequence when sorted by a
+     * time-correlated key: newest first puts the MySQL rows first, oldest first puts the cold rows first.
+     * Other sort keys only page over MySQL.
+     */
+    @Transactional(readOnly = true)
     public Page<TradeDto> getTradesBySymbol(String symbol, int page, int size, String sortBy, String sortDirection) {
         SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
 
+        boolean ascending = sortDirection.equalsIgnoreCase("asc");
+        Sort sort = ascending
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+
+        long coldTotal = COLD_SORT_KEYS.contains(sortBy) ? coldTradeStore.count(symbol) : 0;
+        if (coldTotal > 0 && ascending) {
+            return coldFirst(symbolEntity, page, size, sort, coldTotal);
+        }
+
+        Page<TradeDto> hot = tradeRepository.findRowsBySymbol(symbolEntity, PageRequest.of(page, size, sort))
+                .map(mapper::toTradeDto);
+        if (coldTotal == 0) {
+            return hot;
+        }
+
+        List<TradeDto> content = new ArrayList<>(hot.getContent());
+        if (content.size() < size) {
+            long coldOffset = Math.max(0, (long) page * size - hot.getTotalElements());
+            content.addAll(coldTradeStore.read(symbol, coldOffset, size - content.size(), false));
+        }
+        return new PageImpl<>(content, hot.getPageable(), hot.getTotalElements() + coldTotal);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TradeDto> getTradesBySymbolBetween(String symbol, long from, long to,
+                                                   int page, int size, String sortBy, String sortDirection) {
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+
         Sort sort = sortDirection.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
-        Page<TradeEntity> trades = tradeRepository.findBySymbol(
-                symbolEntity, PageRequest.of(page, size, sort));
+        Page<TradeRow> trades = tradeRepository.findRowsBySymbolBetween(
+                symbolEntity, from, to, PageRequest.of(page, size, sort));
 
         return trades.map(mapper::toTradeDto);
     }
 
-    @Transactional
-    public void deleteByTradeId(Long tradeId) {
-        if (!tradeRepository.existsByTradeId(tradeId)) {
-            throw new TradeNotFoundException("Trade with id " + tradeId + " not found");
+    /**
+     * Deletes the trade. A known tradeTime restricts the delete to the partition holding it.
+     */
+    public void deleteByTradeId(Long tradeId, Long tradeTime) {
+        List<StoredTrade> deleted = tradeId == null ? List.of()
+                : transactionTemplate.execute(status -> tradeWriteRepository.deleteByTradeId(tradeId, tradeTime));
+        if (deleted.isEmpty()) {
+            StoredTrade stored = tradeTime == null ? null : storedTrade(tradeId, tradeTime);
+            throw stored != null
+                    ? new IllegalArgumentException(TRADE_TIME_IMMUTABLE.formatted(tradeId, stored.tradeTime()))
+                    : notWritable(tradeId);
         }
-        tradeRepository.deleteByTradeId(tradeId);
+        deleted.forEach(trade -> candleStore.invalidate(trade.symbolId(), trade.tradeTime()));
+        latestTrades.evictIf(latest -> Objects.equals(latest.getTradeId(), tradeId));
     }
 
+    /**
+     * Replaces the trade with the same tradeId and tradeTime; the tradeTime and symbol of a stored trade
+     * cannot change.
+     */
     public TradeDto updateTrade(TradeDto tradeDto) {
-        return tradeRepository.findByTradeId(tradeDto.getTradeId())
-                .map(existingTrade -> {
-                    TradeEntity updatedEntity = mapper.toTradeEntity(tradeDto);
-                    updatedEntity.setId(existingTrade.getId());
+        requireTradeTime(tradeDto);
+        TradeEntity updatedEntity = mapper.toTradeEntity(tradeDto);
 
-                    SymbolEntity symbolEntity = symbolService.findSymbolByName(tradeDto.getSymbol());
-                    updatedEntity.setSymbol(symbolEntity);
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(tradeDto.getSymbol());
+        updatedEntity.setSymbol(symbolEntity);
 
-                    EventTypeEntity eventTypeEntity = eventTypeService.findEventType(tradeDto.getEventType());
-                    updatedEntity.setEventType(eventTypeEntity);
+        EventTypeEntity eventTypeEntity = eventTypeService.findEventType(tradeDto.getEventType());
+        updatedEntity.setEventType(eventTypeEntity);
 
-                    TradeEntity saved = tradeRepository.save(updatedEntity);
-                    return mapper.toTradeDto(saved);
-                })
-                .orElseThrow(() -> new TradeNotFoundException("Trade with id " + tradeDto.getTradeId() + " not found"));
+        if (tradeDto.getTradeId() == null) {
+            throw notWritable(null);
+        }
+        // Changed rows are counted, so 0 is also an update that found the trade as given
+        if (tradeWriteRepository.updateByTradeId(updatedEntity) == 0) {
+            StoredTrade stored = storedTrade(tradeDto.getTradeId(), tradeDto.getTradeTime());
+            if (stored == null) {
+                throw notWritable(tradeDto.getTradeId());
+            }
+            String conflict = conflict(updatedEntity, stored);
+            if (conflict != null) {
+                throw new IllegalArgumentException(conflict);
+            }
+        } else {
+            candleStore.invalidate(symbolEntity.getId(), updatedEntity.getTradeTime());
+        }
+        latestTrades.evictIf(latest -> Objects.equals(latest.getTradeId(), tradeDto.getTradeId()));
+        return mapper.toTradeDto(updatedEntity);
     }
 
+    @Transactional(readOnly = true)
     public Page<TradeDto> getAllTrades(int page, int size, String sortBy, String sortDirection) {
         Sort sort = sortDirection.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Page<TradeEntity> trades = tradeRepository.findAll(PageRequest.of(page, size, sort));
+        Page<TradeRow> trades = tradeRepository.findAllRows(PageRequest.of(page, size, sort));
         return trades.map(mapper::toTradeDto);
     }
 
-    public TradeDto getLatestTradeBySymbol(String symbol) {
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTradeFields(SparseFields fields, int page, int size, String sortBy, String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        return sparseQueryRepository.findFields(TradeEntity.class, fields,
+                (root, query, cb) -> cb.conjunction(), PageRequest.of(page, size, sort));
+    }
+
+    /**
+     * Selects only the requested columns. A listing that continues into cold storage is loaded whole and
+     * narrowed after the merge.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTradeFieldsBySymbol(String symbol, SparseFields fields,
+                                                            int page, int size, String sortBy, String sortDirection) {
+        if (COLD_SORT_KEYS.contains(sortBy) && coldTradeStore.count(symbol) > 0) {
+            return getTradesBySymbol(symbol, page, size, sortBy, sortDirection).map(fields::project);
+        }
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        Sort sort = sortDirection.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        return sparseQueryRepository.findFields(TradeEntity.class, fields,
+                (root, query, cb) -> cb.equal(root.get("symbol"), symbolEntity), PageRequest.of(page, size, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTradeFieldsBySymbolBetween(String symbol, long from, long to, SparseFields fields,
+                                                                   int page, int size, String sortBy, String sortDirection) {
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        Sort sort = sortDirection.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        return sparseQueryRepository.findFields(TradeEntity.class, fields, (root, query, cb) -> cb.and(
+                        cb.equal(root.get("symbol"), symbolEntity),
+                        cb.greaterThanOrEqualTo(root.get("tradeTime"), from),
+                        cb.lessThan(root.get("tradeTime"), to)),
+                PageRequest.of(page, size, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TradeDto> scrollAllTrades(String cursor, int size, String sortBy, String sortDirection) {
+        return scroll(ALL_SYMBOLS, (root, query, cb) -> cb.conjunction(), cursor, size, sortBy, sortDirection);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TradeDto> scrollTradesBySymbol(String symbol, String cursor, int size, String sortBy, String sortDirection) {
         SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        return scroll(symbolEntity.getName(), (root, query, cb) -> cb.equal(root.get("symbol"), symbolEntity),
+                cursor, size, sortBy, sortDirection);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> scrollAllTradeFields(SparseFields fields, String cursor, int size,
+                                                                String sortBy, String sortDirection) {
+        return scrollFields(ALL_SYMBOLS, (root, query, cb) -> cb.conjunction(), fields, cursor, size, sortBy, sortDirection);
+    }
 
-        TradeEntity trade = tradeRepository.findFirstBySymbolOrderByCreatedAtDesc(symbolEntity)
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> scrollTradeFieldsBySymbol(String symbol, SparseFields fields, String cursor,
+                                                                     int size, String sortBy, String sortDirection) {
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        return scrollFields(symbolEntity.getName(), (root, query, cb) -> cb.equal(root.get("symbol"), symbolEntity),
+                fields, cursor, size, sortBy, sortDirection);
+    }
+
+    /**
+     * Resolves the symbol up front so an unknown symbol fails before the response is committed,
+     * then streams every trade with tradeTime in [from, to) in the requested format.
+     */
+    public StreamingResponseBody exportTrades(String symbol, long from, long to, ExportFormat format) {
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        return out -> {
+            ExportWriter writer = ExportWriter.create(format, out);
+            readOnlyTransaction().executeWithoutResult(status ->
+                    exportRepository.streamTrades(symbolEntity.getName(), symbolEntity.getId(), from, to, writer));
+            writer.finish();
+        };
+    }
+
+    /**
+     * OHLCV buckets from the candle table when it is trusted for the range, otherwise aggregated from the
+     * trade table in the database. A missing {@code to} means now and a missing {@code from} means
+     * {@value #DEFAULT_CANDLES} intervals before {@code to}; {@code from} is aligned down to a bucket
+     * boundary so the first candle is complete.
+     */
+    @Transactional(readOnly = true)
+    public List<CandleDto> getCandles(String symbol, String interval, Long from, Long to) {
+        CandleInterval candleInterval = CandleInterval.from(interval);
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = candleInterval.bucketStart(from != null ? from : end - DEFAULT_CANDLES * candleInterval.getMillis());
+        if (start >= end) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if ((end - start) / candleInterval.getMillis() > MAX_CANDLES) {
+            throw new IllegalArgumentException("Range exceeds " + MAX_CANDLES + " candles of " + interval);
+        }
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        return candleStore.find(symbolEntity.getId(), candleInterval, start, end)
+                .orElseGet(() -> tradeAggregationRepository.findCandles(symbolEntity.getId(), candleInterval, start, end));
+    }
+
+    public TradeDto getLatestTradeBySymbol(String symbol) {
+        return latestTrades.get(symbol, this::loadLatestTrade)
                 .orElseThrow(() -> new TradeNotFoundException("No trades found for symbol " + symbol));
-        return mapper.toTradeDto(trade);
     }
 
+    /**
+     * Latest trade per symbol, in request order. Cached symbols are served from memory and the rest are
+     * loaded with one query; symbols without trades are left out.
+     */
+    public Map<String, TradeDto> getLatestTradesBySymbols(Collection<String> symbols) {
+        Set<String> names = new LinkedHashSet<>(symbols);
+        if (names.isEmpty() || names.size() > MAX_LATEST_SYMBOLS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_LATEST_SYMBOLS + " symbols are required");
+        }
+        Map<String, TradeDto> found = latestTrades.getAll(names, this::loadLatestTrades);
+        Map<String, TradeDto> latest = new LinkedHashMap<>();
+        names.stream().filter(found::containsKey).forEach(name -> latest.put(name, found.get(name)));
+        return latest;
+    }
+
+    public void rebuildLatestTrades() {
+        latestTrades.clear();
+        symbolService.getKnownSymbols().forEach(symbol -> latestTrades.get(symbol.getName(), this::loadLatestTrade));
+    }
+
+    public LatestValueStore<TradeDto> getLatestTrades() {
+        return latestTrades;
+    }
+
+    private Page<TradeDto> coldFirst(SymbolEntity symbolEntity, int page, int size, Sort sort, long coldTotal) {
+        long offset = (long) page * size;
+        List<TradeDto> content = new ArrayList<>(
+                coldTradeStore.read(symbolEntity.getName(), Math.min(offset, coldTotal), size, true));
+
+        // MySQL rows continue where the cold ones end, at an offset that is rarely page aligned, so the
+        // slice is taken from at most two pages
+        long hotOffset = Math.max(0, offset - coldTotal);
+        int hotPage = (int) (hotOffset / size);
+        int skip = (int) (hotOffset % size);
+        Page<TradeRow> first = tradeRepository.findRowsBySymbol(symbolEntity, PageRequest.of(hotPage, size, sort));
+        first.getContent().stream().skip(skip).limit(size - content.size()).map(mapper::toTradeDto).forEach(content::add);
+        if (content.size() < size && first.hasNext()) {
+            tradeRepository.findRowsBySymbol(symbolEntity, PageRequest.of(hotPage + 1, size, sort)).getContent().stream()
+                    .limit(size - content.size())
+                    .map(mapper::toTradeDto)
+                    .forEach(content::add);
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size, sort), first.getTotalElements() + coldTotal);
+    }
+
+    private CursorPage<TradeDto> scroll(String listing, Specification<TradeEntity> filter, String cursor, int size,
+                                        String sortBy, String sortDirection) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, listing, sortBy, sortDirection, CURSOR_SORT_KEYS);
+        Window<TradeEntity> window = tradeRepository.findBy(keyset.restrict(filter),
+                query -> query.sortBy(keyset.sort()).limit(size).scroll(keyset.position()));
+        return new CursorPage<>(window.map(mapper::toTradeDto).getContent(), size, window.hasNext(), keyset.next(window));
+    }
+
+    // Same listing and tokens as scroll, with only the requested columns selected
+    private CursorPage<Map<String, Object>> scrollFields(String listing, Specification<TradeEntity> filter,
+                                                         SparseFields fields, String cursor, int size,
+                                                         String sortBy, String sortDirection) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, listing, sortBy, sortDirection, CURSOR_SORT_KEYS);
+        return keyset.slice(sparseQueryRepository.scrollFields(TradeEntity.class, fields, keyset.keyAttributes(),
+                keyset.seek(filter), keyset.sort(), size + 1), size);
+    }
+
+    private Optional<TradeDto> loadLatestTrade(String symbol) {
+        SymbolEntity symbolEntity = symbolService.findSymbolByName(symbol);
+        long since = System.currentTimeMillis() - LATEST_LOOKBACK_MILLIS;
+        // The bounded lookup only touches recent partitions; symbols that went quiet fall back to a full scan.
+        // Latest values are read on the primary: a lagging replica would hand back a stale row to be cached.
+        return transactionTemplate.execute(status -> tradeRepository
+                .findFirstBySymbolAndTradeTimeGreaterThanEqualOrderByCreatedAtDesc(symbolEntity, since)
+                .or(() -> tradeRepository.findFirstBySymbolOrderByCreatedAtDesc(symbolEntity))
+                .map(mapper::toTradeDto));
+    }
+
+    private Map<String, TradeDto> loadLatestTrades(Collection<String> symbols) {
+        Map<String, SymbolEntity> symbolEntities = symbolService.findSymbolsByName(symbols);
+        List<String> unknown = symbols.stream().filter(name -> !symbolEntities.containsKey(name)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Invalid symbols: " + String.join(", ", unknown));
+        }
+        List<Integer> symbolIds = symbolEntities.values().stream().map(SymbolEntity::getId).toList();
+        long since = System.currentTimeMillis() - LATEST_LOOKBACK_MILLIS;
+        // Same lookback and fallback as the single-symbol lookup, on the primary
+        return transactionTemplate.execute(status -> {
+            List<TradeDto> latest = new ArrayList<>(latestValueRepository.findLatestTrades(symbolIds, since));
+            Set<String> found = latest.stream().map(TradeDto::getSymbol).collect(Collectors.toSet());
+            List<Integer> quiet = symbolEntities.values().stream()
+                    .filter(symbol -> !found.contains(symbol.getName()))
+                    .map(SymbolEntity::getId)
+                    .toList();
+            latest.addAll(latestValueRepository.findLatestTrades(quiet));
+            return latest;
+        }).stream().collect(Collectors.toMap(TradeDto::getSymbol, Function.identity()));
+    }
+
+    /**
+     * Error for an update or delete of a trade MySQL does not hold. Cold segments are immutable, so a trade
+     * that was archived is reported as such rather than as missing.
+     */
+    private RuntimeException notWritable(Long tradeId) {
+        if (tradeId == null) {
+            return new TradeNotFoundException("Trade with id " + tradeId + " not found");
+        }
+        if (coldTradeStore.findByTradeId(tradeId).isPresent()) {
+            return new TradeArchivedException("Trade with id " + tradeId + " is archived and can no longer be changed");
+        }
+        return new TradeNotFoundException("Trade with id " + tradeId + " not found");
+    }
+
+    // The lookups below only run once a write changed nothing, and read the partitions around the tradeTime
+    private StoredTrade storedTrade(Long tradeId, long tradeTime) {
+        return tradeId == null ? null
+                : tradeWriteRepository.findStoredTrades(List.of(tradeId), tradeTime, tradeTime).get(tradeId);
+    }
+
+    /**
+     * Stored trades by tradeId of the batch items that changed nothing, in one lookup over their tradeTimes.
+     */
+    private Map<Long, StoredTrade> storedTrades(List<TradeEntity> trades, int[] written) {
+        List<TradeEntity> unchanged = IntStream.range(0, trades.size())
+                .filter(i -> written[i] == 0 && trades.get(i).getTradeId() != null)
+                .mapToObj(trades::get)
+                .toList();
+        if (unchanged.isEmpty()) {
+            return Map.of();
+        }
+        LongSummaryStatistics tradeTimes = unchanged.stream().mapToLong(TradeEntity::getTradeTime).summaryStatistics();
+        return tradeWriteRepository.findStoredTrades(unchanged.stream().map(TradeEntity::getTradeId).toList(),
+                tradeTimes.getMin(), tradeTimes.getMax());
+    }
+
+    /**
+     * Why a write that changed nothing was refused, or null when the trade is stored as given or not at all.
+     */
+    private static String conflict(TradeEntity trade, StoredTrade stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.tradeTime() != trade.getTradeTime()) {
+            return TRADE_TIME_IMMUTABLE.formatted(trade.getTradeId(), stored.tradeTime());
+        }
+        return stored.symbolId() != trade.getSymbol().getId() ? SYMBOL_IMMUTABLE.formatted(trade.getTradeId()) : null;
+    }
+
+    // trade_time is NOT NULL and the partitioning key; reject before MySQL does, with a clear message
+    private static void requireTradeTime(TradeDto dto) {
+        if (dto.getTradeTime() == null) {
+            throw new IllegalArgumentException(TRADE_TIME_REQUIRED);
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return readOnly;
+    }
 }
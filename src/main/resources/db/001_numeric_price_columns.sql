@@ -0,0 +1,23 @@
+-- Prices, quantities and volumes move from VARCHAR to exact DECIMAL(30, 8).
+-- Existing values are converted in place; the statement fails under strict mode if any row holds a non-numeric string.
+
+ALTER TABLE trade
+    MODIFY price DECIMAL(30, 8),
+    MODIFY quantity DECIMAL(30, 8);
+
+ALTER TABLE ticker
+    MODIFY price_change DECIMAL(30, 8),
+    MODIFY price_change_percent DECIMAL(30, 8),
+    MODIFY weighted_average_price DECIMAL(30, 8),
+    MODIFY first_trade_before_window DECIMAL(30, 8),
+    MODIFY last_price DECIMAL(30, 8),
+    MODIFY last_quantity DECIMAL(30, 8),
+    MODIFY best_bid_price DECIMAL(30, 8),
+    MODIFY best_bid_quantity DECIMAL(30, 8),
+    MODIFY best_ask_price DECIMAL(30, 8),
+    MODIFY best_ask_quantity DECIMAL(30, 8),
+    MODIFY open_price DECIMAL(30, 8),
+    MODIFY high_price DECIMAL(30, 8),
+    MODIFY low_price DECIMAL(30, 8),
+    MODIFY total_traded_base_asset_volume DECIMAL(30, 8),
+    MODIFY total_traded_quote_asset_volume DECIMAL(30, 8);
@@ -0,0 +1,7 @@
+-- Composite indexes backing the per-symbol time-range listings and the latest-row lookups.
+
+CREATE INDEX idx_trade_symbol_trade_time ON trade (symbol_id, trade_time, id);
+CREATE INDEX idx_trade_symbol_created_at ON trade (symbol_id, created_at);
+
+CREATE INDEX idx_ticker_symbol_event_timestamp ON ticker (symbol_id, event_timestamp, id);
+CREATE INDEX idx_ticker_symbol_created_at ON ticker (symbol_id, created_at);
@@ -0,0 +1,17 @@
+-- Pre-aggregated OHLCV candles maintained by the service from accepted trades (1s, 1m and 1h buckets).
+-- Rows are recomputed from the trades; first/last trade times are stored to decide open and close on roll-up.
+
+CREATE TABLE candle (
+    symbol_id        INT            NOT NULL,
+    interval_ms      BIGINT         NOT NULL,
+    open_time        BIGINT         NOT NULL,
+    open_price       DECIMAL(30, 8) NOT NULL,
+    high_price       DECIMAL(30, 8) NOT NULL,
+    low_price        DECIMAL(30, 8) NOT NULL,
+    close_price      DECIMAL(30, 8) NOT NULL,
+    volume           DECIMAL(30, 8) NOT NULL,
+    trade_count      BIGINT         NOT NULL,
+    first_trade_time BIGINT         NOT NULL,
+    last_trade_time  BIGINT         NOT NULL,
+    PRIMARY KEY (symbol_id, interval_ms, open_time)
+);
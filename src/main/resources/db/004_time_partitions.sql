@@ -0,0 +1,35 @@
+-- Range partitions on trade.trade_time and ticker.event_timestamp (epoch millis, UTC).
+-- Everything before the day this runs lands in p_history; PartitionMaintenanceService splits p_future into
+-- daily or monthly partitions ahead of time and drops partitions older than the configured retention.
+--
+-- Partitioned InnoDB tables cannot have foreign keys, and every unique key must contain the partitioning
+-- column. Drop the foreign keys on trade and ticker first; their generated names can be listed with:
+--   SELECT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+--   WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME IN ('trade', 'ticker');
+
+SET time_zone = '+00:00';
+SET @boundary = UNIX_TIMESTAMP(CURDATE()) * 1000;
+
+ALTER TABLE trade
+    MODIFY trade_time BIGINT NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, trade_time);
+
+SET @sql = CONCAT('ALTER TABLE trade PARTITION BY RANGE (trade_time) (',
+                  'PARTITION p_history VALUES LESS THAN (', @boundary, '), ',
+                  'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE ticker
+    MODIFY event_timestamp BIGINT NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, event_timestamp);
+
+SET @sql = CONCAT('ALTER TABLE ticker PARTITION BY RANGE (event_timestamp) (',
+                  'PARTITION p_history VALUES LESS THAN (', @boundary, '), ',
+                  'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,9 @@
+-- Unique trade_id so replayed exchange events upsert instead of inserting duplicates. trade_time is part of
+-- the key because every unique key of the partitioned table must contain the partitioning column.
+-- Existing duplicates are removed first, keeping the oldest row of each trade.
+
+DELETE t
+FROM trade t
+JOIN trade kept ON kept.trade_id = t.trade_id AND kept.trade_time = t.trade_time AND kept.id < t.id;
+
+CREATE UNIQUE INDEX uk_trade_trade_id ON trade (trade_id, trade_time);
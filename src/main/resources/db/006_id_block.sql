@@ -0,0 +1,12 @@
+-- Block id allocation for trade and ticker (pooled @TableGenerator, 1000 ids per block). With the pooled
+-- optimizer the stored value is the upper end of the next block handed out, so seeding it with
+-- MAX(id) + 1000 makes the first block start right after the existing rows.
+-- The AUTO_INCREMENT attribute on trade.id and ticker.id can stay; every insert now supplies the id.
+
+CREATE TABLE id_block (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+);
+
+INSERT INTO id_block (name, next_val) SELECT 'trade', COALESCE(MAX(id), 0) + 1000 FROM trade;
+INSERT INTO id_block (name, next_val) SELECT 'ticker', COALESCE(MAX(id), 0) + 1000 FROM ticker;
@@ -0,0 +1,134 @@
+package com.example.query.configuration;
+
+import com.example.query.entity.UserEntity;
+import com.example.query.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApiKeyAuthFilterTest {
+    private static final String VALID_API_KEY = "EQmdzY5Cvvg1QZuwyR1t9AVVuqZj5YD5d7pv8nrh";
+    private static final String OTHER_API_KEY = "Xk2mP7qLwR4tY9uZ3aB6cD8eF1gH5jK0nM2pQ4rS";
+
+    private UserRepository userRepository;
+    private ApiKeyAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByApiKeyAndActive(anyString(), eq(true))).thenReturn(Optional.empty());
+        when(userRepository.findByApiKeyAndActive(VALID_API_KEY, true)).thenReturn(Optional.of(user(VALID_API_KEY)));
+        when(userRepository.findByApiKeyAndActive(OTHER_API_KEY, true)).thenReturn(Optional.of(user(OTHER_API_KEY)));
+
+        filter = new ApiKeyAuthFilter(userRepository, Duration.ofMinutes(1), Duration.ofMinutes(1), 2, 4);
+    }
+
+    @Test
+    void shouldKeepKnownKeysWhenFloodedWithUnknownKeys() throws Exception {
+        // Given
+        assertThat(authenticate(VALID_API_KEY), is(200));
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertThat(authenticate("random-" + i), is(401));
+        }
+
+        // Then
+        assertThat(authenticate(VALID_API_KEY), is(200));
+        verify(userRepository, times(1)).findByApiKeyAndActive(VALID_API_KEY, true);
+        assertThat(filter.getCacheSize(), is(5));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedKnownKey() throws Exception {
+        // Given
+        when(userRepository.findByApiKeyAndActive("third", true)).thenReturn(Optional.of(user("third")));
+        authenticate(VALID_API_KEY);
+        authenticate(OTHER_API_KEY);
+        authenticate(VALID_API_KEY);
+
+        // When
+        authenticate("third");
+
+        // Then
+        authenticate(VALID_API_KEY);
+        authenticate(OTHER_API_KEY);
+        verify(userRepository, times(1)).findByApiKeyAndActive(VALID_API_KEY, true);
+        verify(userRepository, times(2)).findByApiKeyAndActive(OTHER_API_KEY, true);
+    }
+
+    @Test
+    void shouldCacheUnknownKeyUntilItIsRevoked() throws Exception {
+        // Given
+        assertThat(authenticate("unknown"), is(401));
+        assertThat(authenticate("unknown"), is(401));
+        verify(userRepository, times(1)).findByApiKeyAndActive("unknown", true);
+
+        // When
+        when(userRepository.findByApiKeyAndActive("unknown", true)).thenReturn(Optional.of(user("unknown")));
+        filter.revoke("unknown");
+
+        // Then
+        assertThat(authenticate("unknown"), is(200));
+        verify(userRepository, times(2)).findByApiKeyAndActive("unknown", true);
+    }
+
+    @Test
+    void shouldStayBoundedUnderConcurrentRequests() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String apiKey = i % 2 == 0 ? VALID_API_KEY : "random-" + i;
+                statuses.add(executor.submit(() -> authenticate(apiKey)));
+            }
+            for (int i = 0; i < statuses.size(); i++) {
+                assertThat(statuses.get(i).get(), is(i % 2 == 0 ? 200 : 401));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(filter.getCacheSize(), is(lessThanOrEqualTo(6)));
+        assertThat(filter.getHitCount() + filter.getMissCount(), is(2000L));
+    }
+
+    private int authenticate(String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/trade/1");
+        request.addHeader("X-API-KEY", apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static UserEntity user(String apiKey) {
+        UserEntity user = new UserEntity();
+        user.setApiKey(apiKey);
+        user.setActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.query.configuration;
+
+import com.example.query.model.CursorPage;
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import com.example.query.proto.Decimal;
+import com.example.query.proto.Ticker;
+import com.example.query.proto.Trade;
+import com.example.query.proto.TradePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class MarketDataProtobufConverterTest {
+
+    private final MarketDataProtobufConverter converter = new MarketDataProtobufConverter();
+
+    @Test
+    void shouldEncodeEveryTradeFieldOfAnOffsetPage() throws IOException {
+        // Given
+        PageImpl<TradeDto> page = new PageImpl<>(List.of(trade()), PageRequest.of(2, 1), 7);
+
+        // When
+        TradePage message = TradePage.parseFrom(encode(page));
+
+        // Then
+        assertThat(message.getContentCount(), is(1));
+        Trade trade = message.getContent(0);
+        assertThat(trade.getTradeId(), is(12345L));
+        assertThat(trade.getEventType(), is("trade"));
+        assertThat(trade.getEventTimestamp(), is(1_700_000_000_001L));
+        assertThat(trade.getSymbol(), is("BTCUSDT"));
+        assertThat(decimal(trade.getPrice()), is(new BigDecimal("50000.00")));
+        assertThat(decimal(trade.getQuantity()), is(new BigDecimal("0.001")));
+        assertThat(trade.getTradeTime(), is(1_700_000_000_000L));
+        assertThat(trade.getIsBuyerMarketMaker(), is(true));
+        assertThat(message.getTotalElements(), is(7L));
+        assertThat(message.getNumber(), is(2));
+        assertThat(message.getSize(), is(1));
+        assertThat(message.getHasNext(), is(true));
+        assertThat(message.hasNextCursor(), is(false));
+    }
+
+    @Test
+    void shouldEncodeTheNextCursorOfACursorPage() throws IOException {
+        // When
+        TradePage more = TradePage.parseFrom(encode(new CursorPage<>(List.of(trade()), 1, true, "bmV4dA")));
+        TradePage last = TradePage.parseFrom(encode(new CursorPage<>(List.of(trade()), 1, false, null)));
+
+        // Then
+        assertThat(more.getNextCursor(), is("bmV4dA"));
+        assertThat(more.getSize(), is(1));
+        assertThat(more.getHasNext(), is(true));
+        assertThat(last.hasNextCursor(), is(false));
+        assertThat(last.getHasNext(), is(false));
+    }
+
+    @Test
+    void shouldEncodeEveryTickerField() throws IOException {
+        // Given
+        TickerDto ticker = new TickerDto();
+        ticker.setTickerId(42L);
+        ticker.setEventType("24hrTicker");
+        ticker.setEventTimestamp(1_700_000_000_000L);
+        ticker.setSymbol("ETHUSDT");
+        ticker.setPriceChange(new BigDecimal("-12.5"));
+        ticker.setPriceChangePercent(new BigDecimal("-0.416"));
+        ticker.setWeightedAveragePrice(new BigDecimal("3001.25"));
+        ticker.setFirstTradeBeforeWindow(new BigDecimal("3012.50"));
+        ticker.setLastPrice(new BigDecimal("3000.00"));
+        ticker.setLastQuantity(new BigDecimal("0.5"));
+        ticker.setBestBidPrice(new BigDecimal("2999.99"));
+        ticker.setBestBidQuantity(new BigDecimal("1.25"));
+        ticker.setBestAskPrice(new BigDecimal("3000.01"));
+        ticker.setBestAskQuantity(new BigDecimal("2.75"));
+        ticker.setOpenPrice(new BigDecimal("3012.5"));
+        ticker.setHighPrice(new BigDecimal("3050"));
+        ticker.setLowPrice(new BigDecimal("2950.1"));
+        ticker.setTotalTradedBaseAssetVolume(new BigDecimal("12345.678"));
+        ticker.setTotalTradedQuoteAssetVolume(new BigDecimal("37037034.5"));
+        ticker.setStatisticsOpenTime(1_699_913_600_000L);
+        ticker.setStatisticsCloseTime(1_700_000_000_000L);
+        ticker.setFirstTradeId(100L);
+        ticker.setLastTradeId(200L);
+        ticker.setTotalTradeCount(101L);
+
+        // When
+        Ticker message = Ticker.parseFrom(encode(ticker));
+
+        // Then
+        assertThat(message.getTickerId(), is(42L));
+        assertThat(message.getEventType(), is("24hrTicker"));
+        assertThat(message.getEventTimestamp(), is(1_700_000_000_000L));
+        assertThat(message.getSymbol(), is("ETHUSDT"));
+        assertThat(decimal(message.getPriceChange()), is(new BigDecimal("-12.5")));
+        assertThat(decimal(message.getPriceChangePercent()), is(new BigDecimal("-0.416")));
+        assertThat(decimal(message.getWeightedAveragePrice()), is(new BigDecimal("3001.25")));
+        assertThat(decimal(message.getFirstTradeBeforeWindow()), is(new BigDecimal("3012.50")));
+        assertThat(decimal(message.getLastPrice()), is(new BigDecimal("3000.00")));
+        assertThat(decimal(message.getLastQuantity()), is(new BigDecimal("0.5")));
+        assertThat(decimal(message.getBestBidPrice()), is(new BigDecimal("2999.99")));
+        assertThat(decimal(message.getBestBidQuantity()), is(new BigDecimal("1.25")));
+        assertThat(decimal(message.getBestAskPrice()), is(new BigDecimal("3000.01")));
+        assertThat(decimal(message.getBestAskQuantity()), is(new BigDecimal("2.75")));
+        assertThat(decimal(message.getOpenPrice()), is(new BigDecimal("3012.5")));
+        assertThat(decimal(message.getHighPrice()), is(new BigDecimal("3050")));
+        assertThat(decimal(message.getLowPrice()), is(new BigDecimal("2950.1")));
+        assertThat(decimal(message.getTotalTradedBaseAssetVolume()), is(new BigDecimal("12345.678")));
+        assertThat(decimal(message.getTotalTradedQuoteAssetVolume()), is(new BigDecimal("37037034.5")));
+        assertThat(message.getStatisticsOpenTime(), is(1_699_913_600_000L));
+        assertThat(message.getStatisticsCloseTime(), is(1_700_000_000_000L));
+        assertThat(message.getFirstTradeId(), is(100L));
+        assertThat(message.getLastTradeId(), is(200L));
+        assertThat(message.getTotalTradeCount(), is(101L));
+    }
+
+    @Test
+    void shouldEncodeDecimalsBeyondSixtyFourBitsAsBytes() throws IOException {
+        // Given
+        TradeDto trade = new TradeDto();
+        trade.setPrice(new BigDecimal("-123456789012345678901234567890.12345678"));
+        trade.setQuantity(new BigDecimal("1E-8"));
+
+        // When
+        Trade message = Trade.parseFrom(encode(trade));
+
+        // Then
+        assertThat(decimal(message.getPrice()), is(new BigDecimal("-123456789012345678901234567890.12345678")));
+        assertThat(message.getPrice().getUnscaled(), is(0L));
+        assertThat(decimal(message.getQuantity()), is(new BigDecimal("1E-8")));
+    }
+
+    @Test
+    void shouldLeaveNullFieldsUnset() throws IOException {
+        // When
+        Trade message = Trade.parseFrom(encode(new TradeDto()));
+
+        // Then
+        assertThat(message.getAllFields().isEmpty(), is(true));
+        assertThat(message.hasTradeId(), is(false));
+        assertThat(message.hasIsBuyerMarketMaker(), is(false));
+        assertThat(message.hasPrice(), is(false));
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        converter.encode(value, body);
+        return body.toByteArray();
+    }
+
+    // Readers of market_data.proto rebuild decimals this way
+    static BigDecimal decimal(Decimal decimal) {
+        BigInteger unscaled = decimal.getUnscaledBytes().isEmpty()
+                ? BigInteger.valueOf(decimal.getUnscaled())
+                : new BigInteger(decimal.getUnscaledBytes().toByteArray());
+        return new BigDecimal(unscaled, decimal.getScale());
+    }
+
+    private static TradeDto trade() {
+        TradeDto trade = new TradeDto();
+        trade.setTradeId(12345L);
+        trade.setEventType("trade");
+        trade.setEventTimestamp(1_700_000_000_001L);
+        trade.setSymbol("BTCUSDT");
+        trade.setPrice(new BigDecimal("50000.00"));
+        trade.setQuantity(new BigDecimal("0.001"));
+        trade.setTradeTime(1_700_000_000_000L);
+        trade.setIsBuyerMarketMaker(true);
+        return trade;
+    }
+}
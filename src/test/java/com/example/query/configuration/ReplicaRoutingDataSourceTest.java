@@ -0,0 +1,103 @@
+package com.example.query.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+
+    @Test
+    void shouldRouteToAReplicaWithinTheAllowedLag() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(replicaStatus(true, 5L));
+
+        // When
+        routing.checkReplicationLag();
+
+        // Then
+        assertThat(routing.isHealthy("replica-1"), is(true));
+        assertThat(routing.getLagSeconds("replica-1"), is(5L));
+        assertThat(routing.determineCurrentLookupKey(), is("replica-1"));
+    }
+
+    @Test
+    void shouldFallBackToThePrimaryWhenTheReplicaLagsTooFar() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(replicaStatus(true, 6L));
+
+        // When
+        routing.checkReplicationLag();
+
+        // Then
+        assertThat(routing.isHealthy("replica-1"), is(false));
+        assertThat(routing.determineCurrentLookupKey(), is(ReplicaRoutingDataSource.PRIMARY));
+        assertThat(routing.getPrimaryFallbackCount(), is(1L));
+    }
+
+    @Test
+    void shouldTreatAReplicaWithoutReplicationStatusAsUnhealthy() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(replicaStatus(false, null));
+
+        // When
+        routing.checkReplicationLag();
+
+        // Then
+        assertThat(routing.isHealthy("replica-1"), is(false));
+        assertThat(routing.getLagSeconds("replica-1"), is(-1L));
+        assertThat(routing.determineCurrentLookupKey(), is(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    @Test
+    void shouldTreatAStoppedReplicaAsUnhealthy() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(replicaStatus(true, null));
+
+        // When
+        routing.checkReplicationLag();
+
+        // Then
+        assertThat(routing.isHealthy("replica-1"), is(false));
+        assertThat(routing.determineCurrentLookupKey(), is(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    @Test
+    void shouldRejectSubSecondLagLimits() {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+
+        assertThrows(IllegalArgumentException.class, () -> properties.setMaxLag(Duration.ofMillis(500)));
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRoutingDataSource(primary,
+                Map.of("replica-1", mock(DataSource.class)), Duration.ofMillis(1500)));
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource replica) {
+        return new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), Duration.ofSeconds(5));
+    }
+
+    private static DataSource replicaStatus(boolean hasRow, Long secondsBehindSource) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(hasRow);
+        when(resultSet.getObject("Seconds_Behind_Source", Long.class)).thenReturn(secondsBehindSource);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
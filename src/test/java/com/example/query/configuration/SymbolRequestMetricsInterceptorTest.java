@@ -0,0 +1,74 @@
+package com.example.query.configuration;
+
+import com.example.query.service.SymbolService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SymbolRequestMetricsInterceptorTest {
+
+    private static final String PATTERN = "/internal/reactive/trade/symbol/{symbol}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SymbolService symbolService = mock(SymbolService.class);
+    private SymbolRequestMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        when(symbolService.isKnownSymbol("BTCUSDT")).thenReturn(true);
+        interceptor = new SymbolRequestMetricsInterceptor(meterRegistry, symbolService);
+    }
+
+    @Test
+    void shouldCountSuccessfulRequestsForKnownSymbols() {
+        // When
+        interceptor.afterCompletion(request("BTCUSDT"), new MockHttpServletResponse(), null, null);
+        interceptor.afterCompletion(request("BTCUSDT"), new MockHttpServletResponse(), null, null);
+
+        // Then
+        assertThat(meterRegistry.get("query.symbol.requests").tags("symbol", "BTCUSDT", "uri", PATTERN)
+                .counter().count(), is(2.0));
+    }
+
+    @Test
+    void shouldNotTagSymbolsOutsideTheDictionary() {
+        // When
+        interceptor.afterCompletion(request("NOT-A-SYMBOL-1"), new MockHttpServletResponse(), null, null);
+        interceptor.afterCompletion(request("NOT-A-SYMBOL-2"), new MockHttpServletResponse(), null, null);
+
+        // Then
+        assertThat(meterRegistry.find("query.symbol.requests").counters(), is(empty()));
+    }
+
+    @Test
+    void shouldNotCountFailedRequests() {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        // When
+        interceptor.afterCompletion(request("BTCUSDT"), response, null, null);
+        interceptor.afterCompletion(request("BTCUSDT"), new MockHttpServletResponse(), null, new IllegalStateException());
+
+        // Then
+        assertThat(meterRegistry.find("query.symbol.requests").counters(), is(empty()));
+    }
+
+    private static MockHttpServletRequest request(String symbol) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/reactive/trade/symbol/" + symbol);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("symbol", symbol));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+        return request;
+    }
+}
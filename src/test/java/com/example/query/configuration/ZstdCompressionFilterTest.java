@@ -0,0 +1,208 @@
+package com.example.query.configuration;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class ZstdCompressionFilterTest {
+
+    private static final int THRESHOLD = 2048;
+    private static final String SMALL = "{\"symbol\":\"BTCUSDT\"}";
+    private static final String LARGE = "[" + String.join(",", Collections.nCopies(200, SMALL)) + "]";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilters(new ZstdCompressionFilter(3, THRESHOLD, List.of(MediaType.APPLICATION_JSON_VALUE)))
+                .build();
+    }
+
+    @Test
+    void shouldCompressBodiesFromTheThreshold() throws Exception {
+        // When
+        MockHttpServletResponse response = perform("/large", "gzip, zstd");
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding"), is("zstd"));
+        assertThat(response.getHeader("Vary"), is("Accept-Encoding"));
+        assertThat(decompress(response.getContentAsByteArray()), is(LARGE));
+    }
+
+    @Test
+    void shouldSendBodiesBelowTheThresholdUncompressed() throws Exception {
+        // When
+        MockHttpServletResponse response = perform("/small", "zstd");
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsString(), is(SMALL));
+    }
+
+    @Test
+    void shouldLeaveOtherContentTypesUncompressed() throws Exception {
+        // When
+        MockHttpServletResponse response = perform("/text", "zstd");
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsString(), is(LARGE));
+    }
+
+    @Test
+    void shouldNotCompressWhenZstdIsNotAccepted() throws Exception {
+        // When
+        MockHttpServletResponse refused = perform("/large", "gzip, zstd;q=0");
+        MockHttpServletResponse notOffered = perform("/large", "gzip");
+
+        // Then
+        assertThat(refused.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(refused.getContentAsString(), is(LARGE));
+        assertThat(notOffered.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(notOffered.getHeader("Vary"), is(nullValue()));
+    }
+
+    @Test
+    void shouldNegotiateQValuesAndWildcards() {
+        assertThat(ZstdCompressionFilter.acceptsZstd("zstd"), is(true));
+        assertThat(ZstdCompressionFilter.acceptsZstd("gzip;q=1.0, ZSTD;q=0.5"), is(true));
+        assertThat(ZstdCompressionFilter.acceptsZstd("*"), is(true));
+        assertThat(ZstdCompressionFilter.acceptsZstd("zstd;q=0"), is(false));
+        assertThat(ZstdCompressionFilter.acceptsZstd("zstd; q=0.000"), is(false));
+        assertThat(ZstdCompressionFilter.acceptsZstd("*, zstd;q=0"), is(false));
+        assertThat(ZstdCompressionFilter.acceptsZstd("*;q=0"), is(false));
+        assertThat(ZstdCompressionFilter.acceptsZstd("zstd;q=high"), is(false));
+        assertThat(ZstdCompressionFilter.acceptsZstd("gzip, deflate"), is(false));
+        assertThat(ZstdCompressionFilter.acceptsZstd(null), is(false));
+    }
+
+    @Test
+    void shouldWriteAsyncResponsesUncompressed() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(get("/async").header("Accept-Encoding", "zstd"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+
+        // Then
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsString(), is(LARGE));
+    }
+
+    @Test
+    void shouldHandNonBlockingWritesToTheContainerStream() throws Exception {
+        // Given
+        RecordingStream container = new RecordingStream();
+        HttpServletResponse response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return container;
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stream");
+        request.addHeader("Accept-Encoding", "zstd");
+        request.setAsyncSupported(true);
+        WriteListener listener = mock(WriteListener.class);
+
+        // When
+        new ZstdCompressionFilter(3, THRESHOLD, List.of(MediaType.APPLICATION_JSON_VALUE))
+                .doFilter(request, response, (req, res) -> {
+                    req.startAsync();
+                    res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    ServletOutputStream out = res.getOutputStream();
+                    out.setWriteListener(listener);
+                    out.write(LARGE.getBytes(StandardCharsets.UTF_8));
+                });
+
+        // Then
+        assertThat(container.listener, is(listener));
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(container.body.toString(StandardCharsets.UTF_8), is(LARGE));
+    }
+
+    private MockHttpServletResponse perform(String path, String acceptEncoding) throws Exception {
+        return mockMvc.perform(get(path).header("Accept-Encoding", acceptEncoding)).andReturn().getResponse();
+    }
+
+    private static String decompress(byte[] body) throws IOException {
+        try (ZstdInputStream in = new ZstdInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class RecordingStream extends ServletOutputStream {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private WriteListener listener;
+
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+    }
+
+    @RestController
+    static class TestController {
+
+        @GetMapping(value = "/small", produces = MediaType.APPLICATION_JSON_VALUE)
+        String small() {
+            return SMALL;
+        }
+
+        @GetMapping(value = "/large", produces = MediaType.APPLICATION_JSON_VALUE)
+        String large() {
+            return LARGE;
+        }
+
+        @GetMapping(value = "/text", produces = MediaType.TEXT_PLAIN_VALUE)
+        String text() {
+            return LARGE;
+        }
+
+        @GetMapping(value = "/async", produces = MediaType.APPLICATION_JSON_VALUE)
+        Mono<String> async() {
+            return Mono.just(LARGE);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.query.controller;
+
+import com.example.query.configuration.ApiKeyAuthFilter;
+import com.example.query.entity.UserEntity;
+import com.example.query.model.TradeDto;
+import com.example.query.repository.UserRepository;
+import com.example.query.service.ReactiveQueryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveQueryController.class, properties = "query.reactive.enabled=true")
+class ReactiveQueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveQueryService reactiveQueryService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApiKeyAuthFilter apiKeyAuthFilter;
+
+    private static final String VALID_API_KEY = "EQmdzY5Cvvg1QZuwyR1t9AVVuqZj5YD5d7pv8nrh";
+
+    @BeforeEach
+    void setUp() {
+        apiKeyAuthFilter.revokeAll();
+
+        UserEntity mockUser = new UserEntity();
+        mockUser.setId(1L);
+        mockUser.setApiKey(VALID_API_KEY);
+        mockUser.setActive(true);
+
+        when(userRepository.findByApiKeyAndActive(VALID_API_KEY, true)).thenReturn(Optional.of(mockUser));
+        when(userRepository.findByApiKeyAndActive(argThat(key -> !VALID_API_KEY.equals(key)), eq(true)))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldStreamTradesBySymbolAsNdjson() throws Exception {
+        // Given
+        when(reactiveQueryService.getTradesBySymbol("BTCUSDT", 1000L, 2000L, 2))
+                .thenReturn(Flux.just(trade(1L, "50000.10"), trade(2L, "50000.20")));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/internal/reactive/trade/symbol/{symbol}", "BTCUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("from", "1000")
+                        .param("to", "2000")
+                        .param("limit", "2")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"tradeId\":1")))
+                .andExpect(content().string(containsString("\"price\":\"50000.2\"")));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldGetLatestTradeBySymbol() throws Exception {
+        // Given
+        when(reactiveQueryService.getLatestTradeBySymbol("BTCUSDT")).thenReturn(Mono.just(trade(7L, "50000.70")));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/internal/reactive/trade/symbol/{symbol}/latest", "BTCUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId", is(7)))
+                .andExpect(jsonPath("$.price", is("50000.7")));
+    }
+
+    private static TradeDto trade(Long tradeId, String price) {
+        TradeDto dto = new TradeDto();
+        dto.setTradeId(tradeId);
+        dto.setSymbol("BTCUSDT");
+        dto.setEventType("trade");
+        dto.setPrice(new BigDecimal(price));
+        dto.setQuantity(new BigDecimal("0.5"));
+        dto.setTradeTime(1500L);
+        return dto;
+    }
+}
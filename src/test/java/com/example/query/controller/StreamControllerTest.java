@@ -0,0 +1,90 @@
+package com.example.query.controller;
+
+import com.example.query.configuration.ApiKeyAuthFilter;
+import com.example.query.entity.UserEntity;
+import com.example.query.model.StreamEventType;
+import com.example.query.repository.UserRepository;
+import com.example.query.service.LiveStreamHub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StreamController.class)
+class StreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LiveStreamHub liveStreamHub;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApiKeyAuthFilter apiKeyAuthFilter;
+
+    private static final String VALID_API_KEY = "EQmdzY5Cvvg1QZuwyR1t9AVVuqZj5YD5d7pv8nrh";
+
+    @BeforeEach
+    void setUp() {
+        apiKeyAuthFilter.revokeAll();
+
+        UserEntity mockUser = new UserEntity();
+        mockUser.setId(1L);
+        mockUser.setApiKey(VALID_API_KEY);
+        mockUser.setActive(true);
+
+        when(userRepository.findByApiKeyAndActive(VALID_API_KEY, true)).thenReturn(Optional.of(mockUser));
+        when(userRepository.findByApiKeyAndActive(argThat(key -> !VALID_API_KEY.equals(key)), eq(true)))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldSubscribeToSymbolsAsEventStream() throws Exception {
+        // Given
+        when(liveStreamHub.subscribe(any(), any())).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/internal/stream")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("symbols", "BTCUSDT,ETHUSDT")
+                        .param("types", "trade")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(liveStreamHub).subscribe(List.of("BTCUSDT", "ETHUSDT"), EnumSet.of(StreamEventType.TRADE));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRejectStreamWithoutApiKey() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/internal/stream")
+                        .param("symbols", "BTCUSDT")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isUnauthorized());
+
+        verify(liveStreamHub, never()).subscribe(any(), any());
+        verify(userRepository, never()).findByApiKeyAndActive(anyString(), anyBoolean());
+    }
+}
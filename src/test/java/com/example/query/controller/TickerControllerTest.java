@@ -1,8 +1,13 @@
 package com.example.query.controller;
 
+import com.example.query.configuration.ApiKeyAuthFilter;
 import com.example.query.entity.UserEntity;
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.BatchResult;
+import com.example.query.model.CursorPage;
 import com.example.query.model.TickerDto;
 import com.example.query.repository.UserRepository;
+import com.example.query.service.BatchIngestService;
 import com.example.query.service.TickerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,12 +22,17 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -40,12 +50,18 @@ class TickerControllerTest {
     @MockBean
     private TickerService tickerService;
 
+    @MockBean
+    private BatchIngestService batchIngestService;
+
     @MockBean
     private UserRepository userRepository;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApiKeyAuthFilter apiKeyAuthFilter;
+
     private TickerDto tickerDto;
     private UserEntity mockUser;
     private static final String VALID_API_KEY = "EQmdzY5Cvvg1QZuwyR1t9AVVuqZj5YD5d7pv8nrh";
@@ -53,14 +69,16 @@ class TickerControllerTest {
 
     @BeforeEach
     void setUp() {
+        apiKeyAuthFilter.revokeAll();
+
         // Setup test ticker DTO
         tickerDto = new TickerDto();
         tickerDto.setTickerId(1L);
         tickerDto.setSymbol("BTCUSDT");
         tickerDto.setEventType("24hrTicker");
-        tickerDto.setLastPrice("50000.00");
-        tickerDto.setPriceChange("1000.00");
-        tickerDto.setPriceChangePercent("2.00");
+        tickerDto.setLastPrice(new BigDecimal("50000.00"));
+        tickerDto.setPriceChange(new BigDecimal("1000.00"));
+        tickerDto.setPriceChangePercent(new BigDecimal("2.00"));
         tickerDto.setEventTimestamp(System.currentTimeMillis());
 
         // Setup mock user for API key validation
@@ -103,8 +121,8 @@ class TickerControllerTest {
                 .andExpect(jsonPath("$.tickerId", is(1)))
                 .andExpect(jsonPath("$.symbol", is("BTCUSDT")))
                 .andExpect(jsonPath("$.eventType", is("24hrTicker")))
-                .andExpect(jsonPath("$.lastPrice", is("50000.00")))
-                .andExpect(jsonPath("$.priceChange", is("1000.00")));
+                .andExpect(jsonPath("$.lastPrice", is("50000")))
+                .andExpect(jsonPath("$.priceChange", is("1000")));
 
         verify(tickerService).getTickerById(tickerId);
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
@@ -117,13 +135,13 @@ class TickerControllerTest {
         TickerDto inputDto = new TickerDto();
         inputDto.setSymbol("ETHUSDT");
         inputDto.setEventType("24hrTicker");
-        inputDto.setLastPrice("3000.00");
+        inputDto.setLastPrice(new BigDecimal("3000.00"));
 
         TickerDto savedDto = new TickerDto();
         savedDto.setTickerId(2L);
         savedDto.setSymbol("ETHUSDT");
         savedDto.setEventType("24hrTicker");
-        savedDto.setLastPrice("3000.00");
+        savedDto.setLastPrice(new BigDecimal("3000.00"));
 
         when(tickerService.saveTicker(any(TickerDto.class))).thenReturn(savedDto);
 
@@ -138,7 +156,7 @@ class TickerControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.tickerId", is(2)))
                 .andExpect(jsonPath("$.symbol", is("ETHUSDT")))
-                .andExpect(jsonPath("$.lastPrice", is("3000.00")));
+                .andExpect(jsonPath("$.lastPrice", is("3000")));
 
         verify(tickerService).saveTicker(any(TickerDto.class));
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
@@ -169,7 +187,7 @@ class TickerControllerTest {
         TickerDto updateDto = new TickerDto();
         updateDto.setTickerId(1L);
         updateDto.setSymbol("BTCUSDT");
-        updateDto.setLastPrice("51000.00");
+        updateDto.setLastPrice(new BigDecimal("51000.00"));
 
         when(tickerService.updateTicker(any(TickerDto.class))).thenReturn(updateDto);
 
@@ -183,7 +201,7 @@ class TickerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.tickerId", is(1)))
-                .andExpect(jsonPath("$.lastPrice", is("51000.00")));
+                .andExpect(jsonPath("$.lastPrice", is("51000")));
 
         verify(tickerService).updateTicker(any(TickerDto.class));
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
@@ -259,12 +277,34 @@ class TickerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.symbol", is("BTCUSDT")))
-                .andExpect(jsonPath("$.lastPrice", is("50000.00")));
+                .andExpect(jsonPath("$.lastPrice", is("50000")));
 
         verify(tickerService).getLatestTickerBySymbol(symbol);
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
     }
 
+    @Test
+    @WithMockUser
+    void shouldGetLatestTickersForSymbols() throws Exception {
+        // Given
+        when(tickerService.getLatestTickersBySymbols(List.of("BTCUSDT", "ETHUSDT")))
+                .thenReturn(Map.of("BTCUSDT", tickerDto));
+
+        // When & Then
+        mockMvc.perform(get("/internal/ticker/latest")
+                        .param("symbols", "BTCUSDT,ETHUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.BTCUSDT.lastPrice", is("50000")))
+                .andExpect(jsonPath("$.ETHUSDT").doesNotExist());
+
+        verify(tickerService).getLatestTickersBySymbols(List.of("BTCUSDT", "ETHUSDT"));
+        verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
+    }
+
     @Test
     @WithMockUser
     void shouldGetTickersBySymbol() throws Exception {
@@ -318,6 +358,52 @@ class TickerControllerTest {
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
     }
 
+    @Test
+    @WithMockUser
+    void shouldGetTickersBySymbolWithinTimeRange() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        PageImpl<TickerDto> page = new PageImpl<>(List.of(tickerDto), PageRequest.of(0, 20), 1);
+
+        when(tickerService.getTickersBySymbolBetween(symbol, 1000L, 2000L, 0, 20, "eventTimestamp", "asc")).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/internal/ticker/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("from", "1000")
+                        .param("to", "2000")
+                        .param("sortBy", "eventTimestamp")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].tickerId", is(1)));
+
+        verify(tickerService).getTickersBySymbolBetween(symbol, 1000L, 2000L, 0, 20, "eventTimestamp", "asc");
+        verify(tickerService, never()).getTickersBySymbol(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldOpenTickerTimeRangeWhenOnlyOneBoundIsGiven() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        PageImpl<TickerDto> page = new PageImpl<>(List.of(tickerDto), PageRequest.of(0, 20), 1);
+
+        when(tickerService.getTickersBySymbolBetween(symbol, 1000L, Long.MAX_VALUE, 0, 20, "id", "asc")).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/internal/ticker/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("from", "1000")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+
+        verify(tickerService).getTickersBySymbolBetween(symbol, 1000L, Long.MAX_VALUE, 0, 20, "id", "asc");
+    }
+
     // Security Tests
 
     @Test
@@ -459,8 +545,107 @@ class TickerControllerTest {
                     .andExpect(status().isOk());
         }
 
-        // Verify that UserRepository was called for each endpoint
-        verify(userRepository, times(endpoints.length))
+        // Every endpoint was authenticated, the key itself was looked up once and then cached
+        verify(userRepository, times(1))
                 .findByApiKeyAndActive(VALID_API_KEY, true);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void shouldIngestTickerBatchFromNdjson() throws Exception {
+        // Given
+        BatchResult result = new BatchResult();
+        result.add(BatchItemStatus.created(0));
+        result.add(BatchItemStatus.rejected(1, "Invalid symbol: DOGEXYZ"));
+        when(batchIngestService.ingestTickers(any())).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/internal/ticker/batch")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"symbol\":\"BTCUSDT\",\"eventType\":\"24hrTicker\",\"lastPrice\":\"50000.00\"}\n{\"symbol\":\"DOGEXYZ\",\"eventType\":\"24hrTicker\",\"lastPrice\":\"1.00\"}\n")
+                        .with(csrf()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].index", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("REJECTED")));
+
+        verify(batchIngestService).ingestTickers(any());
+        verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldScrollTickersBySymbolWithCursor() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        CursorPage<TickerDto> firstSlice = new CursorPage<>(List.of(tickerDto), 1, true, "bmV4dA");
+        when(tickerService.scrollTickersBySymbol(symbol, "", 1, "id", "asc")).thenReturn(firstSlice);
+
+        // When & Then
+        mockMvc.perform(get("/internal/ticker/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is("bmV4dA")))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(tickerService).scrollTickersBySymbol(symbol, "", 1, "id", "asc");
+        verify(tickerService, never()).getTickersBySymbol(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldGetOnlyRequestedTickerFieldsBySymbol() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("lastPrice", "50000");
+        row.put("priceChangePercent", "2");
+        PageImpl<Map<String, Object>> page = new PageImpl<>(List.of(row), PageRequest.of(0, 20), 1);
+        when(tickerService.getTickerFieldsBySymbol(eq(symbol),
+                argThat(fields -> fields.getPaths().keySet().equals(Set.of("lastPrice", "priceChangePercent"))),
+                eq(0), eq(20), eq("id"), eq("asc"))).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/internal/ticker/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("fields", "lastPrice, priceChangePercent")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].lastPrice", is("50000")))
+                .andExpect(jsonPath("$.content[0].priceChangePercent", is("2")))
+                .andExpect(jsonPath("$.content[0].symbol").doesNotExist());
+
+        verify(tickerService, never()).getTickersBySymbol(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNarrowLatestTickerToRequestedFields() throws Exception {
+        // Given
+        when(tickerService.getLatestTickerBySymbol("BTCUSDT")).thenReturn(tickerDto);
+
+        // When & Then
+        mockMvc.perform(get("/internal/ticker/symbol/{symbol}/latest", "BTCUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("fields", "symbol,lastPrice")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.*", hasSize(2)))
+                .andExpect(jsonPath("$.symbol", is("BTCUSDT")))
+                .andExpect(jsonPath("$.lastPrice", is("50000")));
+    }
+}
@@ -1,10 +1,24 @@
 package com.example.query.controller;
 
+import com.example.query.configuration.ApiKeyAuthFilter;
+import com.example.query.configuration.MarketDataProtobufConverter;
 import com.example.query.entity.UserEntity;
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.BatchResult;
+import com.example.query.model.CandleDto;
+import com.example.query.model.CursorPage;
+import com.example.query.model.ExportFormat;
+import com.example.query.model.SparseFields;
 import com.example.query.model.TradeDto;
+import com.example.query.proto.Decimal;
+import com.example.query.proto.Trade;
+import com.example.query.proto.TradePage;
 import com.example.query.repository.UserRepository;
+import com.example.query.service.BatchIngestService;
 import com.example.query.service.TradeService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,13 +29,23 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,6 +64,9 @@ class TradeControllerTest {
     @MockBean
     private TradeService tradeService;
 
+    @MockBean
+    private BatchIngestService batchIngestService;
+
 
     @MockBean
     private UserRepository userRepository;
@@ -47,16 +74,21 @@ class TradeControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApiKeyAuthFilter apiKeyAuthFilter;
+
     private TradeDto tradeDto;
     private UserEntity mockUser;
     @BeforeEach
     void setUp() {
+        apiKeyAuthFilter.revokeAll();
+
         tradeDto = new TradeDto();
         tradeDto.setTradeId(12345L);
         tradeDto.setSymbol("BTCUSDT");
         tradeDto.setEventType("trade");
-        tradeDto.setPrice("50000.00");
-        tradeDto.setQuantity("0.001");
+        tradeDto.setPrice(new BigDecimal("50000.00"));
+        tradeDto.setQuantity(new BigDecimal("0.001"));
         tradeDto.setTradeTime(System.currentTimeMillis());
         tradeDto.setIsBuyerMarketMaker(true);
         tradeDto.setEventTimestamp(System.currentTimeMillis());
@@ -101,7 +133,7 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.tradeId", is(12345)))
                 .andExpect(jsonPath("$.symbol", is("BTCUSDT")))
                 .andExpect(jsonPath("$.eventType", is("trade")))
-                .andExpect(jsonPath("$.price", is("50000.00")))
+                .andExpect(jsonPath("$.price", is("50000")))
                 .andExpect(jsonPath("$.quantity", is("0.001")))
                 .andExpect(jsonPath("$.isBuyerMarketMaker", is(true)));
 
@@ -117,15 +149,15 @@ class TradeControllerTest {
         TradeDto inputDto = new TradeDto();
         inputDto.setSymbol("ETHUSDT");
         inputDto.setEventType("trade");
-        inputDto.setPrice("3000.00");
-        inputDto.setQuantity("0.5");
+        inputDto.setPrice(new BigDecimal("3000.00"));
+        inputDto.setQuantity(new BigDecimal("0.5"));
 
         TradeDto savedDto = new TradeDto();
         savedDto.setTradeId(67890L);
         savedDto.setSymbol("ETHUSDT");
         savedDto.setEventType("trade");
-        savedDto.setPrice("3000.00");
-        savedDto.setQuantity("0.5");
+        savedDto.setPrice(new BigDecimal("3000.00"));
+        savedDto.setQuantity(new BigDecimal("0.5"));
 
         when(tradeService.saveTrade(any(TradeDto.class))).thenReturn(savedDto);
 
@@ -140,7 +172,7 @@ class TradeControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.tradeId", is(67890)))
                 .andExpect(jsonPath("$.symbol", is("ETHUSDT")))
-                .andExpect(jsonPath("$.price", is("3000.00")))
+                .andExpect(jsonPath("$.price", is("3000")))
                 .andExpect(jsonPath("$.quantity", is("0.5")));
 
         verify(tradeService).saveTrade(any(TradeDto.class));
@@ -153,7 +185,7 @@ class TradeControllerTest {
     void shouldDeleteTrade() throws Exception {
         // Given
         Long tradeId = 12345L;
-        doNothing().when(tradeService).deleteByTradeId(tradeId);
+        doNothing().when(tradeService).deleteByTradeId(tradeId, null);
 
         // When & Then
         mockMvc.perform(delete("/internal/trade/{tradeId}", tradeId)
@@ -162,7 +194,7 @@ class TradeControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk());
 
-        verify(tradeService).deleteByTradeId(tradeId);
+        verify(tradeService).deleteByTradeId(tradeId, null);
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
 
     }
@@ -174,8 +206,8 @@ class TradeControllerTest {
         TradeDto updateDto = new TradeDto();
         updateDto.setTradeId(12345L);
         updateDto.setSymbol("BTCUSDT");
-        updateDto.setPrice("51000.00");
-        updateDto.setQuantity("0.002");
+        updateDto.setPrice(new BigDecimal("51000.00"));
+        updateDto.setQuantity(new BigDecimal("0.002"));
 
         when(tradeService.updateTrade(any(TradeDto.class))).thenReturn(updateDto);
 
@@ -189,7 +221,7 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.tradeId", is(12345)))
-                .andExpect(jsonPath("$.price", is("51000.00")))
+                .andExpect(jsonPath("$.price", is("51000")))
                 .andExpect(jsonPath("$.quantity", is("0.002")));
 
         verify(tradeService).updateTrade(any(TradeDto.class));
@@ -269,13 +301,40 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.symbol", is("BTCUSDT")))
-                .andExpect(jsonPath("$.price", is("50000.00")));
+                .andExpect(jsonPath("$.price", is("50000")));
 
         verify(tradeService).getLatestTradeBySymbol(symbol);
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
 
     }
 
+    @Test
+    @WithMockUser
+    void shouldGetLatestTradesForSymbols() throws Exception {
+        // Given
+        TradeDto ethTrade = new TradeDto();
+        ethTrade.setSymbol("ETHUSDT");
+        ethTrade.setPrice(new BigDecimal("3000.00"));
+        Map<String, TradeDto> latest = new LinkedHashMap<>();
+        latest.put("BTCUSDT", tradeDto);
+        latest.put("ETHUSDT", ethTrade);
+        when(tradeService.getLatestTradesBySymbols(List.of("BTCUSDT", "ETHUSDT"))).thenReturn(latest);
+
+        // When & Then
+        mockMvc.perform(get("/internal/trade/latest")
+                        .param("symbols", "BTCUSDT,ETHUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.BTCUSDT.price", is("50000")))
+                .andExpect(jsonPath("$.ETHUSDT.price", is("3000")));
+
+        verify(tradeService).getLatestTradesBySymbols(List.of("BTCUSDT", "ETHUSDT"));
+        verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
+    }
+
     @Test
     @WithMockUser
     void shouldGetTradesBySymbol() throws Exception {
@@ -382,8 +441,8 @@ class TradeControllerTest {
         TradeDto inputDto = new TradeDto();
         inputDto.setSymbol("ADAUSDT");
         inputDto.setEventType("trade");
-        inputDto.setPrice("1.50");
-        inputDto.setQuantity("100.0");
+        inputDto.setPrice(new BigDecimal("1.50"));
+        inputDto.setQuantity(new BigDecimal("100.0"));
         inputDto.setIsBuyerMarketMaker(false);
 
         TradeDto savedDto = new TradeDto();
@@ -407,4 +466,353 @@ class TradeControllerTest {
         verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
 
     }
+
+    @Test
+    @WithMockUser
+    void shouldServeRepeatedApiKeyLookupsFromCache() throws Exception {
+        // Given
+        Long tradeId = 12345L;
+        when(tradeService.getTradeByTradeId(tradeId)).thenReturn(tradeDto);
+
+        // When & Then
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/internal/trade/{tradeId}", tradeId)
+                            .header("X-API-KEY", VALID_API_KEY)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+
+        verify(tradeService, times(3)).getTradeByTradeId(tradeId);
+        verify(userRepository, times(1)).findByApiKeyAndActive(VALID_API_KEY, true);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRejectRevokedApiKeyOnNextRequest() throws Exception {
+        // Given
+        Long tradeId = 12345L;
+        when(tradeService.getTradeByTradeId(tradeId)).thenReturn(tradeDto);
+
+        mockMvc.perform(get("/internal/trade/{tradeId}", tradeId)
+                        .header("X-API-KEY", VALID_API_KEY))
+                .andExpect(status().isOk());
+
+        // When
+        when(userRepository.findByApiKeyAndActive(VALID_API_KEY, true)).thenReturn(Optional.empty());
+        apiKeyAuthFilter.revoke(VALID_API_KEY);
+
+        // Then
+        mockMvc.perform(get("/internal/trade/{tradeId}", tradeId)
+                        .header("X-API-KEY", VALID_API_KEY))
+                .andExpect(status().isUnauthorized());
+
+        verify(tradeService, times(1)).getTradeByTradeId(tradeId);
+        verify(userRepository, times(2)).findByApiKeyAndActive(VALID_API_KEY, true);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldCacheUnknownApiKeys() throws Exception {
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/internal/trade/12345")
+                            .header("X-API-KEY", INVALID_API_KEY))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        verify(tradeService, never()).getTradeByTradeId(any());
+        verify(userRepository, times(1)).findByApiKeyAndActive(INVALID_API_KEY, true);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldIngestTradeBatchFromNdjson() throws Exception {
+        // Given
+        BatchResult result = new BatchResult();
+        result.add(BatchItemStatus.created(0));
+        result.add(BatchItemStatus.rejected(1, "Invalid symbol: DOGEXYZ"));
+        when(batchIngestService.ingestTrades(any())).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/internal/trade/batch")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"symbol\":\"BTCUSDT\",\"eventType\":\"trade\",\"tradeId\":1,\"price\":\"50000.00\",\"quantity\":\"0.001\"}\n{\"symbol\":\"DOGEXYZ\",\"eventType\":\"trade\",\"tradeId\":2,\"price\":\"1.00\",\"quantity\":\"1\"}\n")
+                        .with(csrf()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].index", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("REJECTED")));
+
+        verify(batchIngestService).ingestTrades(any());
+        verify(userRepository).findByApiKeyAndActive(VALID_API_KEY, true);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldScrollTradesBySymbolWithCursor() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        CursorPage<TradeDto> firstSlice = new CursorPage<>(List.of(tradeDto), 1, true, "bmV4dA");
+        when(tradeService.scrollTradesBySymbol(symbol, "", 1, "tradeId", "asc")).thenReturn(firstSlice);
+
+        // When & Then
+        mockMvc.perform(get("/internal/trade/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is("bmV4dA")))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(tradeService).scrollTradesBySymbol(symbol, "", 1, "tradeId", "asc");
+        verify(tradeService, never()).getTradesBySymbol(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldStreamTradeExportAsNdjson() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        StreamingResponseBody body = out -> out.write("{\"tradeId\":12345}\n".getBytes(StandardCharsets.UTF_8));
+        when(tradeService.exportTrades(symbol, 1000L, 2000L, ExportFormat.NDJSON)).thenReturn(body);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/internal/trade/symbol/{symbol}/export", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("from", "1000")
+                        .param("to", "2000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", containsString("BTCUSDT-trades.ndjson")))
+                .andExpect(content().string("{\"tradeId\":12345}\n"));
+
+        verify(tradeService).exportTrades(symbol, 1000L, 2000L, ExportFormat.NDJSON);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldKeepNumericPricesAsPlainStringsOnTheWire() throws Exception {
+        // Given
+        TradeDto savedDto = new TradeDto();
+        savedDto.setTradeId(4242L);
+        savedDto.setSymbol("SHIBUSDT");
+        savedDto.setPrice(new BigDecimal("0.00000001"));
+        savedDto.setQuantity(new BigDecimal("125000000.00000000"));
+
+        when(tradeService.saveTrade(any(TradeDto.class))).thenReturn(savedDto);
+
+        // When & Then
+        mockMvc.perform(post("/internal/trade")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"symbol\":\"SHIBUSDT\",\"eventType\":\"trade\",\"price\":\"0.00000001\",\"quantity\":\"125000000\"}")
+                        .with(csrf()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price", is("0.00000001")))
+                .andExpect(jsonPath("$.quantity", is("125000000")));
+
+        verify(tradeService).saveTrade(argThat(dto -> new BigDecimal("0.00000001").compareTo(dto.getPrice()) == 0));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldGetTradesBySymbolWithinTimeRange() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        PageImpl<TradeDto> page = new PageImpl<>(List.of(tradeDto), PageRequest.of(0, 20), 1);
+
+        when(tradeService.getTradesBySymbolBetween(symbol, 1000L, 2000L, 0, 20, "tradeTime", "asc")).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/internal/trade/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("from", "1000")
+                        .param("to", "2000")
+                        .param("sortBy", "tradeTime")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].tradeId", is(12345)));
+
+        verify(tradeService).getTradesBySymbolBetween(symbol, 1000L, 2000L, 0, 20, "tradeTime", "asc");
+        verify(tradeService, never()).getTradesBySymbol(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldGetCandlesForSymbol() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        CandleDto candle = new CandleDto(60000L, 119999L,
+                new BigDecimal("50000.10"), new BigDecimal("50100.00"), new BigDecimal("49900.00"),
+                new BigDecimal("50050.00"), new BigDecimal("12.50000000"), 42L);
+
+        when(tradeService.getCandles(symbol, "1m", 60000L, 180000L)).thenReturn(List.of(candle));
+
+        // When & Then
+        mockMvc.perform(get("/internal/trade/symbol/{symbol}/candles", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("interval", "1m")
+                        .param("from", "60000")
+                        .param("to", "180000")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].openTime", is(60000)))
+                .andExpect(jsonPath("$[0].open", is("50000.1")))
+                .andExpect(jsonPath("$[0].close", is("50050")))
+                .andExpect(jsonPath("$[0].volume", is("12.5")))
+                .andExpect(jsonPath("$[0].tradeCount", is(42)));
+
+        verify(tradeService).getCandles(symbol, "1m", 60000L, 180000L);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldGetOnlyRequestedTradeFieldsInTimeRange() throws Exception {
+        // Given
+        String symbol = "BTCUSDT";
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("price", "50000");
+        row.put("tradeTime", 1500L);
+        PageImpl<Map<String, Object>> page = new PageImpl<>(List.of(row), PageRequest.of(0, 20), 1);
+        when(tradeService.getTradeFieldsBySymbolBetween(eq(symbol), eq(1000L), eq(2000L),
+                argThat(fields -> fields.getPaths().keySet().equals(Set.of("price", "tradeTime"))),
+                eq(0), eq(20), eq("tradeId"), eq("asc"))).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/internal/trade/symbol/{symbol}", symbol)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("fields", "price,tradeTime")
+                        .param("from", "1000")
+                        .param("to", "2000")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].price", is("50000")))
+                .andExpect(jsonPath("$.content[0].tradeTime", is(1500)));
+
+        verify(tradeService, never()).getTradesBySymbolBetween(any(), anyLong(), anyLong(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNarrowTradeByTradeIdToRequestedFields() throws Exception {
+        // Given
+        when(tradeService.getTradeFieldsByTradeId(eq(12345L),
+                argThat(fields -> fields.getPaths().keySet().equals(Set.of("tradeId", "quantity", "isBuyerMarketMaker")))))
+                .thenReturn(SparseFields.ofTrade("tradeId,quantity,isBuyerMarketMaker").project(tradeDto));
+
+        // When & Then
+        mockMvc.perform(get("/internal/trade/{tradeId}", 12345L)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("fields", "tradeId,quantity,isBuyerMarketMaker")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.*", hasSize(3)))
+                .andExpect(jsonPath("$.tradeId", is(12345)))
+                .andExpect(jsonPath("$.quantity", is("0.001")))
+                .andExpect(jsonPath("$.isBuyerMarketMaker", is(true)));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNegotiateCborWithNativeDecimals() throws Exception {
+        // Given
+        when(tradeService.getTradeByTradeId(12345L)).thenReturn(tradeDto);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/internal/trade/{tradeId}", 12345L)
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // Then
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.get("tradeId").asLong(), is(12345L));
+        assertThat(body.get("price").isNumber(), is(true));
+        assertThat(body.get("price").decimalValue(), comparesEqualTo(new BigDecimal("50000.00")));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNegotiateProtobufTradePage() throws Exception {
+        // Given
+        PageImpl<TradeDto> page = new PageImpl<>(List.of(tradeDto), PageRequest.of(0, 20), 1);
+        when(tradeService.getTradesBySymbol("BTCUSDT", 0, 20, "tradeId", "asc")).thenReturn(page);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/internal/trade/symbol/{symbol}", "BTCUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .accept(MarketDataProtobufConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MarketDataProtobufConverter.PROTOBUF))
+                .andReturn();
+
+        // Then
+        TradePage body = TradePage.parseFrom(result.getResponse().getContentAsByteArray());
+        assertThat(body.getContentList(), hasSize(1));
+        Trade trade = body.getContent(0);
+        assertThat(trade.getTradeId(), is(12345L));
+        assertThat(trade.getEventType(), is("trade"));
+        assertThat(trade.getEventTimestamp(), is(tradeDto.getEventTimestamp()));
+        assertThat(trade.getSymbol(), is("BTCUSDT"));
+        assertThat(trade.getPrice(), is(Decimal.newBuilder().setUnscaled(5_000_000L).setScale(2).build()));
+        assertThat(trade.getQuantity(), is(Decimal.newBuilder().setUnscaled(1L).setScale(3).build()));
+        assertThat(trade.getTradeTime(), is(tradeDto.getTradeTime()));
+        assertThat(trade.getIsBuyerMarketMaker(), is(true));
+        assertThat(body.getTotalElements(), is(1L));
+        assertThat(body.getNumber(), is(0));
+        assertThat(body.getSize(), is(20));
+        assertThat(body.getHasNext(), is(false));
+        assertThat(body.hasNextCursor(), is(false));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNegotiateProtobufCursorPage() throws Exception {
+        // Given
+        CursorPage<TradeDto> firstSlice = new CursorPage<>(List.of(tradeDto), 1, true, "bmV4dA");
+        when(tradeService.scrollTradesBySymbol("BTCUSDT", "", 1, "tradeId", "asc")).thenReturn(firstSlice);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/internal/trade/symbol/{symbol}", "BTCUSDT")
+                        .header("X-API-KEY", VALID_API_KEY)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .accept(MarketDataProtobufConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MarketDataProtobufConverter.PROTOBUF))
+                .andReturn();
+
+        // Then
+        TradePage body = TradePage.parseFrom(result.getResponse().getContentAsByteArray());
+        assertThat(body.getContentList(), hasSize(1));
+        assertThat(body.getNextCursor(), is("bmV4dA"));
+        assertThat(body.getHasNext(), is(true));
+        assertThat(body.getSize(), is(1));
+        assertThat(body.getTotalElements(), is(0L));
+    }
 }
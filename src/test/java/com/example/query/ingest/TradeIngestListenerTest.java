@@ -0,0 +1,121 @@
+package com.example.query.ingest;
+
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.TradeDto;
+import com.example.query.service.TradeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class TradeIngestListenerTest {
+
+    private TradeService tradeService;
+    private Acknowledgment acknowledgment;
+    private Consumer<?, ?> consumer;
+    private TradeIngestListener listener;
+
+    @BeforeEach
+    void setUp() {
+        tradeService = mock(TradeService.class);
+        acknowledgment = mock(Acknowledgment.class);
+        consumer = mock(Consumer.class);
+        listener = new TradeIngestListener(tradeService, new ObjectMapper());
+    }
+
+    @Test
+    void shouldSaveParsedTradesAndSkipUnparseableRecords() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, trade(1)), record(1, "{not json"), record(2, null), record(3, trade(2)));
+        when(tradeService.saveTrades(anyList()))
+                .thenReturn(List.of(BatchItemStatus.created(0), BatchItemStatus.rejected(1, "Invalid symbol: DOGEXYZ")));
+
+        // When
+        listener.onTrades(records, acknowledgment, consumer);
+
+        // Then
+        verify(tradeService).saveTrades(argThat(trades -> trades.size() == 2
+                && trades.get(0).getTradeId() == 1 && trades.get(1).getTradeId() == 2));
+        verify(acknowledgment).acknowledge();
+        assertThat(listener.getStats().getRecords(), is(2L));
+        assertThat(listener.getStats().getRejected(), is(1L));
+        assertThat(listener.getStats().getUnparseable(), is(1L));
+    }
+
+    @Test
+    void shouldSingleOutRecordRejectedByDatabase() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(record(0, trade(1)), record(1, trade(2)), record(2, trade(3)));
+        when(tradeService.saveTrades(argThat(trades -> trades != null && trades.size() == 3)))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'symbol'"));
+        when(tradeService.saveTrades(argThat(trades -> trades != null && trades.size() == 1 && trades.get(0).getTradeId() == 1)))
+                .thenReturn(List.of(BatchItemStatus.created(0)));
+        when(tradeService.saveTrades(argThat(trades -> trades != null && trades.size() == 1 && trades.get(0).getTradeId() == 2)))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'symbol'"));
+
+        // When
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> listener.onTrades(records, acknowledgment, consumer));
+
+        // Then
+        assertThat(failure.getRecord(), sameInstance(records.get(1)));
+        assertThat(failure.getCause(), instanceOf(DataIntegrityViolationException.class));
+        verify(tradeService, never()).saveTrades(argThat(trades -> trades != null && trades.size() == 1 && trades.get(0).getTradeId() == 3));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void shouldReportItemStatusesAtBatchPositionsAfterIsolating() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(record(0, trade(1)), record(1, trade(2)));
+        when(tradeService.saveTrades(argThat(trades -> trades != null && trades.size() == 2)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(tradeService.saveTrades(argThat(trades -> trades != null && trades.size() == 1)))
+                .thenReturn(List.of(BatchItemStatus.created(0)))
+                .thenReturn(List.of(BatchItemStatus.rejected(0, "Invalid event type: aggTrade")));
+
+        // When
+        listener.onTrades(records, acknowledgment, consumer);
+
+        // Then
+        verify(acknowledgment).acknowledge();
+        assertThat(listener.getStats().getRecords(), is(2L));
+        assertThat(listener.getStats().getRejected(), is(1L));
+    }
+
+    @Test
+    void shouldRetryWholeBatchWhenDatabaseIsUnavailable() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(record(0, trade(1)), record(1, trade(2)));
+        when(tradeService.saveTrades(anyList())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        // When & Then
+        assertThrows(DataAccessResourceFailureException.class, () -> listener.onTrades(records, acknowledgment, consumer));
+        verify(tradeService, times(1)).saveTrades(anyList());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>("trades", 0, offset, "BTCUSDT", value);
+    }
+
+    private static String trade(long tradeId) {
+        return "{\"tradeId\":" + tradeId + ",\"symbol\":\"BTCUSDT\",\"eventType\":\"trade\",\"price\":\"50000.00\","
+                + "\"quantity\":\"0.001\",\"tradeTime\":1700000000000,\"eventTimestamp\":1700000000000}";
+    }
+}
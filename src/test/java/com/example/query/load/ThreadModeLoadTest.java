@@ -0,0 +1,184 @@
+package com.example.query.load;
+
+import com.example.query.QueryApplication;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput and p99 latency of the paged trade listing with platform and virtual request
+ * threads against the same MySQL, and records JFR pinning events while the virtual run is under load.
+ * Excluded from the default build; run with {@code mvn test -Pload-test}.
+ */
+@Slf4j
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+class ThreadModeLoadTest {
+
+    private static final String API_KEY = "load-test-key";
+    private static final int CLIENTS = 400;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @BeforeAll
+    static void createSchema() {
+        try (ConfigurableApplicationContext context = start(false, "create")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("INSERT INTO event_type (type) VALUES ('trade')");
+            jdbcTemplate.update("INSERT INTO symbol (name) VALUES ('BTCUSDT'), ('ETHUSDT')");
+            jdbcTemplate.update("INSERT INTO user (id, api_key, active) VALUES (1, ?, true)", API_KEY);
+
+            List<Object[]> trades = new ArrayList<>();
+            for (int i = 0; i < 50_000; i++) {
+                trades.add(new Object[]{i + 1, i % 2 + 1, i, 1_700_000_000_000L + i * 100L});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, trade_time, price, quantity, created_at) "
+                    + "SELECT ?, id, ?, ?, ?, 1.5, 2.5, NOW() FROM event_type WHERE type = 'trade'", trades);
+        }
+    }
+
+    @Test
+    void virtualThreadsKeepUpWithPlatformThreads() throws Exception {
+        Result platform;
+        try (ConfigurableApplicationContext context = start(false, "none")) {
+            platform = run(port(context));
+        }
+
+        Result virtual;
+        List<String> pinnedStacks = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start(true, "none");
+             RecordingStream pinning = new RecordingStream()) {
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinnedStacks.add(describe(event)));
+            pinning.startAsync();
+            virtual = run(port(context));
+        }
+
+        log.info("platform: {}, virtual: {}, pinned events: {}", platform, virtual, pinnedStacks.size());
+
+        assertThat(platform.errors()).as("platform: %s", platform).isZero();
+        assertThat(virtual.errors()).as("virtual: %s", virtual).isZero();
+        assertThat(pinnedStacks).as("pinned in the driver or pool")
+                .noneMatch(stack -> stack.contains("com.mysql") || stack.contains("com.zaxxer"));
+    }
+
+    /**
+     * Settings go in as command-line arguments: builder properties are only defaults, and
+     * application.properties would point the app back at localhost:3306 and port 8092.
+     */
+    private static ConfigurableApplicationContext start(boolean virtualThreads, String ddlAuto) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(QueryApplication.class);
+        if (virtualThreads) {
+            builder.profiles("virtual");
+        }
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=" + mysql.getJdbcUrl(),
+                "--spring.datasource.username=" + mysql.getUsername(),
+                "--spring.datasource.password=" + mysql.getPassword(),
+                "--spring.datasource.hikari.maximum-pool-size=50",
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--query.cache.latest.warm-on-startup=false"
+        );
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    private static Result run(int port) throws InterruptedException {
+        ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long warmUpEnd = System.nanoTime() + WARM_UP.toNanos();
+        long end = warmUpEnd + MEASURE.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    long[] latencies = new long[1 << 16];
+                    int count = 0;
+                    while (System.nanoTime() < end) {
+                        String symbol = ThreadLocalRandom.current().nextBoolean() ? "BTCUSDT" : "ETHUSDT";
+                        int page = ThreadLocalRandom.current().nextInt(500);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                        + "/internal/trade/symbol/" + symbol + "?page=" + page + "&size=20&sortBy=tradeTime"))
+                                .header("X-API-KEY", API_KEY)
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            int status = CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (start >= warmUpEnd && count < latencies.length) {
+                            latencies[count++] = System.nanoTime() - start;
+                        }
+                    }
+                    samples.add(Arrays.copyOf(latencies, count));
+                });
+            }
+        }
+
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double throughput = all.length / (double) MEASURE.toSeconds();
+        long p50 = all.length == 0 ? 0 : all[(int) (all.length * 0.50)];
+        long p99 = all.length == 0 ? 0 : all[(int) (all.length * 0.99)];
+        return new Result(throughput, Duration.ofNanos(p50), Duration.ofNanos(p99), errors.get());
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder stack = new StringBuilder("pinned " + event.getDuration().toMillis() + "ms");
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                stack.append("\n    at ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName());
+            }
+        }
+        return stack.toString();
+    }
+
+    private record Result(double requestsPerSecond, Duration p50, Duration p99, long errors) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %d ms, p99 %d ms, %d errors",
+                    requestsPerSecond, p50.toMillis(), p99.toMillis(), errors);
+        }
+    }
+}
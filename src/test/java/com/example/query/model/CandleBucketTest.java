@@ -0,0 +1,108 @@
+package com.example.query.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class CandleBucketTest {
+
+    @Test
+    void shouldTrackOhlcvByTradeTimeNotArrivalOrder() {
+        // Given
+        CandleBucket bucket = new CandleBucket(1, 60_000L, 0L);
+
+        // When
+        bucket.add(30_000L, new BigDecimal("101"), new BigDecimal("1"));
+        bucket.add(10_000L, new BigDecimal("100"), new BigDecimal("0.5"));
+        bucket.add(50_000L, new BigDecimal("99"), new BigDecimal("2"));
+        bucket.add(20_000L, new BigDecimal("105"), new BigDecimal("0.25"));
+
+        // Then
+        assertThat(bucket.getOpen(), comparesEqualTo(new BigDecimal("100")));
+        assertThat(bucket.getHigh(), comparesEqualTo(new BigDecimal("105")));
+        assertThat(bucket.getLow(), comparesEqualTo(new BigDecimal("99")));
+        assertThat(bucket.getClose(), comparesEqualTo(new BigDecimal("99")));
+        assertThat(bucket.getVolume(), comparesEqualTo(new BigDecimal("3.75")));
+        assertThat(bucket.getTradeCount(), is(4L));
+        assertThat(bucket.getFirstTradeTime(), is(10_000L));
+        assertThat(bucket.getLastTradeTime(), is(50_000L));
+    }
+
+    @Test
+    void shouldCloseOnTheLaterArrivalWhenTradeTimesTie() {
+        // Given
+        CandleBucket bucket = new CandleBucket(1, 60_000L, 0L);
+
+        // When
+        bucket.add(10_000L, new BigDecimal("1"), BigDecimal.ONE);
+        bucket.add(10_000L, new BigDecimal("2"), BigDecimal.ONE);
+
+        // Then
+        assertThat(bucket.getOpen(), comparesEqualTo(new BigDecimal("1")));
+        assertThat(bucket.getClose(), comparesEqualTo(new BigDecimal("2")));
+    }
+
+    @Test
+    void shouldMergePartialBucketsInEitherOrder() {
+        // Given
+        CandleBucket early = new CandleBucket(1, 60_000L, 0L);
+        early.add(5_000L, new BigDecimal("10"), new BigDecimal("1"));
+        early.add(15_000L, new BigDecimal("12"), new BigDecimal("1"));
+        CandleBucket late = new CandleBucket(1, 60_000L, 0L);
+        late.add(40_000L, new BigDecimal("8"), new BigDecimal("2"));
+
+        // When
+        CandleBucket earlyFirst = early.copy();
+        earlyFirst.merge(late);
+        CandleBucket lateFirst = late.copy();
+        lateFirst.merge(early);
+
+        // Then
+        for (CandleBucket merged : new CandleBucket[]{earlyFirst, lateFirst}) {
+            assertThat(merged.getOpen(), comparesEqualTo(new BigDecimal("10")));
+            assertThat(merged.getHigh(), comparesEqualTo(new BigDecimal("12")));
+            assertThat(merged.getLow(), comparesEqualTo(new BigDecimal("8")));
+            assertThat(merged.getClose(), comparesEqualTo(new BigDecimal("8")));
+            assertThat(merged.getVolume(), comparesEqualTo(new BigDecimal("4")));
+            assertThat(merged.getTradeCount(), is(3L));
+        }
+    }
+
+    @Test
+    void shouldIgnoreMergingAnEmptyBucket() {
+        // Given
+        CandleBucket bucket = new CandleBucket(1, 60_000L, 0L);
+        bucket.add(5_000L, new BigDecimal("10"), new BigDecimal("1"));
+
+        // When
+        bucket.merge(new CandleBucket(1, 60_000L, 0L));
+
+        // Then
+        assertThat(bucket.getTradeCount(), is(1L));
+        assertThat(bucket.getOpen(), comparesEqualTo(new BigDecimal("10")));
+        assertThat(new CandleBucket(1, 60_000L, 0L).copy().getOpen(), is(nullValue()));
+    }
+
+    @Test
+    void shouldCopyIndependentlyAndExposeTheBucketBounds() {
+        // Given
+        CandleBucket bucket = new CandleBucket(1, 60_000L, 120_000L);
+        bucket.add(130_000L, new BigDecimal("10"), new BigDecimal("1"));
+
+        // When
+        CandleBucket copy = bucket.copy();
+        bucket.add(140_000L, new BigDecimal("11"), new BigDecimal("1"));
+        CandleDto dto = copy.toDto();
+
+        // Then
+        assertThat(copy.getTradeCount(), is(1L));
+        assertThat(dto.getOpenTime(), is(120_000L));
+        assertThat(dto.getCloseTime(), is(179_999L));
+        assertThat(dto.getClose(), comparesEqualTo(new BigDecimal("10")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.query.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SparseFieldsTest {
+
+    @Test
+    void shouldKeepRequestOrderAndMapAssociationPaths() {
+        // When
+        SparseFields fields = SparseFields.ofTrade(" price, symbol ,eventType,tradeId,,price");
+
+        // Then
+        assertThat(fields.getPaths().keySet(), contains("price", "symbol", "eventType", "tradeId"));
+        assertThat(fields.getPaths(), allOf(
+                hasEntry("price", "price"),
+                hasEntry("symbol", "symbol.name"),
+                hasEntry("eventType", "eventType.type"),
+                hasEntry("tradeId", "tradeId")));
+    }
+
+    @Test
+    void shouldMapTheTickerIdToTheEntityId() {
+        // When
+        SparseFields fields = SparseFields.ofTicker("tickerId,lastPrice");
+
+        // Then
+        assertThat(fields.getPaths(), is(Map.of("tickerId", "id", "lastPrice", "lastPrice")));
+    }
+
+    @Test
+    void shouldRejectFieldsOfTheOtherTypeOrUnknownOnes() {
+        // When
+        IllegalArgumentException tickerField = assertThrows(IllegalArgumentException.class,
+                () -> SparseFields.ofTrade("tradeId,lastPrice"));
+        IllegalArgumentException entityName = assertThrows(IllegalArgumentException.class,
+                () -> SparseFields.ofTicker("id"));
+
+        // Then
+        assertThat(tickerField.getMessage(), startsWith("Unknown field: lastPrice"));
+        assertThat(entityName.getMessage(), startsWith("Unknown field: id"));
+    }
+
+    @Test
+    void shouldRequireAtLeastOneField() {
+        assertThrows(IllegalArgumentException.class, () -> SparseFields.ofTrade(""));
+        assertThrows(IllegalArgumentException.class, () -> SparseFields.ofTicker(" , ,"));
+    }
+
+    @Test
+    void shouldProjectLoadedDtosWithPlainDecimals() {
+        // Given
+        TradeDto trade = new TradeDto();
+        trade.setTradeId(7L);
+        trade.setSymbol("BTCUSDT");
+        trade.setPrice(new BigDecimal("50000.00000000"));
+        trade.setQuantity(new BigDecimal("1E-8"));
+
+        // When
+        Map<String, Object> row = SparseFields.ofTrade("quantity,price,tradeId,eventType").project(trade);
+
+        // Then
+        assertThat(row.keySet(), contains("quantity", "price", "tradeId", "eventType"));
+        assertThat(row.get("quantity"), is("0.00000001"));
+        assertThat(row.get("price"), is("50000"));
+        assertThat(row.get("tradeId"), is(7L));
+        assertThat(row.get("eventType"), is(nullValue()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.query.repository;
+
+import com.example.query.model.TickerDto;
+import com.example.query.model.TradeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the lateral greatest-per-group lookups against a real MySQL and is skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(LatestValueRepository.class)
+class LatestValueRepositoryTest {
+
+    private static final long SINCE = 1_700_000_000_000L;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LatestValueRepository latestValueRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event_type (type) VALUES ('trade'), ('24hrTicker')");
+        jdbcTemplate.update("INSERT INTO symbol (id, name) VALUES (1, 'BTCUSDT'), (2, 'ETHUSDT'), (3, 'DOGEUSDT')");
+    }
+
+    @Test
+    void shouldReturnTheNewestTradePerSymbolWithinTheLookback() {
+        // Given
+        trade(1, 1, SINCE + 1_000, "2026-01-01 00:00:01");
+        trade(2, 1, SINCE + 2_000, "2026-01-01 00:00:03");
+        // Inserted later but older than the lookback, like a replayed trade
+        trade(3, 1, SINCE - 1, "2026-01-01 00:00:05");
+        trade(4, 2, SINCE - 5_000, "2026-01-01 00:00:02");
+
+        // When
+        List<TradeDto> latest = latestValueRepository.findLatestTrades(List.of(1, 2, 3), SINCE);
+
+        // Then
+        assertThat(latest).extracting(TradeDto::getSymbol, TradeDto::getTradeId, TradeDto::getEventType)
+                .containsExactly(tuple("BTCUSDT", 2L, "trade"));
+    }
+
+    @Test
+    void shouldFindQuietSymbolsWithoutTheLookback() {
+        // Given
+        trade(1, 1, SINCE + 1_000, "2026-01-01 00:00:01");
+        trade(2, 2, SINCE - 5_000, "2026-01-01 00:00:02");
+        trade(3, 2, SINCE - 9_000, "2026-01-01 00:00:01");
+
+        // When
+        List<TradeDto> latest = latestValueRepository.findLatestTrades(List.of(2, 3));
+
+        // Then
+        assertThat(latest).extracting(TradeDto::getSymbol, TradeDto::getTradeId, TradeDto::getTradeTime)
+                .containsExactly(tuple("ETHUSDT", 2L, SINCE - 5_000));
+        assertThat(latestValueRepository.findLatestTrades(List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldReturnTheNewestTickerPerSymbolWithinTheLookback() {
+        // Given
+        ticker(1, 1, SINCE + 1_000, "2026-01-01 00:00:01", "100.5");
+        ticker(2, 1, SINCE + 2_000, "2026-01-01 00:00:02", "101.5");
+        ticker(3, 2, SINCE - 1, "2026-01-01 00:00:03", "9.5");
+
+        // When
+        List<TickerDto> recent = latestValueRepository.findLatestTickers(List.of(1, 2), SINCE);
+        List<TickerDto> all = latestValueRepository.findLatestTickers(List.of(1, 2));
+
+        // Then
+        assertThat(recent).singleElement().satisfies(ticker -> {
+            assertThat(ticker.getSymbol()).isEqualTo("BTCUSDT");
+            assertThat(ticker.getLastPrice()).isEqualByComparingTo("101.5");
+        });
+        assertThat(all).extracting(TickerDto::getSymbol).containsExactlyInAnyOrder("BTCUSDT", "ETHUSDT");
+    }
+
+    private void trade(long id, int symbolId, long tradeTime, String createdAt) {
+        jdbcTemplate.update("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, event_timestamp, trade_time, price, quantity, created_at) "
+                        + "SELECT ?, id, ?, ?, ?, ?, 1, 1, ? FROM event_type WHERE type = 'trade'",
+                id, symbolId, id, tradeTime, tradeTime, createdAt);
+    }
+
+    private void ticker(long id, int symbolId, long eventTimestamp, String createdAt, String lastPrice) {
+        jdbcTemplate.update("INSERT INTO ticker (id, event_type_id, symbol_id, event_timestamp, last_price, created_at) "
+                        + "SELECT ?, id, ?, ?, ?, ? FROM event_type WHERE type = '24hrTicker'",
+                id, symbolId, eventTimestamp, new BigDecimal(lastPrice), createdAt);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.query.repository;
+
+import com.example.query.entity.SymbolEntity;
+import com.example.query.model.TickerRow;
+import com.example.query.model.TradeRow;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts that a page of trades or tickers costs exactly the row select and the count, with the symbol
+ * and event type names joined in and no entity hydrated. Runs against a real MySQL and is skipped when
+ * Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListQueryStatementCountTest {
+
+    private static final PageRequest PAGE = PageRequest.of(1, 20, Sort.by("eventTimestamp").descending());
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TickerRepository tickerRepository;
+
+    @Autowired
+    private SymbolRepository symbolRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private SymbolEntity symbol;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event_type (type) VALUES ('trade'), ('24hrTicker')");
+        jdbcTemplate.update("INSERT INTO symbol (name) VALUES ('BTCUSDT'), ('ETHUSDT')");
+
+        List<Object[]> trades = new ArrayList<>();
+        List<Object[]> tickers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int symbolId = i % 2 + 1;
+            trades.add(new Object[]{i + 1, symbolId, i, 1_700_000_000_000L + i * 1000L});
+            tickers.add(new Object[]{i + 1, symbolId, 1_700_000_000_000L + i * 1000L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, event_timestamp, trade_time, price, quantity, created_at) "
+                + "SELECT ?, id, ?, ?, 0, ?, 1.5, 2.5, NOW() FROM event_type WHERE type = 'trade'", trades);
+        jdbcTemplate.batchUpdate("INSERT INTO ticker (id, event_type_id, symbol_id, event_timestamp, last_price, created_at) "
+                + "SELECT ?, id, ?, ?, 1.5, NOW() FROM event_type WHERE type = '24hrTicker'", tickers);
+
+        symbol = symbolRepository.findByName("BTCUSDT").orElseThrow();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void tradesBySymbolPageIsOneSelectAndOneCount() {
+        // When
+        Page<TradeRow> page = tradeRepository.findRowsBySymbol(symbol, PAGE);
+
+        // Then
+        assertThat(page.getContent()).hasSize(20).allSatisfy(row -> {
+            assertThat(row.symbol()).isEqualTo("BTCUSDT");
+            assertThat(row.eventType()).isEqualTo("trade");
+        });
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void allTradesPageIsOneSelectAndOneCount() {
+        // When
+        Page<TradeRow> page = tradeRepository.findAllRows(PAGE);
+
+        // Then
+        assertThat(page.getContent()).hasSize(20).extracting(TradeRow::symbol).contains("BTCUSDT", "ETHUSDT");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void tickersBySymbolPageIsOneSelectAndOneCount() {
+        // When
+        Page<TickerRow> page = tickerRepository.findRowsBySymbol(symbol, PAGE);
+
+        // Then
+        assertThat(page.getContent()).hasSize(20).allSatisfy(row -> {
+            assertThat(row.symbol()).isEqualTo("BTCUSDT");
+            assertThat(row.eventType()).isEqualTo("24hrTicker");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void tickersBetweenPageIsOneSelectAndOneCount() {
+        // When
+        Page<TickerRow> page = tickerRepository.findRowsBySymbolBetween(
+                symbol, 1_700_000_000_000L, 1_700_000_100_000L, PageRequest.of(0, 20, Sort.by("eventTimestamp")));
+
+        // Then
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getTotalElements()).isEqualTo(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.query.repository;
+
+import com.example.query.entity.SymbolEntity;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts through EXPLAIN that the time-range and latest queries are served by the composite
+ * indexes declared on the entities. The statements explained are the ones Hibernate generates for the
+ * repository methods, captured with a statement inspector. Runs against a real MySQL and is skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.query.repository.QueryPlanIndexTest$CapturedStatements"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanIndexTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TickerRepository tickerRepository;
+
+    @Autowired
+    private SymbolRepository symbolRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM symbol", Integer.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO event_type (type) VALUES ('trade'), ('24hrTicker')");
+        jdbcTemplate.update("INSERT INTO symbol (name) VALUES ('BTCUSDT'), ('ETHUSDT'), ('BNBUSDT'), ('ADAUSDT')");
+
+        List<Object[]> trades = new ArrayList<>();
+        List<Object[]> tickers = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            int symbolId = i % 4 + 1;
+            trades.add(new Object[]{i + 1, symbolId, i, 1_700_000_000_000L + i * 1000L});
+            tickers.add(new Object[]{i + 1, symbolId, 1_700_000_000_000L + i * 1000L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, trade_time, price, quantity, created_at) "
+                + "SELECT ?, id, ?, ?, ?, 1.5, 2.5, NOW() FROM event_type WHERE type = 'trade'", trades);
+        jdbcTemplate.batchUpdate("INSERT INTO ticker (id, event_type_id, symbol_id, event_timestamp, last_price, created_at) "
+                + "SELECT ?, id, ?, ?, 1.5, NOW() FROM event_type WHERE type = '24hrTicker'", tickers);
+        jdbcTemplate.execute("ANALYZE TABLE trade, ticker");
+    }
+
+    @Test
+    void tradeTimeRangeUsesSymbolTradeTimeIndex() {
+        // When
+        tradeRepository.findRowsBySymbolBetween(symbol("ETHUSDT"), 1_700_000_100_000L, 1_700_000_200_000L,
+                PageRequest.of(0, 20, Sort.by("tradeTime")));
+
+        // Then
+        assertThat(indexUsedBy("trade", 2, 1_700_000_100_000L, 1_700_000_200_000L, 20))
+                .isEqualTo("idx_trade_symbol_trade_time");
+    }
+
+    @Test
+    void latestTradeUsesSymbolCreatedAtIndex() {
+        // When
+        tradeRepository.findFirstBySymbolOrderByCreatedAtDesc(symbol("ETHUSDT"));
+
+        // Then
+        assertThat(indexUsedBy("trade", 2, 1)).isEqualTo("idx_trade_symbol_created_at");
+    }
+
+    @Test
+    void tickerTimeRangeUsesSymbolEventTimestampIndex() {
+        // When
+        tickerRepository.findRowsBySymbolBetween(symbol("BNBUSDT"), 1_700_000_100_000L, 1_700_000_200_000L,
+                PageRequest.of(0, 20, Sort.by("eventTimestamp")));
+
+        // Then
+        assertThat(indexUsedBy("ticker", 3, 1_700_000_100_000L, 1_700_000_200_000L, 20))
+                .isEqualTo("idx_ticker_symbol_event_timestamp");
+    }
+
+    @Test
+    void latestTickerUsesSymbolCreatedAtIndex() {
+        // When
+        tickerRepository.findFirstBySymbolOrderByCreatedAtDesc(symbol("BNBUSDT"));
+
+        // Then
+        assertThat(indexUsedBy("ticker", 3, 1)).isEqualTo("idx_ticker_symbol_created_at");
+    }
+
+    private SymbolEntity symbol(String name) {
+        SymbolEntity symbol = symbolRepository.findByName(name).orElseThrow();
+        CapturedStatements.clear();
+        return symbol;
+    }
+
+    /**
+     * EXPLAINs the first row select Hibernate generated against {@code table} since the last
+     * {@link #symbol} lookup, binding {@code args} to its parameters in order, and returns the index
+     * chosen for that table.
+     */
+    private String indexUsedBy(String table, Object... args) {
+        Pattern from = Pattern.compile("from " + table + " (\\w+)");
+        String sql = CapturedStatements.all().stream()
+                .filter(statement -> !statement.contains("count("))
+                .filter(statement -> from.matcher(statement).find())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No select on " + table + " in " + CapturedStatements.all()));
+        Matcher alias = from.matcher(sql);
+        alias.find();
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, args).stream()
+                .filter(plan -> alias.group(1).equals(plan.get("table")))
+                .map(plan -> (String) plan.get("key"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + " in " + sql));
+    }
+
+    /**
+     * Records the SQL Hibernate prepares, so the tests EXPLAIN what the repositories actually run.
+     */
+    public static class CapturedStatements implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+        static List<String> all() {
+            return List.copyOf(STATEMENTS);
+        }
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+    }
+}
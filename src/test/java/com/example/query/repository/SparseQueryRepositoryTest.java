@@ -0,0 +1,131 @@
+package com.example.query.repository;
+
+import com.example.query.entity.TickerEntity;
+import com.example.query.entity.TradeEntity;
+import com.example.query.model.SparseFields;
+import com.example.query.repository.SparseQueryRepository.KeyedRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Criteria tuple queries against a real MySQL and is skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(SparseQueryRepository.class)
+class SparseQueryRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SparseQueryRepository sparseQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event_type (id, type) VALUES (1, 'trade'), (2, '24hrTicker')");
+        jdbcTemplate.update("INSERT INTO symbol (id, name) VALUES (1, 'BTCUSDT'), (2, 'ETHUSDT')");
+        trade(1, 1, "50000.50000000");
+        trade(2, 1, "50001.00000000");
+        trade(3, 1, "49999.25000000");
+        trade(4, 2, "3000.00000000");
+    }
+
+    @Test
+    void shouldSelectOnlyTheRequestedTradeFieldsInRequestOrder() {
+        // When
+        Page<Map<String, Object>> page = sparseQueryRepository.findFields(TradeEntity.class,
+                SparseFields.ofTrade("price,symbol,tradeId"),
+                (root, query, cb) -> cb.equal(root.get("symbol").get("name"), "BTCUSDT"),
+                PageRequest.of(0, 2, Sort.by("tradeId").descending()));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent().get(0)).containsExactly(
+                Map.entry("price", "49999.25"), Map.entry("symbol", "BTCUSDT"), Map.entry("tradeId", 3L));
+        assertThat(page.getContent().get(1)).containsEntry("price", "50001").containsEntry("tradeId", 2L);
+    }
+
+    @Test
+    void shouldPageASelectionOfPlainColumns() {
+        // When
+        Page<Map<String, Object>> page = sparseQueryRepository.findFields(TradeEntity.class,
+                SparseFields.ofTrade("tradeId"), (root, query, cb) -> cb.conjunction(),
+                PageRequest.of(1, 3, Sort.by("tradeId").ascending()));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).containsExactly(Map.of("tradeId", 4L));
+    }
+
+    @Test
+    void shouldSliceASelectionWithTheKeysOfEachRow() {
+        // When
+        List<KeyedRow> rows = sparseQueryRepository.scrollFields(TradeEntity.class, SparseFields.ofTrade("tradeId,price"),
+                List.of("tradeId", "id"), (root, query, cb) -> cb.greaterThan(root.get("tradeId"), 1L),
+                Sort.by("tradeId", "id"), 2);
+
+        // Then
+        assertThat(rows).extracting(KeyedRow::fields).containsExactly(
+                Map.of("tradeId", 2L, "price", "50001"), Map.of("tradeId", 3L, "price", "49999.25"));
+        assertThat(rows).extracting(KeyedRow::keys).containsExactly(
+                Map.of("tradeId", 2L, "id", 2L), Map.of("tradeId", 3L, "id", 3L));
+    }
+
+    @Test
+    void shouldSelectTheFieldsOfASingleTrade() {
+        // When / Then
+        assertThat(sparseQueryRepository.findFirstFields(TradeEntity.class, SparseFields.ofTrade("symbol,price"),
+                (root, query, cb) -> cb.equal(root.get("tradeId"), 4L)))
+                .contains(Map.of("symbol", "ETHUSDT", "price", "3000"));
+        assertThat(sparseQueryRepository.findFirstFields(TradeEntity.class, SparseFields.ofTrade("price"),
+                (root, query, cb) -> cb.equal(root.get("tradeId"), 99L))).isEmpty();
+    }
+
+    @Test
+    void shouldSelectTickerFieldsThroughTheEntityId() {
+        // Given
+        jdbcTemplate.update("INSERT INTO ticker (id, event_type_id, symbol_id, event_timestamp, last_price, created_at) "
+                + "VALUES (42, 2, 2, 1700000000000, 3000.10000000, NOW())");
+
+        // When
+        Page<Map<String, Object>> page = sparseQueryRepository.findFields(TickerEntity.class,
+                SparseFields.ofTicker("tickerId,eventType,lastPrice"), (root, query, cb) -> cb.conjunction(),
+                PageRequest.of(0, 10, Sort.by("eventTimestamp")));
+
+        // Then
+        assertThat(page.getContent()).containsExactly(
+                Map.of("tickerId", 42L, "eventType", "24hrTicker", "lastPrice", "3000.1"));
+    }
+
+    private void trade(long id, int symbolId, String price) {
+        jdbcTemplate.update("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, event_timestamp, trade_time, price, quantity, created_at) "
+                + "VALUES (?, 1, ?, ?, 1700000000000, 1700000000000, ?, 1, NOW())", id, symbolId, id, new BigDecimal(price));
+    }
+}
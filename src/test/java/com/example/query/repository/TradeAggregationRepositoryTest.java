@@ -0,0 +1,123 @@
+package com.example.query.repository;
+
+import com.example.query.model.CandleDto;
+import com.example.query.model.CandleInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the window-function candle query against a real MySQL and is skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(TradeAggregationRepository.class)
+class TradeAggregationRepositoryTest {
+
+    private static final long MINUTE = 1_700_000_040_000L;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeAggregationRepository tradeAggregationRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event_type (type) VALUES ('trade')");
+        jdbcTemplate.update("INSERT INTO symbol (name) VALUES ('BTCUSDT'), ('ETHUSDT')");
+    }
+
+    @Test
+    void shouldAggregateOneRowPerBucketWithOpenAndCloseByTimeThenId() {
+        // Given
+        trade(1, 1, MINUTE + 5_000, "100.00", "1.0");
+        // Same trade_time as the first trade; the lower id opens the bucket
+        trade(2, 1, MINUTE + 5_000, "90.00", "0.5");
+        trade(3, 1, MINUTE + 30_000, "120.00", "2.0");
+        trade(5, 1, MINUTE + 59_999, "110.00", "0.25");
+        // Same trade_time as the previous trade; the higher id closes the bucket
+        trade(4, 1, MINUTE + 59_999, "105.00", "0.25");
+        trade(6, 1, MINUTE + 60_000, "130.00", "3.0");
+
+        // When
+        List<CandleDto> candles = tradeAggregationRepository.findCandles(1, CandleInterval.ONE_MINUTE,
+                MINUTE, MINUTE + 120_000);
+
+        // Then
+        assertThat(candles).hasSize(2);
+        CandleDto first = candles.get(0);
+        assertThat(first.getOpenTime()).isEqualTo(MINUTE);
+        assertThat(first.getCloseTime()).isEqualTo(MINUTE + 59_999);
+        assertThat(first.getOpen()).isEqualByComparingTo("100");
+        assertThat(first.getHigh()).isEqualByComparingTo("120");
+        assertThat(first.getLow()).isEqualByComparingTo("90");
+        assertThat(first.getClose()).isEqualByComparingTo("110");
+        assertThat(first.getVolume()).isEqualByComparingTo("4");
+        assertThat(first.getTradeCount()).isEqualTo(5);
+        CandleDto second = candles.get(1);
+        assertThat(second.getOpenTime()).isEqualTo(MINUTE + 60_000);
+        assertThat(second.getOpen()).isEqualByComparingTo(second.getClose());
+        assertThat(second.getTradeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldOnlyAggregateTheSymbolWithinTheHalfOpenRange() {
+        // Given
+        trade(1, 1, MINUTE - 1, "1.00", "1");
+        trade(2, 1, MINUTE, "2.00", "1");
+        trade(3, 2, MINUTE + 1_000, "3.00", "1");
+        trade(4, 1, MINUTE + 60_000, "4.00", "1");
+
+        // When
+        List<CandleDto> candles = tradeAggregationRepository.findCandles(1, CandleInterval.ONE_MINUTE,
+                MINUTE, MINUTE + 60_000);
+
+        // Then
+        assertThat(candles).singleElement().satisfies(candle -> {
+            assertThat(candle.getOpenTime()).isEqualTo(MINUTE);
+            assertThat(candle.getOpen()).isEqualByComparingTo("2");
+            assertThat(candle.getHigh()).isEqualByComparingTo("2");
+            assertThat(candle.getTradeCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void shouldReturnNoCandlesForAnEmptyRange() {
+        // Given
+        trade(1, 1, MINUTE, "1.00", "1");
+
+        // When
+        List<CandleDto> candles = tradeAggregationRepository.findCandles(1, CandleInterval.ONE_SECOND,
+                MINUTE + 1_000, MINUTE + 2_000);
+
+        // Then
+        assertThat(candles).isEmpty();
+    }
+
+    private void trade(long id, int symbolId, long tradeTime, String price, String quantity) {
+        jdbcTemplate.update("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, event_timestamp, trade_time, price, quantity, created_at) "
+                        + "SELECT ?, id, ?, ?, 0, ?, ?, ?, NOW() FROM event_type WHERE type = 'trade'",
+                id, symbolId, id, tradeTime, new BigDecimal(price), new BigDecimal(quantity));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.query.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the archive reads and key-based deletes against a real MySQL and is skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(TradeArchiveRepository.class)
+class TradeArchiveRepositoryTest {
+
+    private static final long DAY = 1_767_225_600_000L;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeArchiveRepository tradeArchiveRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event_type (id, type) VALUES (1, 'trade')");
+        jdbcTemplate.update("INSERT INTO symbol (id, name) VALUES (1, 'BTCUSDT')");
+    }
+
+    @Test
+    void shouldDeleteOnlyTheStreamedTradesInChunks() {
+        // Given
+        for (long id = 10; id < 15; id++) {
+            trade(id, DAY + id);
+        }
+        TradeArchiveRepository.TradeKeys streamed = new TradeArchiveRepository.TradeKeys();
+        tradeArchiveRepository.streamTrades(1, DAY, DAY + 86_400_000L,
+                rs -> streamed.add(rs.getLong("id"), rs.getLong("trade_time")));
+        // Inserted for the same day after streaming, with an id below the streamed ones from another id block
+        trade(3, DAY + 10);
+
+        // When
+        long deleted = tradeArchiveRepository.deleteArchived(streamed, 2);
+
+        // Then
+        assertThat(streamed.size()).isEqualTo(5);
+        assertThat(deleted).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM trade", Long.class)).containsExactly(3L);
+    }
+
+    @Test
+    void shouldFindTheOldestTradeTimeWithinTheRange() {
+        // Given
+        trade(1, DAY + 5);
+        trade(2, DAY - 5);
+
+        // When / Then
+        assertThat(tradeArchiveRepository.findOldestTradeTime(1, DAY, DAY + 86_400_000L)).isEqualTo(DAY + 5);
+        assertThat(tradeArchiveRepository.findOldestTradeTime(1, DAY + 6, DAY + 86_400_000L)).isNull();
+    }
+
+    private void trade(long id, long tradeTime) {
+        jdbcTemplate.update("INSERT INTO trade (id, event_type_id, symbol_id, trade_id, event_timestamp, trade_time, price, quantity, created_at) "
+                + "VALUES (?, 1, 1, ?, ?, ?, 1, 1, NOW())", id, id + 100, tradeTime, tradeTime);
+    }
+}
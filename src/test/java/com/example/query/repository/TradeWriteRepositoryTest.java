@@ -0,0 +1,198 @@
+package com.example.query.repository;
+
+import com.example.query.entity.EventTypeEntity;
+import com.example.query.entity.SymbolEntity;
+import com.example.query.entity.TradeEntity;
+import com.example.query.repository.TradeWriteRepository.StoredTrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Runs the single-statement trade writes against a real MySQL, where the affected-row counts come from
+ * Connector/J with useAffectedRows=true as configured for the pool. Skipped when Docker is unavailable.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({TradeWriteRepository.class, TradeBatchRepository.class, EntityIdGenerator.class})
+class TradeWriteRepositoryTest {
+
+    private static final long TRADE_TIME = 1_700_000_000_000L;
+    private static final long DAY = 86_400_000L;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeWriteRepository tradeWriteRepository;
+
+    @Autowired
+    private TradeBatchRepository tradeBatchRepository;
+
+    private SymbolEntity symbol;
+    private EventTypeEntity eventType;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event_type (id, type) VALUES (1, 'trade')");
+        jdbcTemplate.update("INSERT INTO symbol (id, name) VALUES (1, 'BTCUSDT'), (2, 'ETHUSDT')");
+        symbol = symbol(1);
+        eventType = new EventTypeEntity();
+        eventType.setId(1);
+    }
+
+    @Test
+    void shouldInsertOnceAndOverwriteOnReplay() {
+        // When
+        int inserted = tradeWriteRepository.upsert(trade(7L, TRADE_TIME, "100.5"));
+        int replayedUnchanged = tradeWriteRepository.upsert(trade(7L, TRADE_TIME, "100.5"));
+        int replayedChanged = tradeWriteRepository.upsert(trade(7L, TRADE_TIME, "101.5"));
+
+        // Then
+        assertThat(inserted).isEqualTo(1);
+        assertThat(replayedUnchanged).isZero();
+        assertThat(replayedChanged).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT price FROM trade WHERE trade_id = 7", BigDecimal.class))
+                .singleElement().satisfies(price -> assertThat(price).isEqualByComparingTo("101.5"));
+    }
+
+    @Test
+    void shouldLeaveATradeStoredAtAnotherTradeTimeWithinTheWindow() {
+        // Given
+        tradeWriteRepository.upsert(trade(7L, TRADE_TIME, "100.5"));
+
+        // When
+        int moved = tradeWriteRepository.upsert(trade(7L, TRADE_TIME + DAY - 1, "101.5"));
+        int beyondWindow = tradeWriteRepository.upsert(trade(7L, TRADE_TIME + DAY, "102.5"));
+
+        // Then
+        assertThat(moved).isZero();
+        // Only the window around the trade is read, so a trade moved further is stored again
+        assertThat(beyondWindow).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT trade_time FROM trade WHERE trade_id = 7 ORDER BY trade_time", Long.class))
+                .containsExactly(TRADE_TIME, TRADE_TIME + DAY);
+    }
+
+    @Test
+    void shouldLeaveATradeStoredForAnotherSymbol() {
+        // Given
+        tradeWriteRepository.upsert(trade(7L, TRADE_TIME, "100.5"));
+        TradeEntity otherSymbol = trade(7L, TRADE_TIME, "101.5");
+        otherSymbol.setSymbol(symbol(2));
+
+        // When
+        int upserted = tradeWriteRepository.upsert(otherSymbol);
+        int updated = tradeWriteRepository.updateByTradeId(otherSymbol);
+
+        // Then
+        assertThat(upserted).isZero();
+        assertThat(updated).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT symbol_id FROM trade WHERE trade_id = 7", Integer.class))
+                .containsExactly(1);
+    }
+
+    @Test
+    void shouldUpsertBatchesWithoutDuplicatingTrades() {
+        // Given
+        tradeWriteRepository.upsert(trade(1L, TRADE_TIME, "100"));
+
+        // When
+        int[] written = tradeBatchRepository.insertAll(List.of(trade(1L, TRADE_TIME, "110"), trade(2L, TRADE_TIME + 1, "120"),
+                trade(2L, TRADE_TIME + 1, "130"), trade(2L, TRADE_TIME + 2, "140"), trade(1L, TRADE_TIME, "110")));
+
+        // Then
+        assertThat(written).containsExactly(2, 1, 2, 0, 0);
+        assertThat(jdbcTemplate.queryForList("SELECT trade_id FROM trade ORDER BY trade_id", Long.class))
+                .containsExactly(1L, 2L);
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM trade WHERE trade_id = 2", BigDecimal.class))
+                .isEqualByComparingTo("130");
+    }
+
+    @Test
+    void shouldFindStoredTradesWithinTheWindowIgnoringMissingAndNullIds() {
+        // Given
+        tradeWriteRepository.upsert(trade(1L, TRADE_TIME, "100"));
+        tradeWriteRepository.upsert(trade(2L, TRADE_TIME + 5, "100"));
+        tradeWriteRepository.upsert(trade(3L, TRADE_TIME + 3 * DAY, "100"));
+
+        // When / Then
+        assertThat(tradeWriteRepository.findStoredTrades(Arrays.asList(1L, 2L, 3L, 4L, null, 1L), TRADE_TIME, TRADE_TIME + 5))
+                .containsOnly(entry(1L, new StoredTrade(1L, TRADE_TIME, 1)), entry(2L, new StoredTrade(2L, TRADE_TIME + 5, 1)));
+        assertThat(tradeWriteRepository.findStoredTrades(List.of(), TRADE_TIME, TRADE_TIME)).isEmpty();
+    }
+
+    @Test
+    void shouldUpdateOnlyTheTradeAtItsTradeTime() {
+        // Given
+        tradeWriteRepository.upsert(trade(1L, TRADE_TIME, "100"));
+
+        // When
+        int updated = tradeWriteRepository.updateByTradeId(trade(1L, TRADE_TIME, "105"));
+        int unchanged = tradeWriteRepository.updateByTradeId(trade(1L, TRADE_TIME, "105"));
+        int otherTime = tradeWriteRepository.updateByTradeId(trade(1L, TRADE_TIME + 1, "200"));
+        int missing = tradeWriteRepository.updateByTradeId(trade(99L, TRADE_TIME, "200"));
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(unchanged).isZero();
+        assertThat(otherTime).isZero();
+        assertThat(missing).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM trade WHERE trade_id = 1", BigDecimal.class))
+                .isEqualByComparingTo("105");
+    }
+
+    @Test
+    void shouldDeleteByTradeIdWithOrWithoutTheTradeTime() {
+        // Given
+        tradeWriteRepository.upsert(trade(1L, TRADE_TIME, "100"));
+        tradeWriteRepository.upsert(trade(2L, TRADE_TIME, "100"));
+
+        // When / Then
+        assertThat(tradeWriteRepository.deleteByTradeId(1L, TRADE_TIME + 1)).isEmpty();
+        assertThat(tradeWriteRepository.deleteByTradeId(1L, TRADE_TIME)).containsExactly(new StoredTrade(1L, TRADE_TIME, 1));
+        assertThat(tradeWriteRepository.deleteByTradeId(2L, null)).containsExactly(new StoredTrade(2L, TRADE_TIME, 1));
+        assertThat(tradeWriteRepository.deleteByTradeId(2L, null)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trade", Long.class)).isZero();
+    }
+
+    private static SymbolEntity symbol(int id) {
+        SymbolEntity symbol = new SymbolEntity();
+        symbol.setId(id);
+        return symbol;
+    }
+
+    private TradeEntity trade(long tradeId, long tradeTime, String price) {
+        TradeEntity trade = new TradeEntity();
+        trade.setTradeId(tradeId);
+        trade.setSymbol(symbol);
+        trade.setEventType(eventType);
+        trade.setEventTimestamp(tradeTime);
+        trade.setTradeTime(tradeTime);
+        trade.setPrice(new BigDecimal(price));
+        trade.setQuantity(BigDecimal.ONE);
+        trade.setIsBuyerMarketMaker(true);
+        return trade;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.query.service;
+
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.BatchResult;
+import com.example.query.model.TradeDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BatchIngestServiceTest {
+
+    private TradeService tradeService;
+    private TickerService tickerService;
+    private BatchIngestService batchIngestService;
+    private final List<List<Long>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tradeService = mock(TradeService.class);
+        tickerService = mock(TickerService.class);
+        batchIngestService = new BatchIngestService(new ObjectMapper(), tradeService, tickerService, 2);
+
+        // Accepts every trade except tradeId 4; the chunk list is reused, so its content is copied here
+        when(tradeService.saveTrades(anyList())).thenAnswer(invocation -> {
+            List<TradeDto> chunk = invocation.getArgument(0);
+            chunks.add(chunk.stream().map(TradeDto::getTradeId).toList());
+            List<BatchItemStatus> statuses = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                statuses.add(chunk.get(i).getTradeId() == 4
+                        ? BatchItemStatus.rejected(i, "Invalid symbol: DOGEXYZ")
+                        : BatchItemStatus.created(i));
+            }
+            return statuses;
+        });
+    }
+
+    @Test
+    void shouldWriteNdjsonInChunksAndReportBodyPositions() throws Exception {
+        // When
+        BatchResult result = batchIngestService.ingestTrades(body(trade(1) + "\n" + trade(2) + "\n" + trade(3)
+                + "\n" + trade(4) + "\n\n" + trade(5) + "\n"));
+
+        // Then
+        assertThat(chunks, contains(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)));
+        assertThat(result.getReceived(), is(5L));
+        assertThat(result.getCreated(), is(4L));
+        assertThat(result.getRejected(), is(1L));
+        assertThat(result.getItems(), hasSize(1));
+        assertThat(result.getItems().get(0).getIndex(), is(3));
+        assertThat(result.getItems().get(0).getError(), is("Invalid symbol: DOGEXYZ"));
+    }
+
+    @Test
+    void shouldAcceptJsonArrayBody() throws Exception {
+        // When
+        BatchResult result = batchIngestService.ingestTrades(body("[" + trade(1) + "," + trade(2) + "," + trade(3) + "]"));
+
+        // Then
+        assertThat(chunks, contains(List.of(1L, 2L), List.of(3L)));
+        assertThat(result.getCreated(), is(3L));
+        assertThat(result.getItems(), empty());
+    }
+
+    @Test
+    void shouldKeepItemsBeforeMalformedJsonAndStop() throws Exception {
+        // When
+        BatchResult result = batchIngestService.ingestTrades(body(trade(1) + "\n" + trade(2) + "\n" + trade(3)
+                + "\n{\"tradeId\": 6, \n" + trade(7)));
+
+        // Then
+        assertThat(chunks, contains(List.of(1L, 2L), List.of(3L)));
+        assertThat(result.getCreated(), is(3L));
+        assertThat(result.getRejected(), is(1L));
+        BatchItemStatus stopped = result.getItems().get(0);
+        assertThat(stopped.getIndex(), is(3));
+        assertThat(stopped.getError(), startsWith("Malformed body, ingestion stopped"));
+    }
+
+    @Test
+    void shouldStopAtItemThatIsNotAnObject() throws Exception {
+        // When
+        BatchResult result = batchIngestService.ingestTrades(body("[" + trade(1) + ", 42, " + trade(3) + "]"));
+
+        // Then
+        assertThat(chunks, contains(List.of(1L)));
+        assertThat(result.getItems(), hasSize(1));
+        assertThat(result.getItems().get(0).getIndex(), is(1));
+        assertThat(result.getItems().get(0).getError(), containsString("Expected a JSON object at item 1"));
+    }
+
+    @Test
+    void shouldFailOnlyTheChunkWhoseWriteThrows() throws Exception {
+        // Given
+        when(tradeService.saveTrades(argThat(chunk -> chunk != null && !chunk.isEmpty() && chunk.get(0).getTradeId() == 3)))
+                .thenThrow(new IllegalStateException("Deadlock found when trying to get lock"));
+
+        // When
+        BatchResult result = batchIngestService.ingestTrades(body(trade(1) + trade(2) + trade(3) + trade(5) + trade(6)));
+
+        // Then
+        assertThat(result.getReceived(), is(5L));
+        assertThat(result.getCreated(), is(3L));
+        assertThat(result.getFailed(), is(2L));
+        assertThat(result.getItems().stream().map(BatchItemStatus::getIndex).toList(), contains(2, 3));
+        assertThat(result.getItems().get(0).getStatus(), is(BatchItemStatus.Status.FAILED));
+    }
+
+    @Test
+    void shouldIgnoreEmptyBody() throws Exception {
+        // When
+        BatchResult result = batchIngestService.ingestTrades(body(""));
+
+        // Then
+        assertThat(result.getReceived(), is(0L));
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void shouldRouteTickersToTickerService() throws Exception {
+        // Given
+        when(tickerService.saveTickers(anyList())).thenReturn(List.of(BatchItemStatus.created(0)));
+
+        // When
+        BatchResult result = batchIngestService.ingestTickers(body("{\"symbol\":\"BTCUSDT\",\"eventType\":\"24hrTicker\"}"));
+
+        // Then
+        assertThat(result.getCreated(), is(1L));
+        verify(tickerService).saveTickers(anyList());
+        verifyNoInteractions(tradeService);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String trade(long tradeId) {
+        return "{\"tradeId\":" + tradeId + ",\"symbol\":\"BTCUSDT\",\"eventType\":\"trade\",\"price\":\"50000.00\","
+                + "\"quantity\":\"0.001\",\"tradeTime\":1700000000000}";
+    }
+}
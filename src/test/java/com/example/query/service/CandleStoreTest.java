@@ -0,0 +1,163 @@
+package com.example.query.service;
+
+import com.example.query.model.CandleBucket;
+import com.example.query.model.CandleDto;
+import com.example.query.model.CandleInterval;
+import com.example.query.repository.CandleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CandleStoreTest {
+
+    private static final int SYMBOL_ID = 1;
+    private static final long HOUR = 1_700_002_800_000L;
+    private static final long SECOND = 1_000L;
+    private static final long MINUTE = 60_000L;
+
+    @Mock
+    private CandleRepository candleRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CandleStore candleStore;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        candleStore = new CandleStore(candleRepository, transactionTemplate, HOUR);
+    }
+
+    @Test
+    void shouldRecomputeMarkedSecondsThenTheMinutesAndHoursHoldingThem() {
+        // Given
+        candleStore.invalidate(SYMBOL_ID, HOUR + 1_000L);
+        candleStore.invalidate(SYMBOL_ID, HOUR + 1_500L);
+        candleStore.invalidate(SYMBOL_ID, HOUR + 61_000L);
+
+        // When
+        candleStore.flush();
+        candleStore.flush();
+
+        // Then
+        verify(transactionTemplate).executeWithoutResult(any());
+        InOrder order = inOrder(candleRepository);
+        order.verify(candleRepository).replaceFromTrades(SYMBOL_ID, SECOND, HOUR + 1_000L, HOUR + 62_000L);
+        order.verify(candleRepository).replaceFromCandles(SYMBOL_ID, SECOND, MINUTE, HOUR, HOUR + 2 * MINUTE);
+        order.verify(candleRepository).replaceFromCandles(SYMBOL_ID, MINUTE, 3_600_000L, HOUR, HOUR + 3_600_000L);
+        verifyNoMoreInteractions(candleRepository);
+    }
+
+    @Test
+    void shouldRecomputeDistantBucketsAsSeparateRanges() {
+        // Given
+        candleStore.invalidate(SYMBOL_ID, HOUR + 1_000L);
+        candleStore.invalidate(SYMBOL_ID, HOUR + 300_000L);
+
+        // When
+        candleStore.flush();
+
+        // Then
+        verify(candleRepository).replaceFromTrades(SYMBOL_ID, SECOND, HOUR + 1_000L, HOUR + 2_000L);
+        verify(candleRepository).replaceFromTrades(SYMBOL_ID, SECOND, HOUR + 300_000L, HOUR + 301_000L);
+        verify(candleRepository).replaceFromCandles(SYMBOL_ID, SECOND, MINUTE, HOUR, HOUR + MINUTE);
+        verify(candleRepository).replaceFromCandles(SYMBOL_ID, SECOND, MINUTE, HOUR + 5 * MINUTE, HOUR + 6 * MINUTE);
+        verify(candleRepository).replaceFromCandles(SYMBOL_ID, MINUTE, 3_600_000L, HOUR, HOUR + 3_600_000L);
+    }
+
+    @Test
+    void shouldKeepTheMarksOfAFailedRecomputationMergedWithLaterOnes() {
+        // Given
+        candleStore.invalidate(SYMBOL_ID, HOUR + 1_000L);
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .doAnswer(invocation -> {
+                    Consumer<TransactionStatus> action = invocation.getArgument(0);
+                    action.accept(mock(TransactionStatus.class));
+                    return null;
+                })
+                .when(transactionTemplate).executeWithoutResult(any());
+        candleStore.flush();
+        candleStore.invalidate(SYMBOL_ID, HOUR + 2_000L);
+
+        // When
+        candleStore.flush();
+
+        // Then
+        verify(candleRepository).replaceFromTrades(SYMBOL_ID, SECOND, HOUR + 1_000L, HOUR + 3_000L);
+    }
+
+    @Test
+    void shouldIgnoreTradesWithoutSymbolOrTime() {
+        // When
+        candleStore.invalidate(null, HOUR);
+        candleStore.invalidate(SYMBOL_ID, null);
+        candleStore.flush();
+
+        // Then
+        verifyNoInteractions(transactionTemplate, candleRepository);
+    }
+
+    @Test
+    void shouldAnswerTrustedRangesFromTheTableRolledUpToTheInterval() {
+        // Given
+        when(candleRepository.findCandles(SYMBOL_ID, MINUTE, HOUR, HOUR + 10 * MINUTE)).thenReturn(List.of(
+                minute(HOUR, "100", "105", 2), minute(HOUR + MINUTE, "105", "110", 1), minute(HOUR + 5 * MINUTE, "90", "95", 3)));
+
+        // When
+        List<CandleDto> candles = candleStore.find(SYMBOL_ID, CandleInterval.FIVE_MINUTES, HOUR, HOUR + 10 * MINUTE)
+                .orElseThrow();
+
+        // Then
+        assertThat(candles, hasSize(2));
+        assertThat(candles.get(0).getOpenTime(), is(HOUR));
+        assertThat(candles.get(0).getTradeCount(), is(3L));
+        assertThat(candles.get(0).getOpen(), comparesEqualTo(new BigDecimal("100")));
+        assertThat(candles.get(0).getClose(), comparesEqualTo(new BigDecimal("110")));
+        assertThat(candles.get(1).getOpenTime(), is(HOUR + 5 * MINUTE));
+    }
+
+    @Test
+    void shouldNotAnswerRangesTheTableIsNotTrustedFor() {
+        // When
+        Optional<List<CandleDto>> older = candleStore.find(SYMBOL_ID, CandleInterval.ONE_MINUTE, HOUR - MINUTE, HOUR);
+        Optional<List<CandleDto>> disabled = new CandleStore(candleRepository, transactionTemplate, -1L)
+                .find(SYMBOL_ID, CandleInterval.ONE_MINUTE, HOUR, HOUR + MINUTE);
+
+        // Then
+        assertThat(older.isPresent(), is(false));
+        assertThat(disabled.isPresent(), is(false));
+        verifyNoInteractions(candleRepository);
+    }
+
+    private static CandleBucket minute(long openTime, String open, String close, long trades) {
+        CandleBucket bucket = new CandleBucket(SYMBOL_ID, MINUTE, openTime);
+        for (long i = 0; i < trades; i++) {
+            bucket.add(openTime + i * SECOND, new BigDecimal(i == trades - 1 ? close : open), BigDecimal.ONE);
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.query.service;
+
+import com.example.query.model.TradeDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColdSegmentTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldRoundTripEveryColumnIncludingNullsAndNegativeDeltas() throws IOException {
+        // Given
+        ColdSegment.Writer writer = new ColdSegment.Writer();
+        writer.add(500L, 9_000L, "trade", 1_700_000_000_100L, new BigDecimal("65000.12345678"),
+                new BigDecimal("0.00000001"), 1_700_000_000_000L, true);
+        // Ids, trade ids and prices go backwards and the event comes before the trade
+        writer.add(120L, 8_500L, "aggTrade", 1_699_999_999_000L, new BigDecimal("0.00000001"),
+                new BigDecimal("12345.6789"), 1_700_000_000_000L, false);
+        writer.add(121L, null, null, null, null, null, 1_700_000_005_000L, null);
+        writer.add(119L, 8_499L, "trade", 1_700_000_006_000L, new BigDecimal("92233720368.54775807"),
+                new BigDecimal("1"), 1_700_000_006_000L, true);
+        Path file = directory.resolve("segment.seg");
+        writer.writeTo(file);
+
+        // When
+        ColdSegment segment = ColdSegment.open(file, "BTCUSDT");
+        List<TradeDto> trades = segment.read(0, segment.getCount());
+
+        // Then
+        assertThat(segment.getCount(), is(4));
+        assertThat(segment.getMinTradeTime(), is(1_700_000_000_000L));
+        assertThat(segment.getMaxTradeTime(), is(1_700_000_006_000L));
+        assertThat(segment.getMaxId(), is(500L));
+
+        assertTrade(trades.get(0), 9_000L, "trade", 1_700_000_000_100L, "65000.12345678", "0.00000001",
+                1_700_000_000_000L, true);
+        assertTrade(trades.get(1), 8_500L, "aggTrade", 1_699_999_999_000L, "0.00000001", "12345.67890000",
+                1_700_000_000_000L, false);
+        assertTrade(trades.get(2), null, null, null, null, null, 1_700_000_005_000L, null);
+        assertTrade(trades.get(3), 8_499L, "trade", 1_700_000_006_000L, "92233720368.54775807", "1.00000000",
+                1_700_000_006_000L, true);
+        assertThat(trades, everyItem(hasProperty("symbol", is("BTCUSDT"))));
+    }
+
+    @Test
+    void shouldReadSlicesAndFindRowsByTradeId() throws IOException {
+        // Given
+        ColdSegment.Writer writer = new ColdSegment.Writer();
+        for (long i = 0; i < 300; i++) {
+            writer.add(1_000L + i, i % 7 == 0 ? null : 10_000L - i, "trade", null, new BigDecimal(i + ".5"),
+                    BigDecimal.ONE, 1_700_000_000_000L + i * 1_000L, null);
+        }
+        Path file = directory.resolve("segment.seg");
+        writer.writeTo(file);
+        ColdSegment segment = ColdSegment.open(file, "BTCUSDT");
+
+        // When
+        List<TradeDto> slice = segment.read(150, 153);
+        List<Long> tradeIds = new ArrayList<>();
+        segment.forEachTradeId(tradeIds::add);
+
+        // Then
+        assertThat(slice.stream().map(TradeDto::getTradeId).toList(), contains(9_850L, 9_849L, 9_848L));
+        assertThat(slice.get(0).getPrice(), comparesEqualTo(new BigDecimal("150.5")));
+        assertThat(segment.indexOfTradeId(9_850L), is(150));
+        assertThat(segment.indexOfTradeId(10_000L), is(-1));
+        assertThat(segment.indexOfTradeId(20_000L), is(-1));
+        assertThat(segment.mayContainTradeId(9_701L), is(true));
+        assertThat(tradeIds, hasSize(300 - 43));
+        assertThat(tradeIds, not(hasItem(10_000L)));
+    }
+
+    @Test
+    void shouldRejectRowsOutOfTradeTimeOrderOrBeyondTheScale() {
+        // Given
+        ColdSegment.Writer writer = new ColdSegment.Writer();
+        writer.add(1L, 1L, "trade", null, BigDecimal.ONE, BigDecimal.ONE, 2_000L, null);
+
+        // Then
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.add(2L, 2L, "trade", null, BigDecimal.ONE, BigDecimal.ONE, 1_000L, null));
+        assertThrows(ArithmeticException.class,
+                () -> writer.add(3L, 3L, "trade", null, new BigDecimal("0.000000001"), BigDecimal.ONE, 3_000L, null));
+    }
+
+    private static void assertTrade(TradeDto trade, Long tradeId, String eventType, Long eventTimestamp, String price,
+                                    String quantity, long tradeTime, Boolean isBuyerMarketMaker) {
+        assertThat(trade.getTradeId(), is(tradeId));
+        assertThat(trade.getEventType(), is(eventType));
+        assertThat(trade.getEventTimestamp(), is(eventTimestamp));
+        assertThat(trade.getPrice(), is(price == null ? null : new BigDecimal(price).setScale(ColdSegment.SCALE)));
+        assertThat(trade.getQuantity(), is(quantity == null ? null : new BigDecimal(quantity).setScale(ColdSegment.SCALE)));
+        assertThat(trade.getTradeTime(), is(tradeTime));
+        assertThat(trade.getIsBuyerMarketMaker(), is(isBuyerMarketMaker));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.query.service;
+
+import com.example.query.model.TradeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColdTradeStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    @TempDir
+    private Path directory;
+
+    private ColdTradeStore coldTradeStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        coldTradeStore = new ColdTradeStore(true, directory, ColdTradeStore.Storage.SHARED);
+        // Three segments of 4, 3 and 5 trades with trade ids 1 to 12
+        append(DAY, 1, 4);
+        append(DAY.plusDays(1), 5, 7);
+        append(DAY.plusDays(2), 8, 12);
+    }
+
+    @Test
+    void shouldPageAcrossSegmentBoundariesOldestFirst() {
+        // When
+        List<Long> tradeIds = new ArrayList<>();
+        for (long offset = 0; offset < 12; offset += 5) {
+            coldTradeStore.read("BTCUSDT", offset, 5, true).forEach(trade -> tradeIds.add(trade.getTradeId()));
+        }
+
+        // Then
+        assertThat(coldTradeStore.count("BTCUSDT"), is(12L));
+        assertThat(tradeIds, contains(LongStream.rangeClosed(1, 12).boxed().toArray()));
+    }
+
+    @Test
+    void shouldPageAcrossSegmentBoundariesNewestFirst() {
+        // When
+        List<Long> tradeIds = new ArrayList<>();
+        for (long offset = 0; offset < 12; offset += 5) {
+            coldTradeStore.read("BTCUSDT", offset, 5, false).forEach(trade -> tradeIds.add(trade.getTradeId()));
+        }
+
+        // Then
+        assertThat(tradeIds, contains(LongStream.rangeClosed(1, 12).map(i -> 13 - i).boxed().toArray()));
+    }
+
+    @Test
+    void shouldReturnNothingPastTheLastTrade() {
+        assertThat(coldTradeStore.read("BTCUSDT", 12, 5, true), is(empty()));
+        assertThat(coldTradeStore.read("BTCUSDT", 12, 5, false), is(empty()));
+        assertThat(coldTradeStore.read("ETHUSDT", 0, 5, true), is(empty()));
+    }
+
+    @Test
+    void shouldFindTradesByTradeIdAndListArchivedIdsPerDay() {
+        assertThat(coldTradeStore.findByTradeId(6L).map(TradeDto::getTradeId).orElseThrow(), is(6L));
+        assertThat(coldTradeStore.findByTradeId(13L).isPresent(), is(false));
+        assertThat(coldTradeStore.archivedTradeIds("BTCUSDT", DAY.plusDays(1)), containsInAnyOrder(5L, 6L, 7L));
+    }
+
+    @Test
+    void shouldLoadSegmentsWrittenByAnotherInstance() {
+        // When
+        ColdTradeStore other = new ColdTradeStore(true, directory, ColdTradeStore.Storage.SHARED);
+
+        // Then
+        assertThat(other.count("BTCUSDT"), is(12L));
+        assertThat(other.read("BTCUSDT", 3, 2, true).stream().map(TradeDto::getTradeId).toList(), contains(4L, 5L));
+    }
+
+    @Test
+    void shouldRefuseToEnableWithoutAStorageMode() {
+        // When
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new ColdTradeStore(true, directory, null));
+
+        // Then
+        assertThat(error.getMessage(), containsString("query.cold.storage"));
+        assertThat(new ColdTradeStore(false, directory, null).count("BTCUSDT"), is(0L));
+    }
+
+    private void append(LocalDate day, long firstTradeId, long lastTradeId) throws IOException {
+        ColdSegment.Writer writer = new ColdSegment.Writer();
+        long dayStart = day.toEpochDay() * 86_400_000L;
+        for (long tradeId = firstTradeId; tradeId <= lastTradeId; tradeId++) {
+            writer.add(tradeId, tradeId, "trade", null, new BigDecimal("100.5"), BigDecimal.ONE,
+                    dayStart + tradeId * 1_000L, true);
+        }
+        coldTradeStore.append("BTCUSDT", day, writer);
+    }
+}
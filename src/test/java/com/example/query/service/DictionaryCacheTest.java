@@ -0,0 +1,130 @@
+package com.example.query.service;
+
+import com.example.query.entity.SymbolEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class DictionaryCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private DictionaryCache<SymbolEntity> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DictionaryCache<>(SymbolEntity::getName, SymbolEntity::getId);
+    }
+
+    @Test
+    void shouldLoadMissOnceAndServeHitsFromMemory() {
+        // When
+        Optional<SymbolEntity> miss = cache.get("BTCUSDT", name -> load(name, 1));
+        Optional<SymbolEntity> hit = cache.get("BTCUSDT", name -> load(name, 2));
+
+        // Then
+        assertThat(miss.orElseThrow().getId(), is(1));
+        assertThat(hit.orElseThrow(), is(sameInstance(miss.orElseThrow())));
+        assertThat(loads.get(), is(1));
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.missCount(), is(1L));
+        assertThat(cache.nameOf(1), is(Optional.of("BTCUSDT")));
+    }
+
+    @Test
+    void shouldNotRememberNamesTheLoaderDoesNotFind() {
+        // When
+        Optional<SymbolEntity> first = cache.get("UNKNOWN", this::notFound);
+        Optional<SymbolEntity> second = cache.get("UNKNOWN", this::notFound);
+
+        // Then
+        assertThat(first.isPresent(), is(false));
+        assertThat(second.isPresent(), is(false));
+        assertThat(loads.get(), is(2));
+        assertThat(cache.contains("UNKNOWN"), is(false));
+    }
+
+    @Test
+    void shouldBulkLoadOnlyTheMissingNames() {
+        // Given
+        cache.get("BTCUSDT", name -> load(name, 1));
+        List<Collection<String>> requested = new ArrayList<>();
+
+        // When
+        Map<String, SymbolEntity> found = cache.getAll(Arrays.asList("BTCUSDT", "ETHUSDT", null), names -> {
+            requested.add(List.copyOf(names));
+            return List.of(symbol("ETHUSDT", 2));
+        });
+
+        // Then
+        assertThat(found.keySet(), containsInAnyOrder("BTCUSDT", "ETHUSDT"));
+        assertThat(requested, contains(contains("ETHUSDT")));
+        assertThat(cache.contains("ETHUSDT"), is(true));
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.missCount(), is(2L));
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        // Given
+        cache.get("BTCUSDT", name -> load(name, 1));
+
+        // When
+        cache.invalidate("BTCUSDT");
+
+        // Then
+        assertThat(cache.contains("BTCUSDT"), is(false));
+        assertThat(cache.nameOf(1), is(Optional.empty()));
+        assertThat(cache.get("BTCUSDT", name -> load(name, 3)).orElseThrow().getId(), is(3));
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void shouldDropEntriesMissingFromARefreshAndEmptyOnInvalidateAll() {
+        // Given
+        cache.get("BTCUSDT", name -> load(name, 1));
+        cache.get("ETHUSDT", name -> load(name, 2));
+
+        // When
+        cache.refresh(() -> List.of(symbol("ETHUSDT", 2), symbol("SOLUSDT", 3)));
+
+        // Then
+        assertThat(cache.contains("BTCUSDT"), is(false));
+        assertThat(cache.nameOf(1), is(Optional.empty()));
+        assertThat(cache.nameOf(3), is(Optional.of("SOLUSDT")));
+        assertThat(cache.size(), is(2));
+
+        // When
+        cache.invalidateAll();
+
+        // Then
+        assertThat(cache.size(), is(0));
+        assertThat(cache.nameOf(2), is(Optional.empty()));
+    }
+
+    private Optional<SymbolEntity> load(String name, int id) {
+        loads.incrementAndGet();
+        return Optional.of(symbol(name, id));
+    }
+
+    private Optional<SymbolEntity> notFound(String name) {
+        loads.incrementAndGet();
+        return Optional.empty();
+    }
+
+    private static SymbolEntity symbol(String name, int id) {
+        SymbolEntity symbol = new SymbolEntity();
+        symbol.setName(name);
+        symbol.setId(id);
+        return symbol;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.query.service;
+
+import com.example.query.model.ExportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportWriterTest {
+
+    private static final String[] COLUMNS = {"tradeId", "symbol", "price", "isBuyerMarketMaker", "note"};
+
+    @Test
+    void shouldWriteCsvHeaderOnceAndEscapeValues() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(ExportFormat.CSV, out);
+
+        // When
+        writer.processRow(row(COLUMNS, 1L, "BTCUSDT", new BigDecimal("50000.00000000"), true, "plain"));
+        writer.processRow(row(COLUMNS, 2L, "BTCUSDT", new BigDecimal("1E-8"), false, "a,b"));
+        writer.processRow(row(COLUMNS, 3L, "BTCUSDT", null, null, "say \"hi\""));
+        writer.processRow(row(COLUMNS, 4L, "BTCUSDT", BigDecimal.ONE, true, "line\nbreak\r"));
+        writer.finish();
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8), is("""
+                tradeId,symbol,price,isBuyerMarketMaker,note
+                1,BTCUSDT,50000,true,plain
+                2,BTCUSDT,0.00000001,false,"a,b"
+                3,BTCUSDT,,,"say ""hi\"""
+                4,BTCUSDT,1,true,"line
+                break\r"
+                """));
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(ExportFormat.NDJSON, out);
+
+        // When
+        writer.processRow(row(COLUMNS, 1L, "BTCUSDT", new BigDecimal("1E-8"), true, "a \"quoted\" note"));
+        writer.processRow(row(COLUMNS, 2L, "ETHUSDT", null, null, null));
+        writer.finish();
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8), is("""
+                {"tradeId":1,"symbol":"BTCUSDT","price":"0.00000001","isBuyerMarketMaker":true,"note":"a \\"quoted\\" note"}
+                {"tradeId":2,"symbol":"ETHUSDT","price":null,"isBuyerMarketMaker":null,"note":null}
+                """));
+    }
+
+    @Test
+    void shouldWriteNoHeaderWithoutRows() throws Exception {
+        // Given
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        // When
+        ExportWriter.create(ExportFormat.CSV, csv).finish();
+        ExportWriter.create(ExportFormat.NDJSON, ndjson).finish();
+
+        // Then
+        assertThat(csv.toString(StandardCharsets.UTF_8), is(""));
+        assertThat(ndjson.toString(StandardCharsets.UTF_8), is("\n"));
+    }
+
+    static ResultSet row(String[] columns, Object... values) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(values.length);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        for (int i = 0; i < values.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(columns[i]);
+            when(rs.getObject(i + 1)).thenReturn(values[i]);
+        }
+        return rs;
+    }
+}
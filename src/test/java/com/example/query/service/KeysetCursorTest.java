@@ -0,0 +1,141 @@
+package com.example.query.service;
+
+import com.example.query.model.CursorPage;
+import com.example.query.repository.SparseQueryRepository.KeyedRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+    private static final Set<String> SORT_KEYS = Set.of("id", "tradeTime");
+
+    @Test
+    void shouldStartFromFirstRowWithoutToken() {
+        // When
+        KeysetCursor cursor = KeysetCursor.of(null, "BTCUSDT", "tradeTime", "desc", SORT_KEYS);
+
+        // Then
+        assertThat(cursor.position(), is(ScrollPosition.keyset()));
+        assertThat(cursor.sort(), is(Sort.by(Sort.Direction.DESC, "tradeTime", "id")));
+    }
+
+    @Test
+    void shouldResumeAfterLastRowOfWindow() {
+        // Given
+        KeysetCursor first = KeysetCursor.of("", "BTCUSDT", "tradeTime", "asc", SORT_KEYS);
+        String token = first.next(window(true, 1_700_000_000_000L, 41L));
+
+        // When
+        KeysetCursor next = KeysetCursor.of(token, "BTCUSDT", "id", "desc", SORT_KEYS);
+
+        // Then
+        assertThat(next.sort(), is(Sort.by(Sort.Direction.ASC, "tradeTime", "id")));
+        KeysetScrollPosition position = (KeysetScrollPosition) next.position();
+        assertThat(position.getKeys(), is(Map.of("tradeTime", 1_700_000_000_000L, "id", 41L)));
+        assertThat(position.scrollsForward(), is(true));
+    }
+
+    @Test
+    void shouldNotIssueTokenForLastWindow() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.of(null, "BTCUSDT", "tradeTime", "asc", SORT_KEYS);
+
+        // Then
+        assertThat(cursor.next(window(false, 1_700_000_000_000L, 41L)), nullValue());
+        assertThat(cursor.next(Window.from(List.of(), index -> ScrollPosition.keyset(), true)), nullValue());
+    }
+
+    @Test
+    void shouldSortByIdAloneWhenIdIsTheSortKey() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.of(null, "*", "id", "asc", SORT_KEYS);
+        String token = cursor.next(window(true, null, 7L));
+
+        // When
+        KeysetCursor next = KeysetCursor.of(token, "*", "id", "asc", SORT_KEYS);
+
+        // Then
+        assertThat(next.sort(), is(Sort.by(Sort.Direction.ASC, "id")));
+        assertThat(((KeysetScrollPosition) next.position()).getKeys(), is(Map.of("id", 7L)));
+    }
+
+    @Test
+    void shouldSliceSeekRowsAndResumeAfterTheLastOneKept() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.of(null, "BTCUSDT", "tradeTime", "desc", SORT_KEYS);
+        List<KeyedRow> rows = List.of(row(1L, 1_700_000_000_002L, 7L), row(2L, 1_700_000_000_001L, 5L),
+                row(3L, 1_700_000_000_000L, 3L));
+
+        // When
+        CursorPage<Map<String, Object>> slice = cursor.slice(rows, 2);
+        CursorPage<Map<String, Object>> last = cursor.slice(rows, 3);
+
+        // Then
+        assertThat(cursor.keyAttributes(), contains("tradeTime", "id"));
+        assertThat(slice.getContent(), contains(Map.of("tradeId", 1L), Map.of("tradeId", 2L)));
+        assertThat(slice.isHasNext(), is(true));
+        KeysetScrollPosition position = (KeysetScrollPosition) KeysetCursor.of(slice.getNextCursor(), "BTCUSDT",
+                "id", "asc", SORT_KEYS).position();
+        assertThat(position.getKeys(), is(Map.of("tradeTime", 1_700_000_000_001L, "id", 5L)));
+        assertThat(last.getContent(), hasSize(3));
+        assertThat(last.isHasNext(), is(false));
+        assertThat(last.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void shouldRejectTokenIssuedForAnotherListing() {
+        // Given
+        String token = KeysetCursor.of(null, "BTCUSDT", "tradeTime", "asc", SORT_KEYS)
+                .next(window(true, 1_700_000_000_000L, 41L));
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.of(token, "ETHUSDT", "tradeTime", "asc", SORT_KEYS));
+        assertThat(e.getMessage(), containsString("different listing"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of(token, "*", "tradeTime", "asc", SORT_KEYS));
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of("not base64!", "*", "id", "asc", SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of(encode("tradeTime:ASC:1:2"), "*", "id", "asc", SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of(encode("price:ASC:1:2:*"), "*", "id", "asc", SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of(encode("tradeTime:UP:1:2:*"), "*", "id", "asc", SORT_KEYS));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of(encode("tradeTime:ASC:null:2:*"), "*", "id", "asc", SORT_KEYS));
+    }
+
+    @Test
+    void shouldRejectUnsupportedSortKeyForNewListing() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of(null, "*", "price", "asc", SORT_KEYS));
+    }
+
+    private static Window<String> window(boolean hasNext, Long tradeTime, Long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (tradeTime != null) {
+            keys.put("tradeTime", tradeTime);
+        }
+        keys.put("id", id);
+        return Window.from(List.of("row"), index -> ScrollPosition.forward(keys), hasNext);
+    }
+
+    private static KeyedRow row(long tradeId, long tradeTime, long id) {
+        return new KeyedRow(Map.of("tradeId", tradeId), Map.of("tradeTime", tradeTime, "id", id));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.query.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LatestValueStoreTest {
+    private static final Duration MAX_AGE = Duration.ofSeconds(5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private LatestValueStore<String> store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LatestValueStore<>(MAX_AGE, clock::get);
+    }
+
+    @Test
+    void shouldLoadMissOnceAndServeFromMemory() {
+        // When
+        Optional<String> first = store.get("BTCUSDT", symbol -> load("loaded"));
+        Optional<String> second = store.get("BTCUSDT", symbol -> load("reloaded"));
+
+        // Then
+        assertThat(first.orElseThrow(), is("loaded"));
+        assertThat(second.orElseThrow(), is("loaded"));
+        assertThat(loads.get(), is(1));
+        assertThat(store.hitCount(), is(1L));
+        assertThat(store.missCount(), is(1L));
+    }
+
+    @Test
+    void shouldReloadEntryOlderThanMaxAge() {
+        // Given
+        store.put("BTCUSDT", "put");
+        clock.addAndGet(MAX_AGE.toNanos() - 1);
+        assertThat(store.get("BTCUSDT", symbol -> load("loaded")).orElseThrow(), is("put"));
+
+        // When
+        clock.addAndGet(1);
+        Optional<String> expired = store.get("BTCUSDT", symbol -> load("loaded"));
+
+        // Then
+        assertThat(expired.orElseThrow(), is("loaded"));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    void shouldNotCacheValueLoadedWhileEvicting() {
+        // When
+        Optional<String> loaded = store.get("BTCUSDT", symbol -> {
+            store.evictIf("stale"::equals);
+            return load("stale");
+        });
+
+        // Then
+        assertThat(loaded.orElseThrow(), is("stale"));
+        assertThat(store.size(), is(0));
+        assertThat(store.get("BTCUSDT", symbol -> load("fresh")).orElseThrow(), is("fresh"));
+        assertThat(store.get("BTCUSDT", symbol -> load("unused")).orElseThrow(), is("fresh"));
+    }
+
+    @Test
+    void shouldKeepValuePutWhileLoading() {
+        // When
+        Optional<String> loaded = store.get("BTCUSDT", symbol -> {
+            store.put("BTCUSDT", "written");
+            return load("older");
+        });
+
+        // Then
+        assertThat(loaded.orElseThrow(), is("written"));
+        assertThat(store.get("BTCUSDT", symbol -> load("unused")).orElseThrow(), is("written"));
+    }
+
+    @Test
+    void shouldEvictOnlyMatchingValues() {
+        // Given
+        store.put("BTCUSDT", "trade-1");
+        store.put("ETHUSDT", "trade-2");
+
+        // When
+        store.evictIf("trade-1"::equals);
+
+        // Then
+        assertThat(store.size(), is(1));
+        assertThat(store.get("ETHUSDT", symbol -> load("unused")).orElseThrow(), is("trade-2"));
+        assertThat(store.get("BTCUSDT", symbol -> load("reloaded")).orElseThrow(), is("reloaded"));
+    }
+
+    @Test
+    void shouldBulkLoadOnlyMissingAndExpiredSymbols() {
+        // Given
+        store.put("BTCUSDT", "btc");
+        clock.addAndGet(MAX_AGE.toNanos());
+        store.put("ETHUSDT", "eth");
+        List<Collection<String>> requested = new ArrayList<>();
+
+        // When
+        Map<String, String> found = store.getAll(List.of("BTCUSDT", "ETHUSDT", "XRPUSDT"), symbols -> {
+            requested.add(List.copyOf(symbols));
+            return Map.of("BTCUSDT", "btc-reloaded");
+        });
+
+        // Then
+        assertThat(requested, hasSize(1));
+        assertThat(requested.get(0), containsInAnyOrder("BTCUSDT", "XRPUSDT"));
+        assertThat(found, is(Map.of("BTCUSDT", "btc-reloaded", "ETHUSDT", "eth")));
+        assertThat(store.hitCount(), is(1L));
+        assertThat(store.missCount(), is(2L));
+    }
+
+    @Test
+    void shouldNotCacheBulkLoadOverlappingEviction() {
+        // When
+        Map<String, String> found = store.getAll(List.of("BTCUSDT"), symbols -> {
+            store.evict("BTCUSDT");
+            return Map.of("BTCUSDT", "stale");
+        });
+
+        // Then
+        assertThat(found, is(Map.of("BTCUSDT", "stale")));
+        assertThat(store.size(), is(0));
+    }
+
+    private Optional<String> load(String value) {
+        loads.incrementAndGet();
+        return Optional.of(value);
+    }
+}
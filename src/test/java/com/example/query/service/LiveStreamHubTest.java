@@ -0,0 +1,201 @@
+package com.example.query.service;
+
+import com.example.query.entity.SymbolEntity;
+import com.example.query.model.StreamEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiveStreamHubTest {
+
+    private static final EnumSet<StreamEventType> ALL_TYPES = EnumSet.allOf(StreamEventType.class);
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private SymbolService symbolService;
+
+    @BeforeEach
+    void setUp() {
+        symbolService = mock(SymbolService.class);
+        when(symbolService.findSymbolByName(anyString())).thenAnswer(invocation -> {
+            SymbolEntity symbol = new SymbolEntity();
+            symbol.setName(invocation.getArgument(0));
+            return symbol;
+        });
+    }
+
+    @Test
+    void shouldDeliverOnlySubscribedSymbolsAndTypes() {
+        // Given
+        LiveStreamHub hub = hub(8, 8);
+        hub.subscribe(List.of("BTCUSDT"), EnumSet.of(StreamEventType.TRADE));
+
+        // When
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade");
+        hub.publish(StreamEventType.TICKER, "BTCUSDT", "ticker");
+        hub.publish(StreamEventType.TRADE, "ETHUSDT", "other symbol");
+        executor.runAll();
+
+        // Then
+        assertThat(hub.hasSubscribers("BTCUSDT"), is(true));
+        assertThat(hub.hasSubscribers("ETHUSDT"), is(false));
+        assertThat(hub.getPublishedCount(), is(2L));
+        assertThat(hub.getDeliveredCount(), is(1L));
+    }
+
+    @Test
+    void shouldDropOldestEventsWhenTheQueueIsFull() {
+        // Given
+        LiveStreamHub hub = hub(2, 8);
+        hub.subscribe(List.of("BTCUSDT"), ALL_TYPES);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-" + i);
+        }
+        executor.runAll();
+
+        // Then
+        assertThat(hub.getDroppedCount(), is(3L));
+        assertThat(hub.getDeliveredCount(), is(2L));
+        assertThat(hub.getSubscriberCount(), is(1));
+        assertThat(hub.getSlowDisconnectCount(), is(0L));
+    }
+
+    @Test
+    void shouldResetOverflowOnceTheSubscriberCatchesUp() {
+        // Given
+        LiveStreamHub hub = hub(1, 2);
+        hub.subscribe(List.of("BTCUSDT"), ALL_TYPES);
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-0");
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-1");
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-2");
+        executor.runAll();
+
+        // When
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-3");
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-4");
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-5");
+
+        // Then
+        assertThat(hub.getSubscriberCount(), is(1));
+        assertThat(hub.getDroppedCount(), is(4L));
+    }
+
+    @Test
+    void shouldDisconnectSubscribersThatKeepOverflowing() {
+        // Given
+        LiveStreamHub hub = hub(1, 2);
+        hub.subscribe(List.of("BTCUSDT", "ETHUSDT"), ALL_TYPES);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade-" + i);
+        }
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "after disconnect");
+        executor.runAll();
+
+        // Then
+        assertThat(hub.getSlowDisconnectCount(), is(1L));
+        assertThat(hub.getSubscriberCount(), is(0));
+        assertThat(hub.hasSubscribers("BTCUSDT"), is(false));
+        assertThat(hub.hasSubscribers("ETHUSDT"), is(false));
+        assertThat(hub.getDeliveredCount(), is(0L));
+    }
+
+    @Test
+    void shouldUnsubscribeWhenSendingToAClosedEmitterFails() {
+        // Given
+        LiveStreamHub hub = hub(8, 8);
+        SseEmitter gone = hub.subscribe(List.of("BTCUSDT"), ALL_TYPES);
+        hub.subscribe(List.of("BTCUSDT"), ALL_TYPES);
+        gone.complete();
+
+        // When
+        hub.publish(StreamEventType.TRADE, "BTCUSDT", "trade");
+        executor.runAll();
+
+        // Then
+        assertThat(hub.getSubscriberCount(), is(1));
+        assertThat(hub.hasSubscribers("BTCUSDT"), is(true));
+        assertThat(hub.getDeliveredCount(), is(1L));
+    }
+
+    @Test
+    void shouldSendHeartbeatsWithoutCountingThemAsDelivered() {
+        // Given
+        LiveStreamHub hub = hub(8, 8);
+        hub.subscribe(List.of("BTCUSDT"), ALL_TYPES);
+
+        // When
+        hub.heartbeat();
+        executor.runAll();
+
+        // Then
+        assertThat(hub.getDeliveredCount(), is(0L));
+        assertThat(hub.getSubscriberCount(), is(1));
+    }
+
+    private LiveStreamHub hub(int queueCapacity, int maxOverflow) {
+        return new LiveStreamHub(symbolService, queueCapacity, maxOverflow, Duration.ofHours(1), executor);
+    }
+
+    /**
+     * Runs drains only when the test asks, so queues can be filled before anything is sent.
+     */
+    private static final class ManualExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            tasks.clear();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> pending = List.copyOf(tasks);
+            tasks.clear();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.query.service;
+
+import com.example.query.configuration.PartitionProperties;
+import com.example.query.configuration.PartitionProperties.Granularity;
+import com.example.query.configuration.PartitionProperties.TablePolicy;
+import com.example.query.repository.PartitionRepository;
+import com.example.query.repository.PartitionRepository.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:30:00Z");
+    private static final Partition FUTURE = new Partition(PartitionRepository.FUTURE_PARTITION, null);
+
+    private PartitionRepository partitionRepository;
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        partitionRepository = mock(PartitionRepository.class);
+        service = new PartitionMaintenanceService(partitionRepository, new PartitionProperties());
+    }
+
+    @Test
+    void shouldAddDailyPartitionsUpToTheAheadWindowAndDropExpiredOnes() {
+        // Given
+        when(partitionRepository.findPartitions("trade")).thenReturn(List.of(
+                new Partition("p20261014", day(2026, 10, 15)),
+                new Partition("p20261015", day(2026, 10, 16)),
+                new Partition("p20261016", day(2026, 10, 17)),
+                FUTURE));
+
+        // When
+        service.maintain("trade", policy(Granularity.DAY, Duration.ofDays(2), 2), NOW);
+
+        // Then
+        verify(partitionRepository).addBefore("trade", List.of(
+                new Partition("p20261017", day(2026, 10, 18)),
+                new Partition("p20261018", day(2026, 10, 19)),
+                new Partition("p20261019", day(2026, 10, 20)),
+                new Partition("p20261020", day(2026, 10, 21))));
+        // The cutoff is 2026-10-16T10:30; a partition is dropped only once all of its rows are older
+        verify(partitionRepository).drop("trade", List.of("p20261014", "p20261015"));
+    }
+
+    @Test
+    void shouldStartFromTodayWhenOnlyTheFuturePartitionExists() {
+        // Given
+        when(partitionRepository.findPartitions("ticker")).thenReturn(List.of(FUTURE));
+
+        // When
+        service.maintain("ticker", policy(Granularity.DAY, null, 1), NOW);
+
+        // Then
+        verify(partitionRepository).addBefore("ticker", List.of(
+                new Partition("p20261018", day(2026, 10, 19)),
+                new Partition("p20261019", day(2026, 10, 20))));
+        verify(partitionRepository, never()).drop(any(), anyList());
+    }
+
+    @Test
+    void shouldAddMonthlyPartitionsAndKeepOnesStillWithinRetention() {
+        // Given
+        when(partitionRepository.findPartitions("trade")).thenReturn(List.of(
+                new Partition("p202607", day(2026, 8, 1)),
+                new Partition("p202608", day(2026, 9, 1)),
+                FUTURE));
+
+        // When
+        service.maintain("trade", policy(Granularity.MONTH, Duration.ofDays(60), 1), NOW);
+
+        // Then
+        verify(partitionRepository).addBefore("trade", List.of(
+                new Partition("p202609", day(2026, 10, 1)),
+                new Partition("p202610", day(2026, 11, 1)),
+                new Partition("p202611", day(2026, 12, 1))));
+        // The cutoff is 2026-08-19T10:30, inside p202608
+        verify(partitionRepository).drop("trade", List.of("p202607"));
+    }
+
+    @Test
+    void shouldNotAddPartitionsThatAlreadyExist() {
+        // Given
+        when(partitionRepository.findPartitions("trade")).thenReturn(List.of(
+                new Partition("p20261018", day(2026, 10, 19)),
+                new Partition("p20261019", day(2026, 10, 20)),
+                FUTURE));
+
+        // When
+        service.maintain("trade", policy(Granularity.DAY, null, 1), NOW);
+
+        // Then
+        verify(partitionRepository, never()).addBefore(any(), anyList());
+    }
+
+    @Test
+    void shouldLeaveTablesWithoutTheFuturePartitionAlone() {
+        // Given
+        when(partitionRepository.findPartitions("trade")).thenReturn(List.of(new Partition("p20261014", day(2026, 10, 15))));
+
+        // When
+        service.maintain("trade", policy(Granularity.DAY, Duration.ofDays(1), 7), NOW);
+
+        // Then
+        verify(partitionRepository, never()).addBefore(any(), anyList());
+        verify(partitionRepository, never()).drop(any(), anyList());
+    }
+
+    @Test
+    void shouldRejectTablesThatAreNotPartitioned() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.maintain("user", policy(Granularity.DAY, null, 7), NOW));
+        verify(partitionRepository, never()).findPartitions(eq("user"));
+    }
+
+    private static TablePolicy policy(Granularity granularity, Duration retention, int ahead) {
+        TablePolicy policy = new TablePolicy();
+        policy.setGranularity(granularity);
+        policy.setRetention(retention);
+        policy.setAhead(ahead);
+        return policy;
+    }
+
+    private static long day(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.query.service;
+
+import com.example.query.entity.SymbolEntity;
+import com.example.query.mapper.PayloadMapper;
+import com.example.query.mapper.PayloadMapperImpl;
+import com.example.query.model.ExportFormat;
+import com.example.query.model.TickerDto;
+import com.example.query.repository.ExportRepository;
+import com.example.query.repository.LatestValueRepository;
+import com.example.query.repository.SparseQueryRepository;
+import com.example.query.repository.TickerBatchRepository;
+import com.example.query.repository.TickerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TickerServiceTest {
+
+    @Mock
+    private TickerRepository tickerRepository;
+    @Mock
+    private TickerBatchRepository tickerBatchRepository;
+    @Mock
+    private ExportRepository exportRepository;
+    @Mock
+    private LatestValueRepository latestValueRepository;
+    @Mock
+    private SparseQueryRepository sparseQueryRepository;
+    @Mock
+    private SymbolService symbolService;
+    @Mock
+    private EventTypeService eventTypeService;
+    @Spy
+    private PayloadMapper mapper = new PayloadMapperImpl();
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private LatestValueStore<TickerDto> latestTickers = new LatestValueStore<>(Duration.ofSeconds(5));
+    @Mock
+    private LiveStreamHub liveStreamHub;
+
+    @InjectMocks
+    private TickerService tickerService;
+
+    private static final String[] EXPORT_COLUMNS = {"tickerId", "eventType", "symbol", "lastPrice", "totalTradeCount"};
+
+    private SymbolEntity btc;
+
+    @BeforeEach
+    void setUp() {
+        btc = new SymbolEntity();
+        btc.setId(1);
+        btc.setName("BTCUSDT");
+        when(symbolService.findSymbolByName("BTCUSDT")).thenReturn(btc);
+        when(symbolService.findSymbolByName("DOGEXYZ")).thenThrow(new IllegalArgumentException("Invalid symbol: DOGEXYZ"));
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void shouldStreamTickerExportAsCsv() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(4);
+            handler.processRow(ExportWriterTest.row(EXPORT_COLUMNS, 7L, "24hrTicker", "BTCUSDT", new BigDecimal("64000.10000000"), 1200L));
+            handler.processRow(ExportWriterTest.row(EXPORT_COLUMNS, 8L, "24hrTicker", "BTCUSDT", new BigDecimal("64010.00000000"), 1210L));
+            return null;
+        }).when(exportRepository).streamTickers(eq("BTCUSDT"), eq(1), eq(1000L), eq(2000L), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        tickerService.exportTickers("BTCUSDT", 1000L, 2000L, ExportFormat.CSV).writeTo(out);
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8), is("""
+                tickerId,eventType,symbol,lastPrice,totalTradeCount
+                7,24hrTicker,BTCUSDT,64000.1,1200
+                8,24hrTicker,BTCUSDT,64010,1210
+                """));
+    }
+
+    @Test
+    void shouldRejectUnknownSymbolBeforeStreaming() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> tickerService.exportTickers("DOGEXYZ", 1000L, 2000L, ExportFormat.NDJSON));
+        verify(exportRepository, never()).streamTickers(anyString(), anyInt(), anyLong(), anyLong(), any());
+    }
+}
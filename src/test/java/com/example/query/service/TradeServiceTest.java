@@ -0,0 +1,612 @@
+package com.example.query.service;
+
+import com.example.query.entity.EventTypeEntity;
+import com.example.query.entity.SymbolEntity;
+import com.example.query.entity.TradeEntity;
+import com.example.query.exception.TradeArchivedException;
+import com.example.query.exception.TradeNotFoundException;
+import com.example.query.mapper.PayloadMapper;
+import com.example.query.mapper.PayloadMapperImpl;
+import com.example.query.model.BatchItemStatus;
+import com.example.query.model.CursorPage;
+import com.example.query.model.SparseFields;
+import com.example.query.model.StreamEventType;
+import com.example.query.model.TradeDto;
+import com.example.query.model.TradeRow;
+import com.example.query.repository.ExportRepository;
+import com.example.query.repository.LatestValueRepository;
+import com.example.query.repository.SparseQueryRepository;
+import com.example.query.repository.SparseQueryRepository.KeyedRow;
+import com.example.query.repository.TradeAggregationRepository;
+import com.example.query.repository.TradeBatchRepository;
+import com.example.query.repository.TradeRepository;
+import com.example.query.repository.TradeWriteRepository;
+import com.example.query.repository.TradeWriteRepository.StoredTrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TradeServiceTest {
+
+    @Mock
+    private TradeRepository tradeRepository;
+    @Mock
+    private TradeBatchRepository tradeBatchRepository;
+    @Mock
+    private TradeWriteRepository tradeWriteRepository;
+    @Mock
+    private ExportRepository exportRepository;
+    @Mock
+    private TradeAggregationRepository tradeAggregationRepository;
+    @Mock
+    private LatestValueRepository latestValueRepository;
+    @Mock
+    private SparseQueryRepository sparseQueryRepository;
+    @Mock
+    private CandleStore candleStore;
+    @Mock
+    private ColdTradeStore coldTradeStore;
+    @Mock
+    private LiveStreamHub liveStreamHub;
+    @Mock
+    private SymbolService symbolService;
+    @Mock
+    private EventTypeService eventTypeService;
+    @Spy
+    private PayloadMapper mapper = new PayloadMapperImpl();
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private LatestValueStore<TradeDto> latestTrades = new LatestValueStore<>(Duration.ofSeconds(5));
+
+    @InjectMocks
+    private TradeService tradeService;
+
+    private SymbolEntity btc;
+    private EventTypeEntity tradeEvent;
+
+    @BeforeEach
+    void setUp() {
+        btc = new SymbolEntity();
+        btc.setId(1);
+        btc.setName("BTCUSDT");
+        tradeEvent = new EventTypeEntity();
+        tradeEvent.setId(1);
+        tradeEvent.setType("trade");
+
+        when(symbolService.findSymbolByName("BTCUSDT")).thenReturn(btc);
+        when(symbolService.findSymbolsByName(anyCollection())).thenReturn(Map.of("BTCUSDT", btc));
+        when(eventTypeService.findEventType("trade")).thenReturn(tradeEvent);
+        when(eventTypeService.findEventTypes(anyCollection())).thenReturn(Map.of("trade", tradeEvent));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(tradeWriteRepository.upsert(any())).thenReturn(1);
+        when(tradeBatchRepository.insertAll(anyList())).thenAnswer(invocation -> inserted(invocation.<List<?>>getArgument(0).size()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldInsertAcceptedTradesInOneBatchAndRejectUnknownReferences() {
+        // Given
+        List<TradeDto> trades = List.of(
+                trade(1L, "BTCUSDT", "trade"),
+                trade(2L, "DOGEXYZ", "trade"),
+                trade(3L, "BTCUSDT", "aggTrade"),
+                trade(4L, "BTCUSDT", "trade"));
+
+        // When
+        List<BatchItemStatus> statuses = tradeService.saveTrades(trades);
+
+        // Then
+        assertThat(statuses.stream().map(BatchItemStatus::getStatus).toList(), contains(
+                BatchItemStatus.Status.CREATED, BatchItemStatus.Status.REJECTED,
+                BatchItemStatus.Status.REJECTED, BatchItemStatus.Status.CREATED));
+        assertThat(statuses.get(1).getError(), is("Invalid symbol: DOGEXYZ"));
+        assertThat(statuses.get(2).getError(), is("Invalid event type: aggTrade"));
+        assertThat(statuses.stream().map(BatchItemStatus::getIndex).toList(), contains(0, 1, 2, 3));
+
+        ArgumentCaptor<List<TradeEntity>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(tradeBatchRepository).insertAll(inserted.capture());
+        assertThat(inserted.getValue().stream().map(TradeEntity::getTradeId).toList(), contains(1L, 4L));
+        assertThat(inserted.getValue().get(0).getSymbol(), sameInstance(btc));
+        verify(candleStore, times(2)).invalidate(eq(1), any());
+        verify(tradeWriteRepository, never()).findStoredTrades(anyCollection(), anyLong(), anyLong());
+        assertThat(tradeService.getLatestTrades().get("BTCUSDT", symbol -> {
+            throw new AssertionError("latest trade should be cached");
+        }).orElseThrow().getTradeId(), is(4L));
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWhenEveryTradeIsRejected() {
+        // When
+        List<BatchItemStatus> statuses = tradeService.saveTrades(List.of(trade(1L, "DOGEXYZ", "trade")));
+
+        // Then
+        assertThat(statuses, hasSize(1));
+        assertThat(statuses.get(0).getStatus(), is(BatchItemStatus.Status.REJECTED));
+        verify(tradeBatchRepository, never()).insertAll(anyList());
+        verify(candleStore, never()).invalidate(any(), any());
+    }
+
+    @Test
+    void shouldRejectTradesWithoutTradeTimePerItem() {
+        // Given
+        TradeDto missingTime = trade(2L, "BTCUSDT", "trade");
+        missingTime.setTradeTime(null);
+
+        // When
+        List<BatchItemStatus> statuses = tradeService.saveTrades(List.of(trade(1L, "BTCUSDT", "trade"), missingTime));
+
+        // Then
+        assertThat(statuses.get(0).getStatus(), is(BatchItemStatus.Status.CREATED));
+        assertThat(statuses.get(1).getStatus(), is(BatchItemStatus.Status.REJECTED));
+        assertThat(statuses.get(1).getError(), is("tradeTime is required"));
+        verify(tradeBatchRepository).insertAll(argThat(trades -> trades.size() == 1));
+    }
+
+    @Test
+    void shouldRejectSingleTradeWithoutTradeTimeBeforeWriting() {
+        // Given
+        TradeDto missingTime = trade(1L, "BTCUSDT", "trade");
+        missingTime.setTradeTime(null);
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> tradeService.saveTrade(missingTime));
+
+        // Then
+        assertThat(error.getMessage(), is("tradeTime is required"));
+        verifyNoInteractions(tradeWriteRepository);
+    }
+
+    @Test
+    void shouldInvalidateCandlesOnlyForTradesTheBatchChanged() {
+        // Given
+        when(tradeBatchRepository.insertAll(anyList())).thenReturn(new int[]{0, 1, 2});
+        when(tradeWriteRepository.findStoredTrades(anyCollection(), anyLong(), anyLong())).thenReturn(Map.of(1L, stored(1L, 1_700_000_000_001L)));
+
+        // When
+        List<BatchItemStatus> statuses = tradeService.saveTrades(List.of(
+                trade(1L, "BTCUSDT", "trade"), trade(2L, "BTCUSDT", "trade"), trade(2L, "BTCUSDT", "trade")));
+
+        // Then
+        assertThat(statuses.stream().map(BatchItemStatus::getStatus).toList(), everyItem(is(BatchItemStatus.Status.CREATED)));
+        verify(tradeBatchRepository).insertAll(argThat(trades -> trades.size() == 3));
+        verify(tradeWriteRepository).findStoredTrades(List.of(1L), 1_700_000_000_001L, 1_700_000_000_001L);
+        verify(candleStore, times(2)).invalidate(1, 1_700_000_000_002L);
+        verifyNoMoreInteractions(candleStore);
+    }
+
+    @Test
+    void shouldRejectBatchItemsThatMoveAStoredTradeToAnotherTime() {
+        // Given
+        when(tradeBatchRepository.insertAll(anyList())).thenReturn(new int[]{0, 1, 0});
+        when(tradeWriteRepository.findStoredTrades(anyCollection(), anyLong(), anyLong()))
+                .thenReturn(Map.of(1L, stored(1L, 1_600_000_000_000L), 3L, stored(3L, 1_700_000_000_003L)));
+
+        // When
+        List<BatchItemStatus> statuses = tradeService.saveTrades(List.of(
+                trade(1L, "BTCUSDT", "trade"), trade(2L, "BTCUSDT", "trade"), trade(3L, "BTCUSDT", "trade")));
+
+        // Then
+        assertThat(statuses.get(0).getStatus(), is(BatchItemStatus.Status.REJECTED));
+        assertThat(statuses.get(0).getError(), is("tradeTime of trade 1 cannot change from 1600000000000"));
+        assertThat(statuses.get(1).getStatus(), is(BatchItemStatus.Status.CREATED));
+        assertThat(statuses.get(2).getStatus(), is(BatchItemStatus.Status.CREATED));
+        verify(tradeWriteRepository).findStoredTrades(List.of(1L, 3L), 1_700_000_000_001L, 1_700_000_000_003L);
+        verify(candleStore).invalidate(1, 1_700_000_000_002L);
+        verifyNoMoreInteractions(candleStore);
+        assertThat(tradeService.getLatestTrades().get("BTCUSDT", symbol -> {
+            throw new AssertionError("latest trade should be cached");
+        }).orElseThrow().getTradeId(), is(3L));
+    }
+
+    @Test
+    void shouldInvalidateCandlesOnlyForSingleTradesThatChanged() {
+        // Given
+        when(tradeWriteRepository.upsert(any())).thenReturn(0, 2);
+        when(tradeWriteRepository.findStoredTrades(eq(List.of(1L)), anyLong(), anyLong())).thenReturn(Map.of(1L, stored(1L, 1_700_000_000_001L)));
+
+        // When
+        tradeService.saveTrade(trade(1L, "BTCUSDT", "trade"));
+        tradeService.saveTrade(trade(2L, "BTCUSDT", "trade"));
+
+        // Then
+        verify(tradeWriteRepository, times(2)).upsert(any());
+        verify(tradeWriteRepository).findStoredTrades(List.of(1L), 1_700_000_000_001L, 1_700_000_000_001L);
+        verify(candleStore).invalidate(1, 1_700_000_000_002L);
+        verifyNoMoreInteractions(candleStore);
+    }
+
+    @Test
+    void shouldSaveANewTradeInOneStatement() {
+        // When
+        tradeService.saveTrade(trade(1L, "BTCUSDT", "trade"));
+
+        // Then
+        verify(tradeWriteRepository).upsert(any());
+        verifyNoMoreInteractions(tradeWriteRepository);
+        verify(candleStore).invalidate(1, 1_700_000_000_001L);
+    }
+
+    @Test
+    void shouldRejectASingleTradeThatMovesAStoredTradeToAnotherTime() {
+        // Given
+        when(tradeWriteRepository.upsert(any())).thenReturn(0);
+        when(tradeWriteRepository.findStoredTrades(eq(List.of(1L)), anyLong(), anyLong())).thenReturn(Map.of(1L, stored(1L, 1_600_000_000_000L)));
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.saveTrade(trade(1L, "BTCUSDT", "trade")));
+
+        // Then
+        assertThat(error.getMessage(), is("tradeTime of trade 1 cannot change from 1600000000000"));
+        verifyNoInteractions(candleStore, liveStreamHub);
+    }
+
+    @Test
+    void shouldRejectASingleTradeStoredForAnotherSymbol() {
+        // Given
+        when(tradeWriteRepository.upsert(any())).thenReturn(0);
+        when(tradeWriteRepository.findStoredTrades(eq(List.of(1L)), anyLong(), anyLong()))
+                .thenReturn(Map.of(1L, new StoredTrade(1L, 1_700_000_000_001L, 2)));
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.saveTrade(trade(1L, "BTCUSDT", "trade")));
+
+        // Then
+        assertThat(error.getMessage(), is("symbol of trade 1 cannot change"));
+        verifyNoInteractions(candleStore);
+    }
+
+    @Test
+    void shouldInvalidateTheCandleOfAnUpdatedTrade() {
+        // Given
+        when(tradeWriteRepository.updateByTradeId(any())).thenReturn(1);
+
+        // When
+        tradeService.updateTrade(trade(1L, "BTCUSDT", "trade"));
+
+        // Then
+        verify(candleStore).invalidate(1, 1_700_000_000_001L);
+        verify(tradeWriteRepository, never()).findStoredTrades(anyCollection(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldInvalidateTheCandlesOfEveryDeletedRow() {
+        // Given
+        when(tradeWriteRepository.deleteByTradeId(1L, null)).thenReturn(List.of(stored(1L, 1_700_000_000_001L)));
+
+        // When
+        tradeService.deleteByTradeId(1L, null);
+
+        // Then
+        verify(transactionTemplate).execute(any());
+        verify(candleStore).invalidate(1, 1_700_000_000_001L);
+    }
+
+    @Test
+    void shouldReportADeleteAtAnotherTimeAsAChangeOfTradeTime() {
+        // Given
+        when(tradeWriteRepository.findStoredTrades(eq(List.of(1L)), anyLong(), anyLong()))
+                .thenReturn(Map.of(1L, stored(1L, 1_600_000_000_000L)));
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.deleteByTradeId(1L, 1_700_000_000_001L));
+
+        // Then
+        assertThat(error.getMessage(), is("tradeTime of trade 1 cannot change from 1600000000000"));
+        verifyNoInteractions(candleStore, coldTradeStore);
+    }
+
+    @Test
+    void shouldReportAnUpdateAtAnotherTimeAsAChangeOfTradeTime() {
+        // Given
+        when(tradeWriteRepository.updateByTradeId(any())).thenReturn(0);
+        when(tradeWriteRepository.findStoredTrades(eq(List.of(1L)), anyLong(), anyLong())).thenReturn(Map.of(1L, stored(1L, 1_600_000_000_000L)));
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.updateTrade(trade(1L, "BTCUSDT", "trade")));
+
+        // Then
+        assertThat(error.getMessage(), is("tradeTime of trade 1 cannot change from 1600000000000"));
+        verifyNoInteractions(coldTradeStore);
+    }
+
+    @Test
+    void shouldAcceptAnUpdateThatChangesNothing() {
+        // Given
+        when(tradeWriteRepository.updateByTradeId(any())).thenReturn(0);
+        when(tradeWriteRepository.findStoredTrades(eq(List.of(1L)), anyLong(), anyLong())).thenReturn(Map.of(1L, stored(1L, 1_700_000_000_001L)));
+
+        // When
+        TradeDto updated = tradeService.updateTrade(trade(1L, "BTCUSDT", "trade"));
+
+        // Then
+        assertThat(updated.getTradeId(), is(1L));
+        verifyNoInteractions(coldTradeStore, candleStore);
+    }
+
+    @Test
+    void shouldPublishOnlyToSymbolsWithSubscribers() {
+        // Given
+        when(liveStreamHub.hasSubscribers("BTCUSDT")).thenReturn(true);
+
+        // When
+        tradeService.saveTrades(List.of(trade(1L, "BTCUSDT", "trade"), trade(2L, "BTCUSDT", "trade")));
+
+        // Then
+        verify(liveStreamHub, times(2)).publish(eq(StreamEventType.TRADE), eq("BTCUSDT"), any(TradeDto.class));
+    }
+
+    @Test
+    void shouldLoadLatestTradeOnThePrimaryOnceAndServeItFromMemory() {
+        // Given
+        when(tradeRepository.findFirstBySymbolAndTradeTimeGreaterThanEqualOrderByCreatedAtDesc(eq(btc), anyLong()))
+                .thenReturn(Optional.of(tradeEntity(42L)));
+
+        // When
+        TradeDto first = tradeService.getLatestTradeBySymbol("BTCUSDT");
+        TradeDto second = tradeService.getLatestTradeBySymbol("BTCUSDT");
+
+        // Then
+        assertThat(first.getTradeId(), is(42L));
+        assertThat(second.getTradeId(), is(42L));
+        // The read-write template keeps the connection on the primary; read-only ones are built from its manager
+        verify(transactionTemplate).execute(any());
+        verify(transactionTemplate, never()).getTransactionManager();
+        verify(tradeRepository, never()).findFirstBySymbolOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void shouldFallBackToUnboundedLatestLookupForQuietSymbols() {
+        // Given
+        when(tradeRepository.findFirstBySymbolAndTradeTimeGreaterThanEqualOrderByCreatedAtDesc(eq(btc), anyLong()))
+                .thenReturn(Optional.empty());
+        when(tradeRepository.findFirstBySymbolOrderByCreatedAtDesc(btc)).thenReturn(Optional.of(tradeEntity(7L)));
+
+        // When
+        TradeDto latest = tradeService.getLatestTradeBySymbol("BTCUSDT");
+
+        // Then
+        assertThat(latest.getTradeId(), is(7L));
+        verify(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void shouldLoadLatestTradesForManySymbolsOnThePrimary() {
+        // Given
+        when(latestValueRepository.findLatestTrades(eq(List.of(1)), anyLong())).thenReturn(List.of(trade(9L, "BTCUSDT", "trade")));
+
+        // When
+        Map<String, TradeDto> latest = tradeService.getLatestTradesBySymbols(List.of("BTCUSDT"));
+
+        // Then
+        assertThat(latest.get("BTCUSDT").getTradeId(), is(9L));
+        verify(transactionTemplate).execute(any());
+        verify(transactionTemplate, never()).getTransactionManager();
+    }
+
+    @Test
+    void shouldFallBackToUnboundedLatestLookupOnlyForQuietSymbols() {
+        // Given
+        SymbolEntity eth = new SymbolEntity();
+        eth.setId(2);
+        eth.setName("ETHUSDT");
+        when(symbolService.findSymbolsByName(anyCollection())).thenReturn(Map.of("BTCUSDT", btc, "ETHUSDT", eth));
+        when(latestValueRepository.findLatestTrades(anyCollection(), anyLong())).thenReturn(List.of(trade(9L, "BTCUSDT", "trade")));
+        when(latestValueRepository.findLatestTrades(List.of(2))).thenReturn(List.of(trade(3L, "ETHUSDT", "trade")));
+
+        // When
+        Map<String, TradeDto> latest = tradeService.getLatestTradesBySymbols(List.of("BTCUSDT", "ETHUSDT"));
+
+        // Then
+        assertThat(latest.keySet(), contains("BTCUSDT", "ETHUSDT"));
+        assertThat(latest.get("ETHUSDT").getTradeId(), is(3L));
+        verify(latestValueRepository).findLatestTrades(List.of(2));
+        verify(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void shouldPageNewestFirstFromMySqlIntoColdStorage() {
+        // Given
+        hotAndColdTrades();
+
+        // When
+        List<Long> tradeIds = allPages("desc");
+
+        // Then
+        assertThat(tradeIds, contains(LongStream.rangeClosed(1, 17).map(i -> 18 - i).boxed().toArray()));
+    }
+
+    @Test
+    void shouldPageOldestFirstFromColdStorageIntoMySql() {
+        // Given
+        hotAndColdTrades();
+
+        // When
+        List<Long> tradeIds = allPages("asc");
+
+        // Then
+        assertThat(tradeIds, contains(LongStream.rangeClosed(1, 17).boxed().toArray()));
+    }
+
+    @Test
+    void shouldCountMySqlAndColdTradesTogether() {
+        // Given
+        hotAndColdTrades();
+
+        // When
+        Page<TradeDto> page = tradeService.getTradesBySymbol("BTCUSDT", 4, 4, "tradeId", "desc");
+
+        // Then
+        assertThat(page.getTotalElements(), is(17L));
+        assertThat(page.getTotalPages(), is(5));
+        assertThat(page.getContent().stream().map(TradeDto::getTradeId).toList(), contains(1L));
+    }
+
+    @Test
+    void shouldSelectOnlyTheRequestedFieldsOfOneMoreRowThanTheSlice() {
+        // Given
+        SparseFields fields = SparseFields.ofTrade("price");
+        when(sparseQueryRepository.scrollFields(eq(TradeEntity.class), eq(fields), eq(List.of("tradeTime", "id")), any(),
+                any(), eq(3))).thenReturn(List.of(keyed("1", 1L), keyed("2", 2L), keyed("3", 3L)));
+
+        // When
+        CursorPage<Map<String, Object>> slice = tradeService.scrollTradeFieldsBySymbol("BTCUSDT", fields, "", 2,
+                "tradeTime", "asc");
+
+        // Then
+        assertThat(slice.getContent(), contains(Map.of("price", "1"), Map.of("price", "2")));
+        assertThat(slice.isHasNext(), is(true));
+        assertThat(slice.getNextCursor(), notNullValue());
+        verifyNoInteractions(tradeRepository);
+    }
+
+    @Test
+    void shouldSelectTheFieldsOfAnArchivedTradeFromColdStorage() {
+        // Given
+        when(sparseQueryRepository.findFirstFields(eq(TradeEntity.class), any(), any())).thenReturn(Optional.empty());
+        when(coldTradeStore.findByTradeId(5L)).thenReturn(Optional.of(trade(5L, "BTCUSDT", "trade")));
+
+        // When
+        Map<String, Object> fields = tradeService.getTradeFieldsByTradeId(5L, SparseFields.ofTrade("tradeId,symbol"));
+
+        // Then
+        assertThat(fields, is(Map.of("tradeId", 5L, "symbol", "BTCUSDT")));
+        assertThrows(TradeNotFoundException.class,
+                () -> tradeService.getTradeFieldsByTradeId(6L, SparseFields.ofTrade("tradeId")));
+    }
+
+    @Test
+    void shouldRejectChangesToArchivedTrades() {
+        // Given
+        when(tradeWriteRepository.updateByTradeId(any())).thenReturn(0);
+        when(tradeWriteRepository.deleteByTradeId(anyLong(), any())).thenReturn(List.of());
+        when(coldTradeStore.findByTradeId(5L)).thenReturn(Optional.of(trade(5L, "BTCUSDT", "trade")));
+
+        // Then
+        assertThrows(TradeArchivedException.class, () -> tradeService.updateTrade(trade(5L, "BTCUSDT", "trade")));
+        assertThrows(TradeArchivedException.class, () -> tradeService.deleteByTradeId(5L, null));
+        assertThrows(TradeNotFoundException.class, () -> tradeService.updateTrade(trade(6L, "BTCUSDT", "trade")));
+        assertThrows(TradeNotFoundException.class, () -> tradeService.deleteByTradeId(6L, null));
+    }
+
+    private TradeEntity tradeEntity(Long tradeId) {
+        TradeEntity entity = new TradeEntity();
+        entity.setTradeId(tradeId);
+        entity.setSymbol(btc);
+        entity.setEventType(tradeEvent);
+        entity.setPrice(new BigDecimal("50000.00"));
+        entity.setQuantity(new BigDecimal("0.001"));
+        entity.setTradeTime(1_700_000_000_000L + tradeId);
+        return entity;
+    }
+
+    /**
+     * Trade ids 1 to 10 are archived and 11 to 17 are still in MySQL; both sides answer from the ordered
+     * lists the way the store and the repository page them.
+     */
+    private void hotAndColdTrades() {
+        List<TradeDto> cold = LongStream.rangeClosed(1, 10).mapToObj(id -> trade(id, "BTCUSDT", "trade")).toList();
+        List<TradeRow> hot = LongStream.rangeClosed(11, 17)
+                .mapToObj(id -> new TradeRow(id, "trade", 1_700_000_000_000L + id, "BTCUSDT",
+                        new BigDecimal("50000.00"), new BigDecimal("0.001"), 1_700_000_000_000L + id, true))
+                .toList();
+        when(coldTradeStore.count("BTCUSDT")).thenReturn((long) cold.size());
+        when(coldTradeStore.read(eq("BTCUSDT"), anyLong(), anyInt(), anyBoolean())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            List<TradeDto> ordered = invocation.<Boolean>getArgument(3) ? cold : cold.reversed();
+            return ordered.stream().skip(offset).limit(limit).toList();
+        });
+        when(tradeRepository.findRowsBySymbol(eq(btc), any())).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(1);
+            List<TradeRow> ordered = pageable.getSort().getOrderFor("tradeId").isAscending() ? hot : hot.reversed();
+            List<TradeRow> content = ordered.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+            return new PageImpl<>(content, pageable, hot.size());
+        });
+    }
+
+    private List<Long> allPages(String sortDirection) {
+        List<Long> tradeIds = new ArrayList<>();
+        Page<TradeDto> page;
+        int number = 0;
+        do {
+            page = tradeService.getTradesBySymbol("BTCUSDT", number++, 4, "tradeId", sortDirection);
+            assertThat(page.getContent().size(), lessThanOrEqualTo(4));
+            page.getContent().forEach(trade -> tradeIds.add(trade.getTradeId()));
+        } while (page.hasNext());
+        return tradeIds;
+    }
+
+    private static KeyedRow keyed(String price, long id) {
+        return new KeyedRow(Map.of("price", price), Map.of("tradeTime", 1_700_000_000_000L + id, "id", id));
+    }
+
+    private static StoredTrade stored(long tradeId, long tradeTime) {
+        return new StoredTrade(tradeId, tradeTime, 1);
+    }
+
+    private static int[] inserted(int count) {
+        int[] written = new int[count];
+        Arrays.fill(written, 1);
+        return written;
+    }
+
+    static TradeDto trade(Long tradeId, String symbol, String eventType) {
+        TradeDto dto = new TradeDto();
+        dto.setTradeId(tradeId);
+        dto.setSymbol(symbol);
+        dto.setEventType(eventType);
+        dto.setPrice(new BigDecimal("50000.00"));
+        dto.setQuantity(new BigDecimal("0.001"));
+        dto.setTradeTime(1_700_000_000_000L + tradeId);
+        dto.setEventTimestamp(1_700_000_000_000L + tradeId);
+        dto.setIsBuyerMarketMaker(true);
+        return dto;
+    }
+}